@@ -0,0 +1,82 @@
+package com.aldrineeinsteen.fun.benchmarks;
+
+import com.aldrineeinsteen.fun.options.helper.DisplayWidth;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Padding one frame's worth of dashboard cells to the column width: the regular expression that stripped escape
+ * codes before counting characters, against {@link DisplayWidth} scanning the text in place.
+ * Run with {@code -prof gc} to compare the allocation rate as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisplayWidthBenchmark {
+
+    private static final String GREEN = "\033[32m";
+    private static final String RESET = "\033[0m";
+    private static final int COLUMN_WIDTH = 37;
+
+    // Lines as the dashboard renders them: a green key, then the value, some with colours or wide characters
+    private static final String[] LINES = {
+        GREEN + "Monitor: " + RESET + "2560x1440",
+        GREEN + "Device: " + RESET + ":0.0",
+        GREEN + "End Time: " + RESET + "18:00",
+        GREEN + "Delay: " + RESET + "30s",
+        GREEN + "Status: " + RESET + "\033[32m✓ Active\033[0m",
+        GREEN + "Time Remaining: " + RESET + "3h 12m",
+        GREEN + "Wakeups/h: " + RESET + "118.4",
+        GREEN + "Shortcut: " + RESET + "Ctrl+Shift+Alt+S",
+        GREEN + "Last Selection: " + RESET + "Kind regards, 田中",
+        GREEN + "Selected: " + RESET + "12s ago",
+    };
+    // LINES.length, spelled out for @OperationsPerInvocation
+    private static final int CELLS = 10;
+
+    private final StringBuilder frame = new StringBuilder(1024);
+
+    @Setup
+    public void setUp() {
+        if (LINES.length != CELLS) {
+            throw new IllegalStateException("CELLS must match the lines");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void regexWidth(Blackhole blackhole) {
+        frame.setLength(0);
+        for (String line : LINES) {
+            int visibleLength = line.replaceAll("\\033\\[[0-9;]+m", "").length();
+            int padding = COLUMN_WIDTH - visibleLength;
+            frame.append(line).append(" ".repeat(Math.max(0, padding)));
+        }
+        blackhole.consume(frame);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void displayWidth(Blackhole blackhole) {
+        frame.setLength(0);
+        for (String line : LINES) {
+            DisplayWidth.appendPadded(frame, line, COLUMN_WIDTH);
+        }
+        blackhole.consume(frame);
+    }
+}
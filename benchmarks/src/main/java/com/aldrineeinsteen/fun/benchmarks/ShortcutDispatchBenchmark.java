@@ -0,0 +1,171 @@
+package com.aldrineeinsteen.fun.benchmarks;
+
+import com.aldrineeinsteen.fun.options.helper.PluginMetadata;
+import com.aldrineeinsteen.fun.options.helper.ShortcutDispatchTable;
+import com.aldrineeinsteen.fun.options.helper.ShortcutSequenceMatcher;
+import com.github.kwhat.jnativehook.NativeInputEvent;
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keystroke throughput of the global shortcut lookup: the string key combination built for every key press
+ * before the dispatch table, against the compiled {@link ShortcutDispatchTable} and the
+ * {@link ShortcutSequenceMatcher} walking it, with a growing number of registered sequences.
+ * Run with {@code -prof gc} to compare the allocation rate as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortcutDispatchBenchmark {
+
+    private static final String TYPED_TEXT = "The quick brown Fox jumps over the lazy Dog, 42 times.";
+    // TYPED_TEXT.length(), spelled out for @OperationsPerInvocation
+    private static final int KEYSTROKES = 54;
+
+    private final int[] modifiers = new int[KEYSTROKES];
+    private final int[] keyCodes = new int[KEYSTROKES];
+
+    // Registered "CTRL + META + X, Y, Z" sequences on top of the three single-stroke shortcuts
+    @Param({"0", "1000", "5000"})
+    public int sequences;
+
+    private Map<String, PluginMetadata.ShortcutAction> shortcutActions;
+    private ShortcutDispatchTable shortcutTable;
+    private final ShortcutSequenceMatcher sequenceMatcher = new ShortcutSequenceMatcher(1500);
+    private long nowNanos;
+
+    @Setup
+    public void setUp() {
+        if (TYPED_TEXT.length() != KEYSTROKES) {
+            throw new IllegalStateException("KEYSTROKES must match the typed text");
+        }
+        shortcutActions = new HashMap<>();
+        for (String key : new String[]{"CTRL + SHIFT + ALT + S", "META + SHIFT + ALT + S", "CTRL + SHIFT + ALT + K"}) {
+            shortcutActions.put(key, new PluginMetadata.ShortcutAction("action", "com.example.Plugin", key));
+        }
+        for (int i = 0; i < sequences; i++) {
+            String key = "CTRL + META + " + letter(i / 676) + ", " + letter(i / 26) + ", " + letter(i);
+            shortcutActions.put(key, new PluginMetadata.ShortcutAction("action", "com.example.Plugin", key));
+        }
+        shortcutTable = ShortcutDispatchTable.compile(shortcutActions);
+
+        // Ordinary typing: letters, digits and punctuation, capitals with SHIFT held
+        for (int i = 0; i < KEYSTROKES; i++) {
+            char c = TYPED_TEXT.charAt(i);
+            modifiers[i] = Character.isUpperCase(c) ? NativeInputEvent.SHIFT_L_MASK : 0;
+            keyCodes[i] = keyCodeOf(Character.toUpperCase(c));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public void stringKeyCombination(Blackhole blackhole) {
+        for (int i = 0; i < KEYSTROKES; i++) {
+            blackhole.consume(shortcutActions.get(keyCombination(modifiers[i], keyCodes[i])));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public void dispatchTable(Blackhole blackhole) {
+        for (int i = 0; i < KEYSTROKES; i++) {
+            blackhole.consume(shortcutTable.lookup(modifiers[i], keyCodes[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYSTROKES)
+    public void sequenceMatcher(Blackhole blackhole) {
+        for (int i = 0; i < KEYSTROKES; i++) {
+            blackhole.consume(sequenceMatcher.onKeyPressed(shortcutTable, modifiers[i], keyCodes[i], nowNanos++));
+        }
+    }
+
+    private static char letter(int index) {
+        return (char) ('A' + index % 26);
+    }
+
+    /**
+     * The key combination string GlobalInputListener matched shortcuts by before the dispatch table.
+     */
+    private static String keyCombination(int modifiers, int keyCode) {
+        StringBuilder combination = new StringBuilder();
+        if ((modifiers & NativeInputEvent.CTRL_MASK) != 0) {
+            combination.append("CTRL + ");
+        }
+        if ((modifiers & NativeInputEvent.SHIFT_MASK) != 0) {
+            combination.append("SHIFT + ");
+        }
+        if ((modifiers & NativeInputEvent.ALT_MASK) != 0) {
+            combination.append("ALT + ");
+        }
+        if ((modifiers & NativeInputEvent.META_MASK) != 0) {
+            combination.append("META + ");
+        }
+        String keyText = NativeKeyEvent.getKeyText(keyCode);
+        if (keyText != null && !keyText.isEmpty()) {
+            combination.append(normalizeKeyText(keyText.toUpperCase()));
+        } else {
+            combination.append("UNKNOWN_KEY_").append(keyCode);
+        }
+        return combination.toString();
+    }
+
+    private static String normalizeKeyText(String keyText) {
+        switch (keyText.toUpperCase()) {
+            case "SPACE":
+            case "SPACEBAR":
+                return "SPACE";
+            case "ENTER":
+            case "RETURN":
+                return "ENTER";
+            case "ESCAPE":
+            case "ESC":
+                return "ESCAPE";
+            case "DELETE":
+            case "DEL":
+                return "DELETE";
+            case "BACKSPACE":
+            case "BACK":
+                return "BACKSPACE";
+            default:
+                return keyText.toUpperCase();
+        }
+    }
+
+    private static int keyCodeOf(char c) {
+        switch (c) {
+            case ' ':
+                return NativeKeyEvent.VC_SPACE;
+            case ',':
+                return NativeKeyEvent.VC_COMMA;
+            case '.':
+                return NativeKeyEvent.VC_PERIOD;
+            default:
+                try {
+                    return NativeKeyEvent.class.getField("VC_" + c).getInt(null);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalArgumentException("No key code for '" + c + "'", e);
+                }
+        }
+    }
+}
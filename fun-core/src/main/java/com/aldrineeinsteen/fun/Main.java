@@ -16,9 +16,16 @@
 package com.aldrineeinsteen.fun;
 
 import com.aldrineeinsteen.fun.options.GlobalInputListener;
-import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.PluginUsage;
 import com.aldrineeinsteen.fun.options.helper.DashboardInitializer;
+import com.aldrineeinsteen.fun.options.helper.DashboardManager;
+import com.aldrineeinsteen.fun.options.helper.PluginDirectoryWatcher;
+import com.aldrineeinsteen.fun.options.helper.PluginHotReloader;
+import com.aldrineeinsteen.fun.options.helper.PluginMemoryReport;
+import com.aldrineeinsteen.fun.options.helper.PluginMetadata;
 import com.aldrineeinsteen.fun.options.helper.PluginRepository;
+import com.aldrineeinsteen.fun.options.helper.ShortcutLatency;
+import com.aldrineeinsteen.fun.options.helper.StartupProfiler;
 import org.apache.commons.cli.*;
 import org.jline.terminal.Terminal;
 import org.jline.terminal.TerminalBuilder;
@@ -26,12 +33,70 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 public class Main {
 
     private final static Logger logger = LoggerFactory.getLogger(Main.class);
 
     public static void main(String[] args) throws IOException, ParseException {
+        // Enabled before anything else so that plugin discovery is included in the report
+        if (StartupProfiler.isRequested(args)) {
+            StartupProfiler.enable();
+        }
+        // Before any plugin runs, so that the runtime picks measurable threads
+        if (PluginUsage.isRequested(args)) {
+            PluginUsage.enable();
+        }
+
+        CommandLine cmd;
+        try (StartupProfiler.Span ignored = StartupProfiler.start("Main.main")) {
+            cmd = startUp(args);
+        }
+
+        if (StartupProfiler.isEnabled()) {
+            StartupProfiler.report(cmd.getOptionValue(StartupProfiler.OPTION));
+        }
+
+        if (!cmd.hasOption("h") && hasWork(cmd)) {
+            awaitTermination();
+        }
+    }
+
+    /**
+     * @return true when plugins, the dashboard or the plugin watcher were started
+     */
+    private static boolean hasWork(CommandLine cmd) {
+        return cmd.hasOption("dash") || cmd.hasOption(PluginDirectoryWatcher.OPTION)
+            || PluginRepository.getLoadedPlugins().stream()
+                .anyMatch(pluginName -> shouldStartPlugin(pluginName, cmd));
+    }
+
+    /**
+     * Keep the application running until it is terminated. Plugins run on daemon threads, and the native hook thread
+     * that used to keep the JVM alive is only there while a plugin needs it.
+     */
+    private static void awaitTermination() {
+        try {
+            new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Discover plugins, parse the command line and start the selected plugins.
+     * @return the parsed command line
+     */
+    private static CommandLine startUp(String[] args) throws IOException, ParseException {
         // Initialize plugin repository
         PluginRepository pluginRepository = new PluginRepository();
         pluginRepository.init();
@@ -46,7 +111,7 @@ public class Main {
             // Handle help option - exit immediately after showing structured help
             if (cmd.hasOption("h")) {
                 System.out.println(PluginRepository.generateStructuredHelp());
-                return;
+                return cmd;
             }
             
         } catch (ParseException e) {
@@ -55,9 +120,18 @@ public class Main {
             throw e;
         }
 
-        // Set up global input listener for keyboard shortcuts (always needed)
+        // Set up global input listener; the hook is registered once a started plugin has shortcuts or watches activity
         GlobalInputListener globalInputListener = new GlobalInputListener();
-        globalInputListener.registerHook();
+        PluginRepository.setInputListener(globalInputListener);
+        globalInputListener.registerOnDemand();
+        if (cmd.hasOption(ShortcutLatency.OPTION)) {
+            String file = cmd.getOptionValue(ShortcutLatency.OPTION);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> ShortcutLatency.report(file), "shortcut-latency"));
+        }
+        if (cmd.hasOption(PluginUsage.OPTION)) {
+            String file = cmd.getOptionValue(PluginUsage.OPTION);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> reportPluginUsage(file), "plugin-usage"));
+        }
         
         // Set up terminal if not in dashboard mode
         boolean dashboardEnabled = cmd.hasOption("dash");
@@ -85,6 +159,17 @@ public class Main {
         if (dashboardEnabled && dashboardInitializer != null) {
             dashboardInitializer.start();
         }
+
+        if (cmd.hasOption(PluginMemoryReport.OPTION)) {
+            System.out.println(PluginMemoryReport.collect(PluginRepository.getPluginHandles()).toTable());
+        }
+
+        // Watch the plugin directory if hot reload is enabled
+        if (cmd.hasOption(PluginDirectoryWatcher.OPTION)) {
+            startPluginWatcher(cmd.getOptionValue(PluginDirectoryWatcher.OPTION, PluginDirectoryWatcher.DEFAULT_DIRECTORY),
+                pluginRepository, dashboardInitializer != null ? dashboardInitializer.getDashboardManager() : null);
+        }
+        return cmd;
     }
     
     /**
@@ -92,31 +177,75 @@ public class Main {
      * This method normalizes plugin loading regardless of dashboard mode.
      */
     private static void loadAndStartPlugins(CommandLine cmd) {
+        // Determine which plugins should be started based on command line options
+        List<String> selected = new ArrayList<>();
         PluginRepository.getLoadedPlugins().forEach(pluginName -> {
-            // Determine if this plugin should be started based on command line options
-            boolean shouldStart = shouldStartPlugin(pluginName, cmd);
-            
-            if (!shouldStart) {
+            if (shouldStartPlugin(pluginName, cmd)) {
+                selected.add(pluginName);
+            } else {
                 logger.debug("Plugin {} not started - option not provided", pluginName);
-                return;
             }
-            
+        });
+
+        // Only the selected plugins are constructed; the rest stay as lightweight handles
+        PluginRepository.instantiatePlugins(selected);
+
+        selected.forEach(pluginName -> {
+            PluginRepository.configurePlugin(pluginName, paramValues(pluginName, cmd));
             logger.info("Starting plugin: {}", pluginName);
-            
-            // Start utilities
-            Runnable utility = PluginRepository.getUtility(pluginName);
-            if (utility != null) {
-                new Thread(utility).start();
+            PluginRepository.startPlugin(pluginName);
+        });
+    }
+
+    /**
+     * @return the values of the plugin's descriptor params given on the command line, by long option name
+     */
+    private static Map<String, String> paramValues(String pluginClassName, CommandLine cmd) {
+        Map<String, String> values = new HashMap<>();
+        for (PluginMetadata info : PluginRepository.getPluginInfos().values()) {
+            if (!pluginClassName.equals(info.getClassName())) {
+                continue;
             }
-            
-            // Start plugins
-            PluginTemplate plugin = PluginRepository.getPlugin(pluginName);
-            if (plugin != null) {
-                plugin.start();
+            for (Option param : info.getParams()) {
+                String value = param.getLongOpt() != null ? cmd.getOptionValue(param.getLongOpt()) : null;
+                if (value != null) {
+                    values.put(param.getLongOpt(), value);
+                }
             }
-        });
+        }
+        return values;
     }
     
+    /**
+     * Print the plugin usage table, or write it to the given file.
+     */
+    private static void reportPluginUsage(String file) {
+        if (file == null || file.isEmpty()) {
+            System.out.println(PluginUsage.toTable());
+            return;
+        }
+        try {
+            Files.writeString(Path.of(file), PluginUsage.toTable(), StandardCharsets.UTF_8);
+            System.out.println("Plugin usage written to " + file);
+        } catch (IOException e) {
+            logger.error("Could not write plugin usage to {}", file, e);
+        }
+    }
+
+    /**
+     * Load, replace and unload plugins as their JARs change in the given directory.
+     */
+    private static void startPluginWatcher(String directory, PluginRepository pluginRepository,
+                                           DashboardManager dashboardManager) {
+        try {
+            PluginDirectoryWatcher watcher = new PluginDirectoryWatcher(Paths.get(directory),
+                new PluginHotReloader(pluginRepository, dashboardManager));
+            watcher.start();
+        } catch (IOException e) {
+            logger.error("Cannot watch plugin directory {}: {}", directory, e.getMessage());
+        }
+    }
+
     /**
      * Determine if a plugin should be started based on command line options.
      * Add new plugin checks here as needed.
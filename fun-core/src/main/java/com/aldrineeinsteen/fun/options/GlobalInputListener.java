@@ -1,42 +1,174 @@
 package com.aldrineeinsteen.fun.options;
 
+import com.aldrineeinsteen.fun.options.helper.NativeLibraryCache;
 import com.aldrineeinsteen.fun.options.helper.PluginMetadata;
 import com.aldrineeinsteen.fun.options.helper.PluginRepository;
+import com.aldrineeinsteen.fun.options.helper.ShortcutDispatcher;
+import com.aldrineeinsteen.fun.options.helper.ShortcutLatency;
+import com.aldrineeinsteen.fun.options.helper.ShortcutRepeatFilter;
+import com.aldrineeinsteen.fun.options.helper.ShortcutSequenceMatcher;
+import com.aldrineeinsteen.fun.options.helper.StartupProfiler;
 import com.github.kwhat.jnativehook.GlobalScreen;
 import com.github.kwhat.jnativehook.NativeHookException;
 import com.github.kwhat.jnativehook.NativeInputEvent;
 import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
 import com.github.kwhat.jnativehook.keyboard.NativeKeyListener;
+import com.github.kwhat.jnativehook.mouse.NativeMouseEvent;
+import com.github.kwhat.jnativehook.mouse.NativeMouseMotionListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class GlobalInputListener implements NativeKeyListener {
+import java.lang.invoke.MethodHandle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class GlobalInputListener implements NativeKeyListener, NativeMouseMotionListener {
 
     private final static Logger logger = LoggerFactory.getLogger(GlobalInputListener.class);
 
-    public void registerHook() {
+    // Actions run on the dispatcher's plugin lanes so a slow action never holds up the native hook thread
+    private final ShortcutDispatcher dispatcher =
+        ShortcutDispatcher.fromSystemProperties(this::executePluginAction);
+    // Pairs presses with releases so a held shortcut follows its repeat policy instead of firing on every repeat
+    private final ShortcutRepeatFilter repeatFilter = new ShortcutRepeatFilter();
+    private final ShortcutSequenceMatcher sequenceMatcher = new ShortcutSequenceMatcher();
+    // Started plugins with shortcuts; with the activity subscribers, they decide whether the hook is registered
+    private final Set<String> shortcutOwners = ConcurrentHashMap.newKeySet();
+    // Not a monitor: virtual threads that wait for it unmount instead of pinning their carrier
+    private final ReentrantLock hookLock = new ReentrantLock();
+    private volatile boolean registered;
+    private boolean unavailable;
+
+    /**
+     * Register the native hook only while a started plugin has shortcuts or a plugin subscribed to
+     * {@link ActivityClock}, as the hook sees every key and mouse event of the system.
+     */
+    public void registerOnDemand() {
+        ActivityClock.onSubscribersChanged(this::update);
+        update();
+    }
+
+    /**
+     * Note that a plugin with shortcuts has started.
+     */
+    public void acquire(String pluginName) {
+        if (shortcutOwners.add(pluginName)) {
+            update();
+        }
+    }
+
+    /**
+     * Note that a plugin has stopped; the hook goes away with the last plugin that needs it.
+     */
+    public void release(String pluginName) {
+        if (shortcutOwners.remove(pluginName)) {
+            update();
+        }
+    }
+
+    public boolean isRegistered() {
+        return registered;
+    }
+
+    /**
+     * Register or unregister the hook as needed. Plugins subscribe from virtual threads of the
+     * {@link PluginRuntime}; loading the native library and registering the hook run native code that would pin
+     * the carrier thread, so that work is handed to a platform thread and waited for.
+     */
+    private void update() {
+        if (!Thread.currentThread().isVirtual()) {
+            applyUpdate();
+            return;
+        }
+        Thread worker = Thread.ofPlatform().name("fun-input-hook").daemon().start(this::applyUpdate);
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for the native input hook to be updated");
+        }
+    }
+
+    private void applyUpdate() {
+        hookLock.lock();
         try {
+            boolean needed = !shortcutOwners.isEmpty() || ActivityClock.hasSubscribers();
+            if (needed && !registered && !unavailable) {
+                registerHook();
+            } else if (!needed && registered) {
+                unregisterHook();
+            }
+        } finally {
+            hookLock.unlock();
+        }
+    }
+
+    private void registerHook() {
+        try (StartupProfiler.Span ignored = StartupProfiler.start("GlobalInputListener.registerHook")) {
+            dispatcher.start();
+            // Loads the native library from the per-user cache instead of extracting it again
+            NativeLibraryCache.install();
             GlobalScreen.registerNativeHook();
             GlobalScreen.addNativeKeyListener(this);
+            // Publishes user activity for plugins such as the keep-alive timer
+            GlobalScreen.addNativeMouseMotionListener(this);
+            ActivityClock.setAvailable(true);
+            registered = true;
+            logger.info("Native input hook registered");
         } catch (NativeHookException e) {
-            e.printStackTrace();
+            logger.error("Could not register the native input hook: {}", e.getMessage());
+        } catch (LinkageError e) {
+            // The native library cannot be loaded on this system; there is no point in trying again
+            unavailable = true;
+            logger.error("Native input hook is not available: {}", e.getMessage());
+        }
+    }
+
+    private void unregisterHook() {
+        GlobalScreen.removeNativeKeyListener(this);
+        GlobalScreen.removeNativeMouseMotionListener(this);
+        ActivityClock.setAvailable(false);
+        registered = false;
+        try {
+            GlobalScreen.unregisterNativeHook();
+            logger.info("Native input hook unregistered, no started plugin needs it");
+        } catch (NativeHookException e) {
+            logger.error("Could not unregister the native input hook: {}", e.getMessage());
         }
     }
 
     @Override
     public void nativeKeyPressed(NativeKeyEvent e) {
-        String keyCombination = getKeyCombination(e);
-        logger.debug("Key pressed: {}", keyCombination);
-
-        // Retrieve the ShortcutAction object
-        PluginMetadata.ShortcutAction actionInfo = PluginRepository.getShortcutActions().get(keyCombination);
-        if (actionInfo != null) {
-            logger.debug("Executing action: {} in plugin: {}", actionInfo.getAction(), actionInfo.getPlugin());
-            // Execute the action for the specific plugin
-            executePluginAction(actionInfo.getAction(), actionInfo.getPlugin());
-        } else {
+        long now = System.nanoTime();
+        ActivityClock.keyboardActivity(now);
+        // Called for every key the user types; the compiled table rejects non-shortcuts without allocating
+        if (logger.isDebugEnabled()) {
+            logger.debug("Key pressed: {}", getKeyCombination(e));
+        }
+
+        // Advance through single strokes and multi-stroke sequences
+        PluginMetadata.ShortcutAction actionInfo = sequenceMatcher.onKeyPressed(PluginRepository.getShortcutTable(),
+                e.getModifiers(), e.getKeyCode(), now);
+        if (actionInfo == null) {
             logger.debug("No action registered for this key combination.");
+            return;
         }
+        PluginMetadata.ShortcutAction toRun = repeatFilter.onPressed(actionInfo, e.getKeyCode(), now);
+        if (toRun != null) {
+            ShortcutLatency.recordDelivery(e.getWhen(), System.currentTimeMillis());
+            queueAction(toRun, now);
+        } else {
+            logger.trace("Held back repeated press of {} ({} policy)", actionInfo.getKeyCombination(),
+                actionInfo.getRepeatPolicy());
+        }
+    }
+
+    private void queueAction(PluginMetadata.ShortcutAction actionInfo, long pressedNanos) {
+        logger.debug("Queueing action: {} in plugin: {}", actionInfo.getAction(), actionInfo.getPlugin());
+        ShortcutLatency.record(ShortcutLatency.Stage.MATCH, System.nanoTime() - pressedNanos);
+        // Dropped actions are counted and reported by the dispatcher
+        dispatcher.submit(actionInfo, pressedNanos);
     }
 
     private String getKeyCombination(NativeKeyEvent e) {
@@ -108,7 +240,22 @@ public class GlobalInputListener implements NativeKeyListener {
 
     @Override
     public void nativeKeyReleased(NativeKeyEvent e) {
-        // Implement logic for key release events
+        long now = System.nanoTime();
+        PluginMetadata.ShortcutAction released = repeatFilter.onReleased(e.getKeyCode());
+        if (released != null) {
+            ShortcutLatency.recordDelivery(e.getWhen(), System.currentTimeMillis());
+            queueAction(released, now);
+        }
+    }
+
+    @Override
+    public void nativeMouseMoved(NativeMouseEvent e) {
+        ActivityClock.pointerMoved(e.getX(), e.getY(), System.nanoTime());
+    }
+
+    @Override
+    public void nativeMouseDragged(NativeMouseEvent e) {
+        ActivityClock.pointerMoved(e.getX(), e.getY(), System.nanoTime());
     }
 
     @Override
@@ -116,7 +263,9 @@ public class GlobalInputListener implements NativeKeyListener {
         // Implement logic for key typed events
     }
 
-    private void executePluginAction(String action, String pluginName) {
+    private void executePluginAction(PluginMetadata.ShortcutAction shortcut) {
+        String action = shortcut.getAction();
+        String pluginName = shortcut.getPlugin();
         if (action == null || action.trim().isEmpty()) {
             logger.error("Action name is null or empty for plugin: {}", pluginName);
             return;
@@ -128,6 +277,7 @@ public class GlobalInputListener implements NativeKeyListener {
         }
 
         logger.debug("Attempting to execute action '{}' on plugin '{}'", action, pluginName);
+        long startTime = System.nanoTime();
         
         try {
             PluginTemplate plugin = PluginRepository.getPlugin(pluginName);
@@ -150,12 +300,20 @@ public class GlobalInputListener implements NativeKeyListener {
             }
 
             // Execute the action
-            long startTime = System.currentTimeMillis();
-            plugin.executeAction(action);
-            long executionTime = System.currentTimeMillis() - startTime;
+            long actionStart = System.nanoTime();
+            ShortcutLatency.record(ShortcutLatency.Stage.VALIDATE, actionStart - startTime);
+            MethodHandle handle = shortcut.getHandle();
+            if (handle != null) {
+                // Bound when the plugin was loaded; the exact invocation needs no name lookup
+                PluginUsage.run(PluginUsage.ownerOf(pluginName), () -> PluginActions.invoke(handle, plugin));
+            } else {
+                PluginUsage.run(PluginUsage.ownerOf(pluginName), () -> plugin.executeAction(action));
+            }
+            long executionTime = System.nanoTime() - actionStart;
+            ShortcutLatency.record(ShortcutLatency.Stage.ACTION, executionTime);
             
             logger.info("Successfully executed action '{}' on plugin '{}' in {}ms", 
-                action, plugin.getPluginName(), executionTime);
+                action, plugin.getPluginName(), executionTime / 1_000_000);
                 
         } catch (IllegalArgumentException e) {
             logger.error("Invalid action '{}' for plugin '{}': {}", action, pluginName, e.getMessage());
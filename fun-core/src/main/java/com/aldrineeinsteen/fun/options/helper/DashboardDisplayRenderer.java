@@ -1,55 +1,109 @@
 package com.aldrineeinsteen.fun.options.helper;
 
+import com.aldrineeinsteen.fun.options.DashboardChanges;
 import com.aldrineeinsteen.fun.options.DashboardRenderer;
+import com.aldrineeinsteen.fun.options.PluginUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handles the actual rendering of dashboard content with ANSI formatting.
  */
 public class DashboardDisplayRenderer {
     private static final Logger logger = LoggerFactory.getLogger(DashboardDisplayRenderer.class);
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
+    // Time zone offsets only change on a quarter hour
+    private static final long OFFSET_VALIDITY_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
     
     // ANSI escape codes for terminal control
-    private static final String CLEAR_SCREEN = "\033[H\033[2J";
     private static final String RESET = "\033[0m";
     private static final String BOLD = "\033[1m";
     private static final String CYAN = "\033[36m";
     private static final String GREEN = "\033[32m";
     private static final String YELLOW = "\033[33m";
+    private static final String RULE = "─".repeat(80);
 
     private final DashboardGridLayout gridLayout = new DashboardGridLayout();
 
+    // Reused for every frame, so that rendering a frame from cached data allocates nothing
+    private final StringBuilder dashboard = new StringBuilder(4096);
+    private final List<List<String>> columnData = new ArrayList<>();
+    private long zoneOffsetMillis;
+    private long zoneOffsetValidUntil = Long.MIN_VALUE;
+
+    // Lines of each renderer, reused until its data changes or its refresh interval passes
+    private Map<DashboardRenderer, CachedLines> cache = new IdentityHashMap<>();
+    private Map<DashboardRenderer, CachedLines> nextCache = new IdentityHashMap<>();
+    private long refreshSlackNanos;
+    private long frameNanos;
+    private long frameChanges;
+    private long nextRefreshNanos = Long.MAX_VALUE;
+
     /**
-     * Render the complete dashboard
+     * Render the complete dashboard, laying the renderers out for this frame only
      */
     public String renderDashboard(String projectVersion, Map<String, DashboardRenderer> renderers) {
-        StringBuilder dashboard = new StringBuilder();
+        logger.debug("Rendering dashboard with {} registered renderers in grid layout", renderers.size());
+        return renderDashboard(projectVersion, gridLayout.layout(renderers));
+    }
+
+    public String renderDashboard(String projectVersion, DashboardGridLayout.Layout layout) {
+        return renderFrame(projectVersion, layout).toString();
+    }
+
+    /**
+     * Render the complete dashboard, as a frame for {@link TerminalFrame}. Renderer data is read again only when
+     * {@link DashboardChanges} were signalled since it was read or its refresh interval has passed.
+     *
+     * @return the frame, only valid until the next one is rendered
+     */
+    public CharSequence renderFrame(String projectVersion, DashboardGridLayout.Layout layout) {
+        dashboard.setLength(0);
+        frameNanos = System.nanoTime();
+        frameChanges = DashboardChanges.getChanges();
+        nextRefreshNanos = Long.MAX_VALUE;
         
-        // Clear screen and header
-        dashboard.append(CLEAR_SCREEN);
+        // Header; clearing the screen is left to TerminalFrame
         appendHeader(dashboard, projectVersion);
         
-        // Organize and render grid
-        Map<Integer, Map<Integer, DashboardRenderer>> grid = gridLayout.organizeRenderersIntoGrid(renderers);
-        
-        logger.debug("Rendering dashboard with {} registered renderers in grid layout", renderers.size());
-        
-        if (!grid.isEmpty()) {
-            renderGrid(dashboard, grid);
+        if (!layout.isEmpty()) {
+            renderGrid(dashboard, layout);
         }
         
         // Footer
         appendFooter(dashboard);
+
+        // Renderers that are gone are dropped from the cache
+        Map<DashboardRenderer, CachedLines> previous = cache;
+        cache = nextCache;
+        nextCache = previous;
+        nextCache.clear();
         
-        return dashboard.toString();
+        return dashboard;
+    }
+
+    /**
+     * Read renderer data that is due within the slack along with the current frame, rather than in a frame of its
+     * own shortly after.
+     */
+    public void setRefreshSlack(Duration slack) {
+        this.refreshSlackNanos = slack.toNanos();
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} by which renderer data shown in the last frame needs reading again,
+     *         or {@link Long#MAX_VALUE} when it only changes when signalled
+     */
+    public long getNextRefreshNanos() {
+        return nextRefreshNanos;
     }
 
     /**
@@ -59,11 +113,31 @@ public class DashboardDisplayRenderer {
         dashboard.append(BOLD).append(CYAN);
         dashboard.append("FunProject v").append(projectVersion);
         dashboard.append(RESET).append("\n");
-        dashboard.append("─".repeat(80)).append("\n");
+        dashboard.append(RULE).append("\n");
         
         // Current time
         dashboard.append(YELLOW).append("Current Time: ").append(RESET);
-        dashboard.append(LocalDateTime.now().format(TIME_FORMATTER)).append("\n\n");
+        appendLocalTime(dashboard);
+        dashboard.append("\n\n");
+    }
+
+    /**
+     * Append the local time as HH:mm:ss
+     */
+    private void appendLocalTime(StringBuilder dashboard) {
+        long now = System.currentTimeMillis();
+        if (now >= zoneOffsetValidUntil) {
+            zoneOffsetMillis = TimeZone.getDefault().getOffset(now);
+            zoneOffsetValidUntil = now - Math.floorMod(now, OFFSET_VALIDITY_MILLIS) + OFFSET_VALIDITY_MILLIS;
+        }
+        int secondOfDay = (int) (Math.floorMod(now + zoneOffsetMillis, DAY_MILLIS) / 1000);
+        appendTwoDigits(dashboard, secondOfDay / 3600).append(':');
+        appendTwoDigits(dashboard, secondOfDay / 60 % 60).append(':');
+        appendTwoDigits(dashboard, secondOfDay % 60);
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder dashboard, int value) {
+        return dashboard.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
     }
 
     /**
@@ -71,80 +145,38 @@ public class DashboardDisplayRenderer {
      */
     private void appendFooter(StringBuilder dashboard) {
         dashboard.append("\n");
-        dashboard.append("─".repeat(80)).append("\n");
+        dashboard.append(RULE).append("\n");
         dashboard.append(YELLOW).append("Press Ctrl+C to exit").append(RESET).append("\n");
     }
 
     /**
      * Render the grid with box-drawing characters and dividers
      */
-    private void renderGrid(StringBuilder dashboard, Map<Integer, Map<Integer, DashboardRenderer>> grid) {
-        int columnWidth = 38; // Width for each column
-        
-        for (Map.Entry<Integer, Map<Integer, DashboardRenderer>> rowEntry : grid.entrySet()) {
-            Map<Integer, DashboardRenderer> columns = rowEntry.getValue();
-            int numColumns = columns.size();
-            
-            renderGridBorders(dashboard, numColumns, columnWidth, true);
-            renderPluginHeaders(dashboard, columns, columnWidth);
-            renderGridBorders(dashboard, numColumns, columnWidth, false);
-            renderPluginData(dashboard, columns, columnWidth);
-            renderGridBorders(dashboard, numColumns, columnWidth, true, true);
-        }
-    }
-
-    /**
-     * Render grid borders (top, middle, or bottom)
-     */
-    private void renderGridBorders(StringBuilder dashboard, int numColumns, int columnWidth, 
-                                 boolean isTopOrBottom) {
-        renderGridBorders(dashboard, numColumns, columnWidth, isTopOrBottom, false);
-    }
-
-    private void renderGridBorders(StringBuilder dashboard, int numColumns, int columnWidth, 
-                                 boolean isTopOrBottom, boolean isBottom) {
-        if (isBottom) {
-            dashboard.append("└");
-        } else if (isTopOrBottom) {
-            dashboard.append("┌");
-        } else {
-            dashboard.append("├");
-        }
-        
-        for (int i = 1; i <= numColumns; i++) {
-            dashboard.append("─".repeat(columnWidth));
-            if (i < numColumns) {
-                if (isBottom) {
-                    dashboard.append("┴");
-                } else if (isTopOrBottom) {
-                    dashboard.append("┬");
-                } else {
-                    dashboard.append("┼");
-                }
-            }
-        }
-        
-        if (isBottom) {
-            dashboard.append("┘\n");
-        } else if (isTopOrBottom) {
-            dashboard.append("┐\n");
-        } else {
-            dashboard.append("┤\n");
+    private void renderGrid(StringBuilder dashboard, DashboardGridLayout.Layout layout) {
+        List<DashboardGridLayout.Row> rows = layout.getRows();
+        // Indexed loops, as iterators would be allocated every frame
+        for (int i = 0; i < rows.size(); i++) {
+            DashboardGridLayout.Row row = rows.get(i);
+            dashboard.append(row.getTopBorder());
+            renderPluginHeaders(dashboard, row.getColumns(), row.getColumnWidth());
+            dashboard.append(row.getDividerBorder());
+            renderPluginData(dashboard, row.getColumns(), row.getOwners(), row.getColumnWidth());
+            dashboard.append(row.getBottomBorder());
         }
     }
 
     /**
      * Render plugin name headers
      */
-    private void renderPluginHeaders(StringBuilder dashboard, Map<Integer, DashboardRenderer> columns, 
+    private void renderPluginHeaders(StringBuilder dashboard, List<DashboardRenderer> columns, 
                                    int columnWidth) {
         dashboard.append("│");
-        for (Map.Entry<Integer, DashboardRenderer> colEntry : columns.entrySet()) {
-            DashboardRenderer renderer = colEntry.getValue();
+        for (int i = 0; i < columns.size(); i++) {
+            DashboardRenderer renderer = columns.get(i);
             String pluginName = renderer.getDashboardPluginName();
-            dashboard.append(" ").append(BOLD).append(CYAN).append(pluginName).append(RESET);
-            int padding = columnWidth - pluginName.length() - 1;
-            dashboard.append(" ".repeat(Math.max(0, padding))).append("│");
+            dashboard.append(" ").append(BOLD).append(CYAN);
+            DisplayWidth.appendPadded(dashboard, pluginName, columnWidth - 1);
+            dashboard.append(RESET).append("│");
         }
         dashboard.append("\n");
     }
@@ -152,15 +184,15 @@ public class DashboardDisplayRenderer {
     /**
      * Render plugin data content
      */
-    private void renderPluginData(StringBuilder dashboard, Map<Integer, DashboardRenderer> columns, 
+    private void renderPluginData(StringBuilder dashboard, List<DashboardRenderer> columns, List<String> owners,
                                 int columnWidth) {
         // Collect data from all columns
-        List<List<String>> columnData = new ArrayList<>();
+        columnData.clear();
         int maxRows = 0;
         
-        for (Map.Entry<Integer, DashboardRenderer> colEntry : columns.entrySet()) {
-            DashboardRenderer renderer = colEntry.getValue();
-            List<String> lines = collectRendererData(renderer);
+        for (int i = 0; i < columns.size(); i++) {
+            DashboardRenderer renderer = columns.get(i);
+            List<String> lines = collectRendererData(renderer, owners.get(i));
             columnData.add(lines);
             maxRows = Math.max(maxRows, lines.size());
         }
@@ -172,25 +204,37 @@ public class DashboardDisplayRenderer {
                 List<String> lines = columnData.get(colIdx);
                 String line = lineIdx < lines.size() ? lines.get(lineIdx) : "";
                 
-                // Calculate visible length (excluding ANSI codes)
-                int visibleLength = line.replaceAll("\\033\\[[0-9;]+m", "").length();
-                int padding = columnWidth - visibleLength - 1;
-                
-                dashboard.append(" ").append(line);
-                dashboard.append(" ".repeat(Math.max(0, padding))).append("│");
+                // Padded by display width, so escape codes and wide characters do not shift the border
+                dashboard.append(" ");
+                DisplayWidth.appendPadded(dashboard, line, columnWidth - 1);
+                dashboard.append("│");
             }
             dashboard.append("\n");
         }
     }
 
     /**
-     * Collect data from a single renderer
+     * Collect data from a single renderer, or reuse what was collected while it is up to date
      */
-    private List<String> collectRendererData(DashboardRenderer renderer) {
+    private List<String> collectRendererData(DashboardRenderer renderer, String owner) {
+        long refreshNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, renderer.getDashboardRefreshMillis()));
+        CachedLines cached = cache.get(renderer);
+        if (cached == null || cached.changes != frameChanges
+                || (refreshNanos > 0 && frameNanos - cached.readNanos + refreshSlackNanos >= refreshNanos)) {
+            cached = new CachedLines(readRendererData(renderer, owner), frameNanos, frameChanges);
+        }
+        nextCache.put(renderer, cached);
+        if (refreshNanos > 0) {
+            nextRefreshNanos = Math.min(nextRefreshNanos, cached.readNanos + refreshNanos);
+        }
+        return cached.lines;
+    }
+
+    private List<String> readRendererData(DashboardRenderer renderer, String owner) {
         List<String> lines = new ArrayList<>();
         
         try {
-            Map<String, String> data = renderer.getDashboardData();
+            Map<String, String> data = PluginUsage.call(owner, renderer::getDashboardData);
             if (data != null && !data.isEmpty()) {
                 for (Map.Entry<String, String> dataEntry : data.entrySet()) {
                     String line = GREEN + dataEntry.getKey() + ": " + RESET + dataEntry.getValue();
@@ -204,6 +248,21 @@ public class DashboardDisplayRenderer {
         
         return lines;
     }
+
+    /**
+     * The lines of a renderer, and when and after how many {@link DashboardChanges} they were read.
+     */
+    private static final class CachedLines {
+        private final List<String> lines;
+        private final long readNanos;
+        private final long changes;
+
+        private CachedLines(List<String> lines, long readNanos, long changes) {
+            this.lines = lines;
+            this.readNanos = readNanos;
+            this.changes = changes;
+        }
+    }
 }
 
 // Made with Bob
@@ -1,9 +1,13 @@
 package com.aldrineeinsteen.fun.options.helper;
 
 import com.aldrineeinsteen.fun.options.DashboardRenderer;
+import com.aldrineeinsteen.fun.options.PluginUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -13,6 +17,9 @@ import java.util.TreeMap;
 public class DashboardGridLayout {
     private static final Logger logger = LoggerFactory.getLogger(DashboardGridLayout.class);
 
+    /** Width of each column, in characters, between the dividers. */
+    public static final int COLUMN_WIDTH = 38;
+
     /**
      * Organize renderers into a grid structure based on their column and row positions
      */
@@ -33,6 +40,113 @@ public class DashboardGridLayout {
         
         return grid;
     }
+
+    /**
+     * Lay the renderers out once, for rendering any number of frames until they are registered or unregistered.
+     */
+    public Layout layout(Map<String, DashboardRenderer> renderers) {
+        // Dashboard work is charged to the plugin a renderer is registered for, not to a wrapper around it
+        Map<DashboardRenderer, String> owners = new IdentityHashMap<>();
+        renderers.forEach((name, renderer) -> owners.put(renderer, PluginUsage.ownerOf(name)));
+        List<Row> rows = new ArrayList<>();
+        for (Map<Integer, DashboardRenderer> columns : organizeRenderersIntoGrid(renderers).values()) {
+            List<String> rowOwners = new ArrayList<>();
+            for (DashboardRenderer renderer : columns.values()) {
+                rowOwners.add(owners.get(renderer));
+            }
+            rows.add(new Row(List.copyOf(columns.values()), List.copyOf(rowOwners), COLUMN_WIDTH));
+        }
+        return new Layout(List.copyOf(rows));
+    }
+
+    /**
+     * An immutable grid: rows top to bottom, each with its renderers left to right and its borders drawn.
+     */
+    public static final class Layout {
+        public static final Layout EMPTY = new Layout(List.of());
+
+        private final List<Row> rows;
+
+        private Layout(List<Row> rows) {
+            this.rows = rows;
+        }
+
+        public List<Row> getRows() {
+            return rows;
+        }
+
+        public boolean isEmpty() {
+            return rows.isEmpty();
+        }
+    }
+
+    /**
+     * One row of panels.
+     */
+    public static final class Row {
+        private final List<DashboardRenderer> columns;
+        private final List<String> owners;
+        private final int columnWidth;
+        private final String topBorder;
+        private final String dividerBorder;
+        private final String bottomBorder;
+
+        private Row(List<DashboardRenderer> columns, List<String> owners, int columnWidth) {
+            this.columns = columns;
+            this.owners = owners;
+            this.columnWidth = columnWidth;
+            this.topBorder = border(columns.size(), columnWidth, '┌', '┬', '┐');
+            this.dividerBorder = border(columns.size(), columnWidth, '├', '┼', '┤');
+            this.bottomBorder = border(columns.size(), columnWidth, '└', '┴', '┘');
+        }
+
+        private static String border(int numColumns, int columnWidth, char left, char middle, char right) {
+            StringBuilder border = new StringBuilder().append(left);
+            for (int i = 1; i <= numColumns; i++) {
+                border.append("─".repeat(columnWidth));
+                if (i < numColumns) {
+                    border.append(middle);
+                }
+            }
+            return border.append(right).append('\n').toString();
+        }
+
+        public List<DashboardRenderer> getColumns() {
+            return columns;
+        }
+
+        /**
+         * @return the plugin usage owner of each column, as named by {@link PluginUsage#ownerOf(String)}
+         */
+        public List<String> getOwners() {
+            return owners;
+        }
+
+        public int getColumnWidth() {
+            return columnWidth;
+        }
+
+        /**
+         * @return the line above the panel names, with its newline
+         */
+        public String getTopBorder() {
+            return topBorder;
+        }
+
+        /**
+         * @return the line between the panel names and their data, with its newline
+         */
+        public String getDividerBorder() {
+            return dividerBorder;
+        }
+
+        /**
+         * @return the line below the data, with its newline
+         */
+        public String getBottomBorder() {
+            return bottomBorder;
+        }
+    }
 }
 
 // Made with Bob
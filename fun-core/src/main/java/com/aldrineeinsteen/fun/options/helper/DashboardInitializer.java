@@ -17,6 +17,7 @@ package com.aldrineeinsteen.fun.options.helper;
 
 import com.aldrineeinsteen.fun.options.DashboardRenderer;
 import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.PluginUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,7 +35,7 @@ public class DashboardInitializer {
     private final String projectVersion;
     
     public DashboardInitializer() {
-        this.dashboardManager = new DashboardManager(1000); // 1 second refresh
+        this.dashboardManager = new DashboardManager();
         this.projectVersion = loadProjectVersion();
         this.dashboardManager.setProjectVersion(projectVersion);
     }
@@ -64,6 +65,12 @@ public class DashboardInitializer {
      * Initialize dashboard with system information
      */
     public void initialize() {
+        try (StartupProfiler.Span ignored = StartupProfiler.start("DashboardInitializer.initialize")) {
+            initializeSystemInfo();
+        }
+    }
+
+    private void initializeSystemInfo() {
         Map<String, String> systemInfo = new LinkedHashMap<>();
         systemInfo.put("Loaded Plugins", String.valueOf(PluginRepository.getLoadedPlugins().size()));
         
@@ -94,6 +101,14 @@ public class DashboardInitializer {
      */
     public void registerPlugins() {
         PluginRepository.getLoadedPlugins().forEach(pluginName -> {
+            // Discovered plugins are shown from their metadata until they are instantiated
+            PluginHandle handle = PluginRepository.getPluginHandle(pluginName);
+            if (handle != null) {
+                dashboardManager.registerRenderer(pluginName, new PluginHandleRenderer(handle));
+                logger.debug("Registered dashboard renderer for plugin handle: {}", pluginName);
+                return;
+            }
+
             // Check utilities first
             Runnable utility = PluginRepository.getUtility(pluginName);
             if (utility instanceof DashboardRenderer) {
@@ -110,6 +125,12 @@ public class DashboardInitializer {
                 logger.debug("Registered dashboard renderer for plugin: {}", pluginName);
             }
         });
+        if (!PluginRepository.getShortcutActions().isEmpty()) {
+            dashboardManager.registerRenderer("shortcut-latency", new ShortcutLatencyRenderer());
+        }
+        if (PluginUsage.isEnabled()) {
+            dashboardManager.registerRenderer("plugin-usage", new PluginUsageRenderer());
+        }
         logger.info("Dashboard registration complete. Registered {} renderers", dashboardManager.getRendererCount());
     }
     
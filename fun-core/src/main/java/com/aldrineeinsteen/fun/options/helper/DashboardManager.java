@@ -15,25 +15,47 @@
  */
 package com.aldrineeinsteen.fun.options.helper;
 
+import com.aldrineeinsteen.fun.options.DashboardChanges;
 import com.aldrineeinsteen.fun.options.DashboardRenderer;
+import com.aldrineeinsteen.fun.options.PluginRuntime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * Manages the TUI dashboard display for all plugins.
  * Coordinates rendering and updates from multiple plugin sources.
+ * <p>
+ * A frame is rendered when a plugin signals {@link DashboardChanges}, at most {@link #MAX_FPS_PROPERTY} times a
+ * second, and otherwise only when a clock field is due: the current time in the header every second, and renderers
+ * with a refresh interval.
  */
-public class DashboardManager implements Runnable {
+public class DashboardManager {
     private static final Logger logger = LoggerFactory.getLogger(DashboardManager.class);
+
+    /** System property; the most frames rendered per second, however often plugins signal changes. */
+    public static final String MAX_FPS_PROPERTY = "fun.dashboard.max-fps";
+    static final int DEFAULT_MAX_FPS = 10;
     
-    private final Map<String, DashboardRenderer> renderers = new ConcurrentHashMap<>();
+    // Copy-on-write, so each frame renders one consistent set even while plugins are being swapped
+    private volatile Map<String, DashboardRenderer> renderers = Map.of();
+    // Laid out again only when renderers are registered or unregistered
+    private volatile DashboardGridLayout.Layout layout = DashboardGridLayout.Layout.EMPTY;
     private final AtomicBoolean running = new AtomicBoolean(false);
-    private final int refreshIntervalMs;
+    private final long frameIntervalNanos;
+    // Guards the fields below; the render scheduled last is the only one that runs
+    private final Object schedule = new Object();
+    private PluginRuntime.Task pendingRender;
+    private long pendingAtNanos;
+    private long scheduledRenders;
+    private long lastFrameNanos;
     private String projectVersion = "1.0.0";
     private Map<String, String> systemInfo = new LinkedHashMap<>();
     
@@ -42,13 +64,17 @@ public class DashboardManager implements Runnable {
     private static final String SHOW_CURSOR = "\033[?25h";
     
     private final DashboardDisplayRenderer displayRenderer = new DashboardDisplayRenderer();
+    private final DashboardGridLayout gridLayout = new DashboardGridLayout();
+    private final TerminalFrame frame = new TerminalFrame();
+    private FrameWriter writer;
     
     public DashboardManager() {
-        this(1000); // Default 1 second refresh
+        this(Integer.getInteger(MAX_FPS_PROPERTY, DEFAULT_MAX_FPS));
     }
     
-    public DashboardManager(int refreshIntervalMs) {
-        this.refreshIntervalMs = refreshIntervalMs;
+    public DashboardManager(int maxFramesPerSecond) {
+        this.frameIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxFramesPerSecond);
+        displayRenderer.setRefreshSlack(Duration.ofNanos(frameIntervalNanos));
     }
     
     /**
@@ -59,7 +85,8 @@ public class DashboardManager implements Runnable {
             logger.debug("Attempting to register renderer for plugin: {}, isDashboardEnabled: {}",
                 pluginName, renderer.isDashboardEnabled());
             if (renderer.isDashboardEnabled()) {
-                renderers.put(pluginName, renderer);
+                updateRenderers(next -> next.put(pluginName, renderer));
+                requestRender(System.nanoTime());
                 logger.info("Successfully registered dashboard renderer for plugin: {}", pluginName);
             } else {
                 logger.warn("Dashboard renderer for plugin {} is disabled", pluginName);
@@ -73,9 +100,17 @@ public class DashboardManager implements Runnable {
      * Unregister a plugin renderer
      */
     public void unregisterRenderer(String pluginName) {
-        renderers.remove(pluginName);
+        updateRenderers(next -> next.remove(pluginName));
+        requestRender(System.nanoTime());
         logger.debug("Unregistered dashboard renderer for plugin: {}", pluginName);
     }
+
+    private synchronized void updateRenderers(Consumer<Map<String, DashboardRenderer>> change) {
+        Map<String, DashboardRenderer> next = new LinkedHashMap<>(renderers);
+        change.accept(next);
+        renderers = Collections.unmodifiableMap(next);
+        layout = gridLayout.layout(next);
+    }
     
     /**
      * Set the project version to display
@@ -92,12 +127,24 @@ public class DashboardManager implements Runnable {
     }
     
     /**
-     * Start the dashboard rendering loop
+     * Start rendering the dashboard on the shared {@link PluginRuntime} whenever it changes
      */
     public void start() {
         if (running.compareAndSet(false, true)) {
             logger.info("Starting dashboard manager");
-            new Thread(this, "DashboardManager").start();
+            // Hide cursor for cleaner display
+            synchronized (frame) {
+                if (writer == null) {
+                    writer = FrameWriter.forStandardOutput();
+                }
+                writer.write(HIDE_CURSOR);
+            }
+            long now = System.nanoTime();
+            synchronized (schedule) {
+                lastFrameNanos = now - frameIntervalNanos;
+            }
+            DashboardChanges.setListener(() -> requestRender(System.nanoTime()));
+            requestRender(now);
         }
     }
     
@@ -107,40 +154,86 @@ public class DashboardManager implements Runnable {
     public void stop() {
         if (running.compareAndSet(true, false)) {
             logger.info("Stopping dashboard manager");
-            // Show cursor again
-            System.out.print(SHOW_CURSOR);
-            System.out.flush();
+            DashboardChanges.setListener(null);
+            synchronized (schedule) {
+                scheduledRenders++;
+                if (pendingRender != null) {
+                    pendingRender.cancel();
+                    pendingRender = null;
+                }
+            }
+            // Let a frame being written finish, so the cursor is shown after it
+            synchronized (frame) {
+                // Show cursor again
+                writer.write(SHOW_CURSOR);
+            }
+            if (frame.getFrames() > 0) {
+                logger.info("Dashboard wrote {} bytes in {} frames, {} bytes with full repaints",
+                    frame.getTotalBytes(), frame.getFrames(), frame.getTotalFullFrameBytes());
+            }
         }
     }
-    
-    @Override
-    public void run() {
-        // Hide cursor for cleaner display
-        System.out.print(HIDE_CURSOR);
-        System.out.flush();
-        
-        try {
-            while (running.get()) {
+
+    /**
+     * Render a frame at the given {@link System#nanoTime()}, or as soon after it as the frame rate allows, unless one
+     * is due by then anyway.
+     */
+    private void requestRender(long atNanos) {
+        synchronized (schedule) {
+            if (!running.get()) {
+                return;
+            }
+            long at = Math.max(atNanos, lastFrameNanos + frameIntervalNanos);
+            if (pendingRender != null) {
+                if (pendingAtNanos <= at) {
+                    return;
+                }
+                pendingRender.cancel();
+            }
+            long render = ++scheduledRenders;
+            pendingAtNanos = at;
+            pendingRender = PluginRuntime.schedule("dashboard", () -> renderFrame(render),
+                Duration.ofNanos(Math.max(0, at - System.nanoTime())));
+        }
+    }
+
+    private void renderFrame(long render) {
+        synchronized (schedule) {
+            // A render that was replaced, or cancelled after it started, does nothing
+            if (render != scheduledRenders || !running.get()) {
+                return;
+            }
+            pendingRender = null;
+            lastFrameNanos = System.nanoTime();
+        }
+        synchronized (frame) {
+            if (running.get()) {
                 renderDashboard();
-                Thread.sleep(refreshIntervalMs);
             }
-        } catch (InterruptedException e) {
-            logger.debug("Dashboard manager interrupted", e);
-            Thread.currentThread().interrupt();
-        } finally {
-            // Show cursor when exiting
-            System.out.print(SHOW_CURSOR);
-            System.out.flush();
         }
+        requestRender(nextClockNanos());
+    }
+
+    /**
+     * @return when the next clock field changes: the time in the header, or data with a refresh interval
+     */
+    private long nextClockNanos() {
+        long millisToNextSecond = 1000 - System.currentTimeMillis() % 1000;
+        long header = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millisToNextSecond);
+        return Math.min(header, displayRenderer.getNextRefreshNanos());
     }
     
     /**
-     * Render the complete dashboard
+     * Render the complete dashboard and write the cells that changed since the last frame
      */
     private void renderDashboard() {
-        String dashboardContent = displayRenderer.renderDashboard(projectVersion, renderers);
-        System.out.print(dashboardContent);
-        System.out.flush();
+        CharSequence dashboardContent = displayRenderer.renderFrame(projectVersion, layout);
+        writer.write(frame.update(dashboardContent));
+        // Guarded, as the arguments would be boxed even with debug logging off
+        if (logger.isDebugEnabled()) {
+            logger.debug("Dashboard frame {}: {} bytes written, {} bytes for a full repaint", frame.getFrames(),
+                frame.getLastFrameBytes(), frame.getLastFullFrameBytes());
+        }
     }
     
     /**
@@ -150,6 +243,13 @@ public class DashboardManager implements Runnable {
         return running.get();
     }
     
+    /**
+     * Get the bytes written for the last frame
+     */
+    public long getLastFrameBytes() {
+        return frame.getLastFrameBytes();
+    }
+    
     /**
      * Get the number of registered renderers
      */
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.helper;
+
+import java.util.Arrays;
+
+/**
+ * How many terminal columns text takes. ANSI escape sequences take none, East Asian wide and fullwidth characters
+ * (UAX #11) and emoji take two, and combining marks and other zero-width characters take none; everything else takes
+ * one. Text is scanned in place, without regular expressions or substrings.
+ */
+public final class DisplayWidth {
+
+    private static final char ESC = '\033';
+    private static final String RESET = "\033[0m";
+    private static final char ELLIPSIS = '…';
+
+    // Start and end, inclusive, of the ranges of wide characters, in order
+    private static final int[] WIDE = {
+        0x1100, 0x115F,   // Hangul Jamo initial consonants
+        0x231A, 0x231B,   // Watch, hourglass
+        0x2329, 0x232A,   // Angle brackets
+        0x23E9, 0x23EC,
+        0x23F0, 0x23F0,
+        0x23F3, 0x23F3,
+        0x25FD, 0x25FE,
+        0x2614, 0x2615,
+        0x2648, 0x2653,
+        0x267F, 0x267F,
+        0x2693, 0x2693,
+        0x26A1, 0x26A1,
+        0x26AA, 0x26AB,
+        0x26BD, 0x26BE,
+        0x26C4, 0x26C5,
+        0x26CE, 0x26CE,
+        0x26D4, 0x26D4,
+        0x26EA, 0x26EA,
+        0x26F2, 0x26F3,
+        0x26F5, 0x26F5,
+        0x26FA, 0x26FA,
+        0x26FD, 0x26FD,
+        0x2705, 0x2705,   // White heavy check mark
+        0x270A, 0x270B,
+        0x2728, 0x2728,
+        0x274C, 0x274C,   // Cross mark
+        0x274E, 0x274E,
+        0x2753, 0x2755,
+        0x2757, 0x2757,
+        0x2795, 0x2797,
+        0x27B0, 0x27B0,
+        0x27BF, 0x27BF,
+        0x2B1B, 0x2B1C,
+        0x2B50, 0x2B50,
+        0x2B55, 0x2B55,
+        0x2E80, 0x303E,   // CJK radicals, Kangxi, CJK symbols and punctuation
+        0x3041, 0x33FF,   // Hiragana, Katakana, Bopomofo, Hangul compatibility Jamo, CJK compatibility
+        0x3400, 0x4DBF,   // CJK unified ideographs extension A
+        0x4E00, 0x9FFF,   // CJK unified ideographs
+        0xA000, 0xA4CF,   // Yi
+        0xA960, 0xA97F,   // Hangul Jamo extended A
+        0xAC00, 0xD7A3,   // Hangul syllables
+        0xF900, 0xFAFF,   // CJK compatibility ideographs
+        0xFE10, 0xFE19,   // Vertical forms
+        0xFE30, 0xFE6F,   // CJK compatibility forms, small form variants
+        0xFF00, 0xFF60,   // Fullwidth forms
+        0xFFE0, 0xFFE6,
+        0x16FE0, 0x16FE4,
+        0x17000, 0x18CFF, // Tangut
+        0x1AFF0, 0x1B2FF, // Kana supplement and extensions, Nushu
+        0x1F004, 0x1F004,
+        0x1F0CF, 0x1F0CF,
+        0x1F18E, 0x1F18E,
+        0x1F191, 0x1F19A,
+        0x1F200, 0x1F251, // Enclosed ideographic supplement
+        0x1F260, 0x1F265,
+        0x1F300, 0x1F320, // Emoji
+        0x1F32D, 0x1F335,
+        0x1F337, 0x1F37C,
+        0x1F37E, 0x1F393,
+        0x1F3A0, 0x1F3CA,
+        0x1F3CF, 0x1F3D3,
+        0x1F3E0, 0x1F3F0,
+        0x1F3F4, 0x1F3F4,
+        0x1F3F8, 0x1F43E,
+        0x1F440, 0x1F440,
+        0x1F442, 0x1F4FC,
+        0x1F4FF, 0x1F53D,
+        0x1F54B, 0x1F54E,
+        0x1F550, 0x1F567,
+        0x1F57A, 0x1F57A,
+        0x1F595, 0x1F596,
+        0x1F5A4, 0x1F5A4,
+        0x1F5FB, 0x1F64F,
+        0x1F680, 0x1F6C5,
+        0x1F6CC, 0x1F6CC,
+        0x1F6D0, 0x1F6D2,
+        0x1F6D5, 0x1F6D7,
+        0x1F6DC, 0x1F6DF,
+        0x1F6EB, 0x1F6EC,
+        0x1F6F4, 0x1F6FC,
+        0x1F7E0, 0x1F7EB,
+        0x1F7F0, 0x1F7F0,
+        0x1F90C, 0x1F93A,
+        0x1F93C, 0x1F945,
+        0x1F947, 0x1F9FF,
+        0x1FA70, 0x1FAFF,
+        0x20000, 0x2FFFD, // CJK unified ideographs extensions B to F
+        0x30000, 0x3FFFD, // CJK unified ideographs extensions G and H
+    };
+
+    private DisplayWidth() {
+    }
+
+    /**
+     * @return the columns one character takes: 0, 1 or 2
+     */
+    public static int of(int codePoint) {
+        if (codePoint < 0x300) {
+            // Latin text, the common case; control characters take no column
+            return codePoint >= 0x20 && codePoint < 0x7F || codePoint >= 0xA0 ? 1 : 0;
+        }
+        if (codePoint >= 0x1160 && codePoint <= 0x11FF || codePoint == 0x200B) {
+            // Hangul medial vowels and final consonants join the syllable before them
+            return 0;
+        }
+        int type = Character.getType(codePoint);
+        if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || type == Character.FORMAT) {
+            return 0;
+        }
+        return isWide(codePoint) ? 2 : 1;
+    }
+
+    private static boolean isWide(int codePoint) {
+        if (codePoint < WIDE[0]) {
+            return false;
+        }
+        int index = Arrays.binarySearch(WIDE, codePoint);
+        // Found as a range bound, or between a start (even index) and its end
+        return index >= 0 || (-index - 2) % 2 == 0;
+    }
+
+    /**
+     * @return the columns the text takes
+     */
+    public static int of(CharSequence text) {
+        return of(text, 0, text.length());
+    }
+
+    /**
+     * @return the columns the characters from start to end take
+     */
+    public static int of(CharSequence text, int start, int end) {
+        int width = 0;
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == ESC) {
+                i = skipEscape(text, i, end);
+            } else if (c < 0x7F && c >= 0x20) {
+                width++;
+                i++;
+            } else {
+                int codePoint = codePointAt(text, i, end);
+                width += of(codePoint);
+                i += Character.charCount(codePoint);
+            }
+        }
+        return width;
+    }
+
+    /**
+     * @return the index after the escape sequence starting at the index: a CSI sequence such as an SGR colour, or
+     *         else the escape and the character after it
+     */
+    static int skipEscape(CharSequence text, int index, int end) {
+        if (index + 1 < end && text.charAt(index + 1) == '[') {
+            int i = index + 2;
+            // Parameter and intermediate bytes, then one final byte
+            while (i < end && (text.charAt(i) < 0x40 || text.charAt(i) > 0x7E)) {
+                i++;
+            }
+            return Math.min(i + 1, end);
+        }
+        return Math.min(index + 2, end);
+    }
+
+    /**
+     * @return the index at which to cut the text so that it takes at most the given columns; escape sequences
+     *         before the cut are kept
+     */
+    public static int fit(CharSequence text, int columns) {
+        int width = 0;
+        int i = 0;
+        int end = text.length();
+        while (i < end) {
+            char c = text.charAt(i);
+            if (c == ESC) {
+                i = skipEscape(text, i, end);
+                continue;
+            }
+            int codePoint = codePointAt(text, i, end);
+            int charWidth = of(codePoint);
+            if (width + charWidth > columns) {
+                return i;
+            }
+            width += charWidth;
+            i += Character.charCount(codePoint);
+        }
+        return end;
+    }
+
+    /**
+     * Append the text, cut with an ellipsis when it is wider than the columns, and pad it with spaces to exactly
+     * the columns. Styles cut off with the text are reset.
+     */
+    public static StringBuilder appendPadded(StringBuilder out, CharSequence text, int columns) {
+        if (columns <= 0) {
+            return out;
+        }
+        int width = of(text);
+        if (width <= columns) {
+            out.append(text);
+        } else {
+            int cut = fit(text, columns - 1);
+            out.append(text, 0, cut).append(ELLIPSIS);
+            width = of(text, 0, cut) + 1;
+            if (hasEscape(text, cut)) {
+                out.append(RESET);
+            }
+        }
+        for (; width < columns; width++) {
+            out.append(' ');
+        }
+        return out;
+    }
+
+    private static int codePointAt(CharSequence text, int index, int end) {
+        char high = text.charAt(index);
+        if (Character.isHighSurrogate(high) && index + 1 < end && Character.isLowSurrogate(text.charAt(index + 1))) {
+            return Character.toCodePoint(high, text.charAt(index + 1));
+        }
+        return high;
+    }
+
+    private static boolean hasEscape(CharSequence text, int end) {
+        for (int i = 0; i < end; i++) {
+            if (text.charAt(i) == ESC) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
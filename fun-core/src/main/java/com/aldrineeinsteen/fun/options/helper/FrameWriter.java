@@ -0,0 +1,128 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes dashboard frames to the terminal: each frame is encoded as UTF-8 into a direct buffer that is kept for the
+ * next frame, and handed to the channel in one write, bypassing {@link System#out}'s lock and encoder. Once the
+ * buffer has grown to the largest frame, writing allocates nothing.
+ * <p>
+ * Where standard output does not expect UTF-8, frames go through {@link System#out} instead, which encodes them for
+ * the console.
+ */
+public class FrameWriter {
+    private static final Logger logger = LoggerFactory.getLogger(FrameWriter.class);
+
+    private static final int INITIAL_CAPACITY = 8 * 1024;
+
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+
+    /**
+     * @param channel where frames are written, or null to write through {@link System#out}
+     */
+    public FrameWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @return a writer to the standard output file descriptor
+     */
+    public static FrameWriter forStandardOutput() {
+        if (!StandardCharsets.UTF_8.equals(System.out.charset())) {
+            logger.info("Standard output is {}, writing the dashboard through System.out", System.out.charset());
+            return new FrameWriter(null);
+        }
+        return new FrameWriter(new FileOutputStream(FileDescriptor.out).getChannel());
+    }
+
+    /**
+     * Write the text; a failed write is logged and the frame dropped.
+     */
+    public void write(CharSequence text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        if (channel == null) {
+            System.out.append(text);
+            System.out.flush();
+            return;
+        }
+        buffer.clear();
+        encode(text);
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot write the dashboard: {}", e.getMessage());
+        }
+    }
+
+    private void encode(CharSequence text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            // Four bytes at most per character, or per surrogate pair
+            if (buffer.remaining() < 4) {
+                grow();
+            }
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18));
+                buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    private void grow() {
+        ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+        buffer.flip();
+        larger.put(buffer);
+        buffer = larger;
+    }
+
+    /**
+     * @return the bytes the buffer holds; it only grows
+     */
+    int getCapacity() {
+        return buffer.capacity();
+    }
+}
@@ -0,0 +1,119 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.github.kwhat.jnativehook.DefaultLibraryLocator;
+import com.github.kwhat.jnativehook.GlobalScreen;
+import com.github.kwhat.jnativehook.NativeLibraryLocator;
+import com.github.kwhat.jnativehook.NativeSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Locates jnativehook's native library in a per-user cache, keyed by jnativehook version and platform, so that it is
+ * extracted from the jar once rather than on every start. The copy is checked against the size of the library in the
+ * jar and written atomically, so an interrupted extraction is never loaded. When the cache cannot be used,
+ * jnativehook's own locator takes over.
+ */
+public class NativeLibraryCache implements NativeLibraryLocator {
+    private static final Logger logger = LoggerFactory.getLogger(NativeLibraryCache.class);
+
+    /** System property; the cache directory, by default the user's cache directory. */
+    public static final String DIRECTORY_PROPERTY = "fun.native.cache";
+    private static final String LOCATOR_PROPERTY = "jnativehook.lib.locator";
+    private static final String LIBRARY_NAME_PROPERTY = "jnativehook.lib.name";
+
+    /**
+     * Make jnativehook use this locator, unless another one has been configured. Must be called before the native
+     * hook is first used.
+     */
+    public static void install() {
+        if (System.getProperty(LOCATOR_PROPERTY) == null) {
+            System.setProperty(LOCATOR_PROPERTY, NativeLibraryCache.class.getName());
+        }
+    }
+
+    @Override
+    public Iterator<File> getLibraries() {
+        try {
+            return List.of(locate().toFile()).iterator();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot use the native library cache ({}), extracting the library next to the jar",
+                e.getMessage());
+            return new DefaultLibraryLocator().getLibraries();
+        }
+    }
+
+    private static Path locate() throws IOException {
+        String family = NativeSystem.getFamily().toString().toLowerCase(Locale.ROOT);
+        String arch = NativeSystem.getArchitecture().toString().toLowerCase(Locale.ROOT);
+        String library = System.mapLibraryName(System.getProperty(LIBRARY_NAME_PROPERTY, "JNativeHook"))
+            .replaceAll("\\.jnilib$", ".dylib");
+        String resource = "/" + GlobalScreen.class.getPackage().getName().replace('.', '/') + "/lib/" + family + "/"
+            + arch + "/" + library;
+        URL source = GlobalScreen.class.getResource(resource);
+        if (source == null) {
+            throw new IOException("No native library for " + family + "/" + arch);
+        }
+        String version = GlobalScreen.class.getPackage().getImplementationVersion();
+        return extract(source, cacheDirectory().resolve(version != null ? version : "unknown")
+            .resolve(family + "-" + arch).resolve(library));
+    }
+
+    /**
+     * Copy the library to the target unless an intact copy is there already.
+     * @return the target
+     */
+    static Path extract(URL source, Path target) throws IOException {
+        URLConnection connection = source.openConnection();
+        long size = connection.getContentLengthLong();
+        if (size >= 0 && Files.isRegularFile(target) && Files.size(target) == size) {
+            logger.debug("Native library cached at {}", target);
+            return target;
+        }
+        Files.createDirectories(target.getParent());
+        Path partial = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".part");
+        try {
+            try (InputStream in = connection.getInputStream()) {
+                Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
+            }
+            try {
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        logger.info("Native library extracted to {}", target);
+        return target;
+    }
+
+    static Path cacheDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        if (configured != null && !configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        String localAppData = System.getenv("LOCALAPPDATA");
+        if (localAppData != null && !localAppData.isEmpty()) {
+            return Paths.get(localAppData, "fun-project", "native");
+        }
+        String xdgCache = System.getenv("XDG_CACHE_HOME");
+        if (xdgCache != null && !xdgCache.isEmpty()) {
+            return Paths.get(xdgCache, "fun-project", "native");
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "fun-project", "native");
+    }
+}
@@ -0,0 +1,84 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.UtilityTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parent of every {@link PluginClassLoader}. It exposes the platform classes plus the plugin API, i.e. the classes
+ * of plugin-core and utility-core and the libraries those are built on (SLF4J, SnakeYAML); everything else on the
+ * application class path, including fun-core and other plugins, stays invisible to plugins.
+ */
+final class PluginApiClassLoader extends ClassLoader {
+    private static final Logger logger = LoggerFactory.getLogger(PluginApiClassLoader.class);
+
+    /** Packages of the libraries the plugin API depends on, which plugins compile against as well. */
+    private static final String[] EXPORTED_PACKAGES = {"org.slf4j.", "org.yaml.snakeyaml."};
+
+    private static final PluginApiClassLoader INSTANCE = new PluginApiClassLoader(PluginTemplate.class.getClassLoader());
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final ClassLoader application;
+    private final List<String> apiLocations = new ArrayList<>();
+
+    private PluginApiClassLoader(ClassLoader application) {
+        super("plugin-api", ClassLoader.getPlatformClassLoader());
+        this.application = application;
+        addApiLocation(PluginTemplate.class);
+        addApiLocation(UtilityTemplate.class);
+    }
+
+    static PluginApiClassLoader getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Record where an API class was loaded from, as the prefix of the resource URLs of its JAR or directory.
+     */
+    private void addApiLocation(Class<?> apiClass) {
+        CodeSource codeSource = apiClass.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            logger.warn("Cannot locate the plugin API classes of {}", apiClass.getName());
+            return;
+        }
+        String location = codeSource.getLocation().toString();
+        apiLocations.add(location.endsWith(".jar") ? "jar:" + location + "!/" : location);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isApiClass(name)) {
+            return application.loadClass(name);
+        }
+        return super.loadClass(name, resolve);
+    }
+
+    boolean isApiClass(String name) {
+        for (String exported : EXPORTED_PACKAGES) {
+            if (name.startsWith(exported)) {
+                return true;
+            }
+        }
+        // Decided by where the class file is, so that no class is loaded just to be rejected
+        URL resource = application.getResource(name.replace('.', '/') + ".class");
+        if (resource == null) {
+            return false;
+        }
+        String url = resource.toString();
+        for (String location : apiLocations) {
+            if (url.startsWith(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class loader for one plugin JAR. Its parent is the {@link PluginApiClassLoader}, so the plugin sees its own
+ * classes and the plugin API only, and the loader, its classes and their metaspace can be collected once the
+ * plugin is unregistered. Loaders for JARs loaded at runtime read from a private copy of the JAR, which is deleted
+ * on {@link #close()}, so the original can be overwritten while the plugin is loaded.
+ */
+public class PluginClassLoader extends URLClassLoader {
+    private static final Logger logger = LoggerFactory.getLogger(PluginClassLoader.class);
+
+    private static final AtomicInteger generations = new AtomicInteger();
+    // Weakly held, so that loaders which were closed but are still reachable show up in diagnostics
+    private static final Queue<WeakReference<PluginClassLoader>> loaders = new ConcurrentLinkedQueue<>();
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Path jar;
+    private final Path copy;
+    private final AtomicInteger definedClasses = new AtomicInteger();
+    private volatile boolean closed;
+
+    private PluginClassLoader(Path jar, Path copy) throws MalformedURLException {
+        // Numbered, so that diagnostics can tell the loaders of successive versions of a JAR apart
+        super("plugin:" + jar.getFileName() + "#" + generations.incrementAndGet(),
+            new URL[]{(copy != null ? copy : jar).toUri().toURL()}, PluginApiClassLoader.getInstance());
+        this.jar = jar;
+        this.copy = copy;
+        loaders.add(new WeakReference<>(this));
+    }
+
+    /**
+     * Create a loader that reads the JAR in place, for plugins found at startup.
+     */
+    public static PluginClassLoader open(Path jar) throws MalformedURLException {
+        return new PluginClassLoader(jar, null);
+    }
+
+    /**
+     * Copy the JAR aside and create a loader for the copy.
+     */
+    public static PluginClassLoader create(Path jar) throws IOException {
+        Path copy = Files.createTempFile("fun-plugin-", ".jar");
+        try {
+            Files.copy(jar, copy, StandardCopyOption.REPLACE_EXISTING);
+            return new PluginClassLoader(jar, copy);
+        } catch (IOException e) {
+            Files.deleteIfExists(copy);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the loaders that have not been garbage collected yet, closed ones included
+     */
+    static List<PluginClassLoader> getLiveLoaders() {
+        List<PluginClassLoader> live = new ArrayList<>();
+        loaders.removeIf(reference -> {
+            PluginClassLoader loader = reference.get();
+            if (loader != null) {
+                live.add(loader);
+            }
+            return loader == null;
+        });
+        return live;
+    }
+
+    /**
+     * @return the JAR this loader was created from
+     */
+    public Path getJar() {
+        return jar;
+    }
+
+    /**
+     * @return the number of classes this loader has defined
+     */
+    public int getDefinedClassCount() {
+        return definedClasses.get();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Class<?> defined = super.findClass(name);
+        definedClasses.incrementAndGet();
+        return defined;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            if (copy != null && !Files.deleteIfExists(copy)) {
+                logger.debug("Plugin JAR copy {} was already removed", copy);
+            }
+        }
+    }
+}
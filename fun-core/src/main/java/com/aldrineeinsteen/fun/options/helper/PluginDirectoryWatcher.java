@@ -0,0 +1,132 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a plugin directory and hands added, changed and removed JARs to a {@link PluginHotReloader}.
+ * Events are collected until the directory has been quiet for {@link #QUIET_PERIOD_MS}, so a JAR that is still
+ * being written is only loaded once it is complete. Reloads run on the watcher's own thread, never on the
+ * hotkey or dashboard threads.
+ */
+public class PluginDirectoryWatcher implements Runnable, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(PluginDirectoryWatcher.class);
+
+    public static final String OPTION = "hot-reload";
+    public static final String DEFAULT_DIRECTORY = "target/plugins";
+    static final long QUIET_PERIOD_MS = 500;
+
+    private final Path directory;
+    private final PluginHotReloader reloader;
+    private final WatchService watchService;
+    private volatile boolean running = true;
+
+    public PluginDirectoryWatcher(Path directory, PluginHotReloader reloader) throws IOException {
+        this.directory = directory.toAbsolutePath();
+        this.reloader = reloader;
+        this.watchService = directory.getFileSystem().newWatchService();
+        this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    /**
+     * Record the JARs already present and start watching on a daemon thread.
+     */
+    public void start() {
+        reloader.scan(directory);
+        Thread thread = new Thread(this, "plugin-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching {} for plugin changes", directory);
+    }
+
+    @Override
+    public void run() {
+        Set<Path> pending = new LinkedHashSet<>();
+        try {
+            while (running) {
+                WatchKey key = pending.isEmpty()
+                    ? watchService.take()
+                    : watchService.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    apply(pending);
+                    pending.clear();
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost; check every JAR present now or loaded before
+                        pending.addAll(listJars());
+                        pending.addAll(reloader.getTrackedJars());
+                    } else {
+                        Path changed = directory.resolve((Path) event.context());
+                        if (changed.getFileName().toString().endsWith(".jar")) {
+                            pending.add(changed);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    logger.warn("Plugin directory {} is no longer accessible, stopping hot reload", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed by close()
+        }
+        logger.debug("Stopped watching {}", directory);
+    }
+
+    private void apply(Set<Path> jars) {
+        for (Path jar : jars) {
+            try {
+                if (Files.isRegularFile(jar)) {
+                    reloader.reload(jar);
+                } else {
+                    reloader.unload(jar);
+                }
+            } catch (RuntimeException | LinkageError e) {
+                logger.error("Hot reload of {} failed", jar, e);
+            }
+        }
+        // Collecting the report walks every plugin class loader; only worth it when someone reads it
+        if (logger.isDebugEnabled()) {
+            logger.debug("Plugin class loaders after hot reload:\n{}",
+                PluginMemoryReport.collect(PluginRepository.getPluginHandles()).toTable());
+        }
+    }
+
+    private Set<Path> listJars() {
+        Set<Path> jars = new LinkedHashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.jar")) {
+            stream.forEach(jars::add);
+        } catch (IOException e) {
+            logger.warn("Could not list plugin directory {}: {}", directory, e.getMessage());
+        }
+        return jars;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Error closing watch service for {}", directory, e);
+        }
+    }
+}
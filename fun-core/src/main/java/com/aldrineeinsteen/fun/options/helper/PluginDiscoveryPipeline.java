@@ -0,0 +1,166 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Discovers plugins in concurrent stages (parse, class-load) on virtual threads, then commits plugin handles,
+ * options, shortcuts and plugin metadata one plugin at a time in discovery order.
+ * Committing in order keeps shortcut conflict resolution and help output identical to a sequential load.
+ * Plugins are not instantiated here; see {@link PluginHandle}.
+ */
+public class PluginDiscoveryPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(PluginDiscoveryPipeline.class);
+
+    private final PluginLoader pluginLoader;
+    private final PluginYamlParser yamlParser;
+    private final List<PluginTiming> timings = new ArrayList<>();
+
+    public PluginDiscoveryPipeline(PluginLoader pluginLoader, PluginYamlParser yamlParser) {
+        this.pluginLoader = pluginLoader;
+        this.yamlParser = yamlParser;
+    }
+
+    /**
+     * Discover plugins from plugin.yaml resources.
+     */
+    public void discoverFromYaml(List<URL> urls) {
+        run(urls, URL::getPath, yamlParser::readDescriptor);
+    }
+
+    /**
+     * Discover plugins from descriptors that are already parsed, e.g. from the build-time index.
+     */
+    public void discoverFromDescriptors(List<PluginDescriptor> descriptors) {
+        run(descriptors, PluginDescriptor::getName, Function.identity());
+    }
+
+    /**
+     * @return per-plugin stage timings, in commit order
+     */
+    public List<PluginTiming> getTimings() {
+        return new ArrayList<>(timings);
+    }
+
+    private <S> void run(List<S> sources, Function<S, String> sourceName, Function<S, PluginDescriptor> parser) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        List<CompletableFuture<Discovered>> pending = new ArrayList<>(sources.size());
+
+        try (ExecutorService executor = StartupProfiler.newStartupExecutor()) {
+            for (S source : sources) {
+                pending.add(CompletableFuture
+                        .supplyAsync(() -> parse(() -> parser.apply(source)), executor)
+                        .thenApplyAsync(discovered -> loadClass(discovered, classLoader), executor));
+            }
+
+            // Commit in discovery order; later plugins keep running their stages meanwhile
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    commit(pending.get(i).join());
+                } catch (CompletionException e) {
+                    logger.error("Plugin discovery failed for {}", sourceName.apply(sources.get(i)), e.getCause());
+                }
+            }
+        }
+    }
+
+    private Discovered parse(Supplier<PluginDescriptor> parser) {
+        Discovered discovered = new Discovered();
+        long start = System.nanoTime();
+        discovered.descriptor = parser.get();
+        discovered.parseNanos = System.nanoTime() - start;
+        return discovered;
+    }
+
+    private Discovered loadClass(Discovered discovered, ClassLoader classLoader) {
+        if (discovered.descriptor == null || discovered.descriptor.getPluginClass() == null) {
+            return discovered;
+        }
+        long start = System.nanoTime();
+        discovered.pluginClass = pluginLoader.loadIsolatedPluginClass(discovered.descriptor.getPluginClass(),
+                classLoader);
+        discovered.classLoadNanos = System.nanoTime() - start;
+        return discovered;
+    }
+
+    private void commit(Discovered discovered) {
+        if (discovered.descriptor == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (discovered.pluginClass != null) {
+            pluginLoader.registerHandle(new PluginHandle(discovered.descriptor, discovered.pluginClass, pluginLoader));
+        }
+        yamlParser.commitDescriptor(discovered.descriptor);
+        long commitNanos = System.nanoTime() - start;
+
+        PluginTiming timing = new PluginTiming(discovered.descriptor.getName(), discovered.parseNanos,
+                discovered.classLoadNanos, commitNanos);
+        timings.add(timing);
+        logger.info("Plugin '{}' discovered: {}", timing.getPluginName(), timing);
+    }
+
+    /**
+     * Work-in-progress state of one plugin as it moves through the stages.
+     */
+    private static final class Discovered {
+        private PluginDescriptor descriptor;
+        private Class<?> pluginClass;
+        private long parseNanos;
+        private long classLoadNanos;
+    }
+
+    /**
+     * How long each discovery stage took for one plugin.
+     */
+    public static final class PluginTiming {
+        private final String pluginName;
+        private final long parseNanos;
+        private final long classLoadNanos;
+        private final long commitNanos;
+
+        public PluginTiming(String pluginName, long parseNanos, long classLoadNanos, long commitNanos) {
+            this.pluginName = pluginName;
+            this.parseNanos = parseNanos;
+            this.classLoadNanos = classLoadNanos;
+            this.commitNanos = commitNanos;
+        }
+
+        public String getPluginName() {
+            return pluginName;
+        }
+
+        public long getParseNanos() {
+            return parseNanos;
+        }
+
+        public long getClassLoadNanos() {
+            return classLoadNanos;
+        }
+
+        public long getCommitNanos() {
+            return commitNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("parse %.1f ms, class-load %.1f ms, commit %.1f ms",
+                    millis(parseNanos), millis(classLoadNanos), millis(commitNanos));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
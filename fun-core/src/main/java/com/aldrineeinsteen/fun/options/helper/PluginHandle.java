@@ -0,0 +1,110 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.UtilityTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lightweight handle to a discovered plugin: its descriptor and loaded class.
+ * The plugin instance is only constructed the first time it is needed.
+ */
+public class PluginHandle {
+    private static final Logger logger = LoggerFactory.getLogger(PluginHandle.class);
+
+    private final PluginDescriptor descriptor;
+    private final Class<?> pluginClass;
+    private final PluginLoader pluginLoader;
+    private volatile Object instance;
+    private volatile boolean failed;
+
+    public PluginHandle(PluginDescriptor descriptor, Class<?> pluginClass, PluginLoader pluginLoader) {
+        this.descriptor = descriptor;
+        this.pluginClass = pluginClass;
+        this.pluginLoader = pluginLoader;
+    }
+
+    public PluginDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    public String getClassName() {
+        return descriptor.getPluginClass();
+    }
+
+    public Class<?> getPluginClass() {
+        return pluginClass;
+    }
+
+    public boolean isPlugin() {
+        return PluginTemplate.class.isAssignableFrom(pluginClass);
+    }
+
+    public boolean isUtility() {
+        return !isPlugin() && Runnable.class.isAssignableFrom(pluginClass);
+    }
+
+    public boolean isInstantiated() {
+        return instance != null;
+    }
+
+    /**
+     * @return the instance if it has already been created, without creating it
+     */
+    public Object peekInstance() {
+        return instance;
+    }
+
+    /**
+     * Create the instance on first use and apply the descriptor's dashboard settings to it.
+     * A failed construction is not retried.
+     * @return the instance, or null when construction failed
+     */
+    public Object getInstance() {
+        Object current = instance;
+        if (current != null || failed) {
+            return current;
+        }
+        synchronized (this) {
+            if (instance == null && !failed) {
+                long start = System.nanoTime();
+                Object created = pluginLoader.instantiate(getClassName(), pluginClass);
+                if (created == null) {
+                    failed = true;
+                    return null;
+                }
+                applyDashboardConfiguration(created, descriptor.getDashboard());
+                instance = created;
+                logger.info("Plugin '{}' instantiated on demand in {} ms",
+                    descriptor.getName(), (System.nanoTime() - start) / 1_000_000);
+            }
+            return instance;
+        }
+    }
+
+    private void applyDashboardConfiguration(Object target, PluginDescriptor.DashboardSpec dashboard) {
+        if (dashboard == null) {
+            logger.debug("No dashboard configuration for plugin: {}", getClassName());
+            return;
+        }
+
+        if (target instanceof UtilityTemplate) {
+            UtilityTemplate utility = (UtilityTemplate) target;
+            if (dashboard.getEnabled() != null) utility.setDashboardEnabled(dashboard.getEnabled());
+            if (dashboard.getPosition() != null) utility.setDashboardPosition(dashboard.getPosition());
+            if (dashboard.getColumn() != null) utility.setDashboardColumn(dashboard.getColumn());
+            if (dashboard.getRow() != null) utility.setDashboardRow(dashboard.getRow());
+        } else if (target instanceof PluginTemplate) {
+            PluginTemplate plugin = (PluginTemplate) target;
+            if (dashboard.getEnabled() != null) plugin.setDashboardEnabled(dashboard.getEnabled());
+            if (dashboard.getPosition() != null) plugin.setDashboardPosition(dashboard.getPosition());
+            if (dashboard.getColumn() != null) plugin.setDashboardColumn(dashboard.getColumn());
+            if (dashboard.getRow() != null) plugin.setDashboardRow(dashboard.getRow());
+        } else {
+            logger.debug("No dashboard-capable instance found for plugin: {}", getClassName());
+            return;
+        }
+        logger.debug("Applied dashboard configuration to plugin: {}", getClassName());
+    }
+}
@@ -0,0 +1,95 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.DashboardRenderer;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dashboard renderer for a plugin handle. Shows the plugin from its descriptor alone until the plugin
+ * is instantiated, then delegates to the real instance.
+ */
+public class PluginHandleRenderer implements DashboardRenderer {
+    private final PluginHandle handle;
+
+    public PluginHandleRenderer(PluginHandle handle) {
+        this.handle = handle;
+    }
+
+    private DashboardRenderer delegate() {
+        Object instance = handle.peekInstance();
+        return instance instanceof DashboardRenderer ? (DashboardRenderer) instance : null;
+    }
+
+    private PluginDescriptor.DashboardSpec spec() {
+        return handle.getDescriptor().getDashboard();
+    }
+
+    @Override
+    public Map<String, String> getDashboardData() {
+        DashboardRenderer delegate = delegate();
+        if (delegate != null) {
+            return delegate.getDashboardData();
+        }
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("Status", "Not started");
+        int shortcuts = handle.getDescriptor().getShortcuts().size();
+        if (shortcuts > 0) {
+            data.put("Shortcuts", String.valueOf(shortcuts));
+        }
+        return data;
+    }
+
+    @Override
+    public int getDashboardPosition() {
+        DashboardRenderer delegate = delegate();
+        if (delegate != null) {
+            return delegate.getDashboardPosition();
+        }
+        return spec() != null && spec().getPosition() != null ? spec().getPosition() : 100;
+    }
+
+    @Override
+    public int getDashboardColumn() {
+        DashboardRenderer delegate = delegate();
+        if (delegate != null) {
+            return delegate.getDashboardColumn();
+        }
+        return spec() != null && spec().getColumn() != null ? spec().getColumn() : 1;
+    }
+
+    @Override
+    public int getDashboardRow() {
+        DashboardRenderer delegate = delegate();
+        if (delegate != null) {
+            return delegate.getDashboardRow();
+        }
+        return spec() != null && spec().getRow() != null ? spec().getRow() : 1;
+    }
+
+    @Override
+    public String getDashboardPluginName() {
+        DashboardRenderer delegate = delegate();
+        if (delegate != null) {
+            return delegate.getDashboardPluginName();
+        }
+        return handle.getPluginClass().getSimpleName();
+    }
+
+    @Override
+    public long getDashboardRefreshMillis() {
+        DashboardRenderer delegate = delegate();
+        // Starting the plugin is signalled by the repository
+        return delegate != null ? delegate.getDashboardRefreshMillis() : 0;
+    }
+
+    @Override
+    public boolean isDashboardEnabled() {
+        DashboardRenderer delegate = delegate();
+        if (delegate != null) {
+            return delegate.isDashboardEnabled();
+        }
+        return spec() != null && Boolean.TRUE.equals(spec().getEnabled());
+    }
+}
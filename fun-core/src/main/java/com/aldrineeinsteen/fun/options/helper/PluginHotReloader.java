@@ -0,0 +1,263 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorCodec;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorException;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorYamlReader;
+import com.aldrineeinsteen.fun.options.descriptor.PluginIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Loads, replaces and unloads plugin JARs while the application runs, each in its own {@link PluginClassLoader}.
+ * A replacement is fully prepared (descriptor read, class loaded and, if the previous version was running,
+ * instantiated) before it is swapped into the registry, so global shortcuts and the dashboard keep serving the
+ * previous version until then. The previous version is stopped after the swap and the new one started in its place.
+ * Meant to be driven from a single thread, such as the {@link PluginDirectoryWatcher} thread.
+ */
+public class PluginHotReloader {
+    private static final Logger logger = LoggerFactory.getLogger(PluginHotReloader.class);
+
+    private final PluginRepository repository;
+    private final DashboardManager dashboardManager;
+    private final Map<Path, LoadedJar> jars = new HashMap<>();
+
+    /**
+     * @param dashboardManager the dashboard to keep in sync, or null when the dashboard is not enabled
+     */
+    public PluginHotReloader(PluginRepository repository, DashboardManager dashboardManager) {
+        this.repository = repository;
+        this.dashboardManager = dashboardManager;
+    }
+
+    /**
+     * Record the plugin JARs already in the directory, which were loaded from the class path at startup,
+     * so that later changes replace those plugins.
+     */
+    public void scan(Path directory) {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.jar")) {
+            for (Path jar : stream) {
+                PluginDescriptor descriptor = readDescriptor(jar);
+                if (descriptor != null && descriptor.getPluginClass() != null) {
+                    jars.put(jar, new LoadedJar(descriptor.getPluginClass(), startupClassLoader(descriptor),
+                        jar.toFile().length(), jar.toFile().lastModified()));
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not scan plugin directory {}: {}", directory, e.getMessage());
+        }
+        logger.debug("Tracking {} plugin JARs in {}", jars.size(), directory);
+    }
+
+    /**
+     * @return the class loader the plugin was given at startup, or null when it was loaded from the class path
+     */
+    private PluginClassLoader startupClassLoader(PluginDescriptor descriptor) {
+        PluginHandle handle = repository.getPluginLoader().getHandle(descriptor.getPluginClass());
+        if (handle != null && handle.getPluginClass().getClassLoader() instanceof PluginClassLoader) {
+            return (PluginClassLoader) handle.getPluginClass().getClassLoader();
+        }
+        return null;
+    }
+
+    /**
+     * @return the JARs whose plugins are currently registered
+     */
+    Set<Path> getTrackedJars() {
+        return new HashSet<>(jars.keySet());
+    }
+
+    /**
+     * Load a new or changed plugin JAR, replacing the plugin it provided before. Unchanged JARs are ignored.
+     */
+    public void reload(Path jar) {
+        // Taken before reading, so a write that lands while loading is picked up by the next event
+        long size = jar.toFile().length();
+        long lastModified = jar.toFile().lastModified();
+        LoadedJar previous = jars.get(jar);
+        if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+            logger.debug("Plugin JAR {} is unchanged", jar);
+            return;
+        }
+
+        PluginDescriptor descriptor = readDescriptor(jar);
+        if (descriptor == null || descriptor.getPluginClass() == null) {
+            logger.warn("No plugin descriptor with a plugin class in {}, ignoring it", jar);
+            return;
+        }
+        String className = descriptor.getPluginClass();
+
+        PluginClassLoader classLoader;
+        try {
+            classLoader = PluginClassLoader.create(jar);
+        } catch (IOException e) {
+            logger.error("Could not open plugin JAR {}: {}", jar, e.getMessage());
+            return;
+        }
+        PluginLoader pluginLoader = repository.getPluginLoader();
+        Class<?> pluginClass = pluginLoader.loadPluginClass(className, classLoader);
+        if (pluginClass == null) {
+            close(classLoader);
+            return;
+        }
+        PluginHandle handle = new PluginHandle(descriptor, pluginClass, pluginLoader);
+
+        // Construct the new version up front if it has to take over from a running one
+        PluginHandle current = pluginLoader.getHandle(className);
+        Object currentInstance = current != null ? current.peekInstance() : null;
+        boolean running = PluginRepository.isRunning(className, currentInstance);
+        if (running && handle.getInstance() == null) {
+            logger.error("New version of plugin '{}' could not be instantiated, keeping the running version",
+                descriptor.getName());
+            close(classLoader);
+            return;
+        }
+
+        if (previous != null && !previous.className.equals(className)) {
+            // The JAR now provides a different plugin; the old one goes away
+            retire(previous.className, repository.removePlugin(previous.className));
+            unregisterRenderer(previous.className);
+        }
+
+        PluginHandle replaced = repository.swapPlugin(handle);
+        updateRenderer(handle);
+        if (replaced != null) {
+            retire(className, replaced);
+        }
+        if (running) {
+            // The command line is only parsed once, so the new version gets the values the old one was given
+            PluginRepository.applyParams(className);
+            PluginRepository.startPlugin(className);
+        }
+
+        forgetOtherJars(className, jar);
+        LoadedJar superseded = jars.put(jar, new LoadedJar(className, classLoader, size, lastModified));
+        if (superseded != null) {
+            close(superseded.classLoader);
+        }
+        logger.info("Plugin '{}' {} from {}", descriptor.getName(), replaced != null ? "reloaded" : "loaded", jar);
+    }
+
+    /**
+     * Stop and unregister the plugin provided by a JAR that has been removed.
+     */
+    public void unload(Path jar) {
+        LoadedJar loaded = jars.remove(jar);
+        if (loaded == null) {
+            return;
+        }
+        unregisterRenderer(loaded.className);
+        PluginHandle removed = repository.removePlugin(loaded.className);
+        retire(loaded.className, removed);
+        close(loaded.classLoader);
+        logger.info("Plugin '{}' unloaded after {} was removed", loaded.className, jar);
+    }
+
+    /**
+     * A plugin moving to another JAR file (e.g. a new version number in the name) may be reported before the
+     * old file's removal; the old entry must not unload the plugin afterwards.
+     */
+    private void forgetOtherJars(String className, Path jar) {
+        Iterator<Map.Entry<Path, LoadedJar>> entries = jars.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Path, LoadedJar> entry = entries.next();
+            if (!entry.getKey().equals(jar) && entry.getValue().className.equals(className)) {
+                close(entry.getValue().classLoader);
+                entries.remove();
+            }
+        }
+    }
+
+    private void retire(String className, PluginHandle handle) {
+        if (handle != null && handle.peekInstance() != null) {
+            PluginRepository.stopInstance(className, handle.peekInstance());
+        }
+    }
+
+    private void updateRenderer(PluginHandle handle) {
+        if (dashboardManager == null) {
+            return;
+        }
+        PluginHandleRenderer renderer = new PluginHandleRenderer(handle);
+        if (renderer.isDashboardEnabled()) {
+            dashboardManager.registerRenderer(handle.getClassName(), renderer);
+        } else {
+            dashboardManager.unregisterRenderer(handle.getClassName());
+        }
+    }
+
+    private void unregisterRenderer(String className) {
+        if (dashboardManager != null) {
+            dashboardManager.unregisterRenderer(className);
+        }
+    }
+
+    private static void close(PluginClassLoader classLoader) {
+        if (classLoader == null) {
+            return;
+        }
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            logger.debug("Error closing class loader for {}", classLoader.getJar(), e);
+        }
+    }
+
+    /**
+     * Read the compiled descriptor from a plugin JAR, or its plugin.yaml when it has none.
+     * @return the descriptor, or null when the JAR has neither or cannot be read
+     */
+    static PluginDescriptor readDescriptor(Path jar) {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            ZipEntry compiled = jarFile.getEntry(PluginIndex.DESCRIPTOR_RESOURCE);
+            if (compiled != null) {
+                try (InputStream in = jarFile.getInputStream(compiled)) {
+                    return PluginDescriptorCodec.decode(in.readAllBytes());
+                }
+            }
+            ZipEntry yaml = jarFile.getEntry("plugin.yaml");
+            if (yaml == null) {
+                return null;
+            }
+            try (InputStream in = jarFile.getInputStream(yaml)) {
+                PluginDescriptorYamlReader reader = new PluginDescriptorYamlReader();
+                PluginDescriptor descriptor = reader.read(in, jar + "!/plugin.yaml");
+                reader.getWarnings().forEach(warning -> logger.error(warning));
+                return descriptor;
+            }
+        } catch (IOException | PluginDescriptorException e) {
+            logger.error("Could not read plugin descriptor from {}: {}", jar, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * A plugin JAR as last seen. Loaded from the class path at startup when it has no class loader.
+     */
+    private static final class LoadedJar {
+        private final String className;
+        private final PluginClassLoader classLoader;
+        private final long size;
+        private final long lastModified;
+
+        private LoadedJar(String className, PluginClassLoader classLoader, long size, long lastModified) {
+            this.className = className;
+            this.classLoader = classLoader;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+}
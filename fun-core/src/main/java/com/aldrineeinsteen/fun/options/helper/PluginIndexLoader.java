@@ -0,0 +1,170 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorException;
+import com.aldrineeinsteen.fun.options.descriptor.PluginIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Loads the build-time plugin index (plugins.idx) and checks that it still matches the plugin directory.
+ * An empty result means the caller should fall back to scanning the classpath for plugin.yaml.
+ */
+public class PluginIndexLoader {
+    private static final Logger logger = LoggerFactory.getLogger(PluginIndexLoader.class);
+
+    /** System property pointing at an explicit index file. */
+    public static final String INDEX_PROPERTY = "fun.plugin.index";
+
+    private final String classPath;
+    private final String indexOverride;
+    private boolean undescribedJars;
+
+    public PluginIndexLoader() {
+        this(System.getProperty("java.class.path", ""), System.getProperty(INDEX_PROPERTY));
+    }
+
+    PluginIndexLoader(String classPath, String indexOverride) {
+        this.classPath = classPath;
+        this.indexOverride = indexOverride;
+    }
+
+    /**
+     * @return descriptors in index order, or empty when no usable index was found
+     */
+    public Optional<List<PluginDescriptor>> load() {
+        try (StartupProfiler.Span ignored = StartupProfiler.start("PluginIndexLoader.load")) {
+            return loadIndex();
+        }
+    }
+
+    /**
+     * @return true when the loaded index lists plugin JARs without a plugin.yaml, which may declare
+     * their plugins as service providers instead
+     */
+    public boolean hasUndescribedJars() {
+        return undescribedJars;
+    }
+
+    private Optional<List<PluginDescriptor>> loadIndex() {
+        Set<Path> classPathJars = classPathJars();
+        Path indexFile = locateIndex(classPathJars);
+        if (indexFile == null) {
+            logger.debug("No plugin index found, falling back to plugin.yaml discovery");
+            return Optional.empty();
+        }
+
+        PluginIndex index;
+        try {
+            index = PluginIndex.read(indexFile);
+        } catch (IOException | PluginDescriptorException e) {
+            logger.warn("Ignoring unreadable plugin index {}: {}", indexFile, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (!isFresh(index, indexFile.toAbsolutePath().getParent(), classPathJars)) {
+            return Optional.empty();
+        }
+
+        List<PluginDescriptor> descriptors = new ArrayList<>();
+        for (PluginIndex.Entry entry : index.getEntries()) {
+            if (entry.getDescriptor() != null) {
+                descriptors.add(entry.getDescriptor());
+            } else {
+                undescribedJars = true;
+            }
+        }
+        logger.info("Loaded {} plugin descriptors from index {}", descriptors.size(), indexFile);
+        return Optional.of(descriptors);
+    }
+
+    private Path locateIndex(Set<Path> classPathJars) {
+        if (indexOverride != null && !indexOverride.isEmpty()) {
+            Path override = Paths.get(indexOverride);
+            return Files.isRegularFile(override) ? override : null;
+        }
+        Set<Path> directories = new LinkedHashSet<>();
+        for (Path jar : classPathJars) {
+            directories.add(jar.getParent());
+        }
+        for (Path directory : directories) {
+            Path candidate = directory.resolve(PluginIndex.FILE_NAME);
+            if (Files.isRegularFile(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The index is fresh when every listed jar is unchanged and on the classpath,
+     * and no jar has been added to the plugin directory since the index was written.
+     */
+    private boolean isFresh(PluginIndex index, Path directory, Set<Path> classPathJars) {
+        Map<String, PluginIndex.Entry> entries = new HashMap<>();
+        for (PluginIndex.Entry entry : index.getEntries()) {
+            entries.put(entry.getJarName(), entry);
+        }
+
+        Set<String> jarsInDirectory = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.jar")) {
+            for (Path jar : stream) {
+                String jarName = jar.getFileName().toString();
+                jarsInDirectory.add(jarName);
+                PluginIndex.Entry entry = entries.get(jarName);
+                if (entry == null) {
+                    logger.info("Plugin index is stale: {} is not indexed", jarName);
+                    return false;
+                }
+                if (Files.size(jar) != entry.getSize()
+                        || Files.getLastModifiedTime(jar).toMillis() != entry.getLastModified()) {
+                    logger.info("Plugin index is stale: {} has changed", jarName);
+                    return false;
+                }
+                if (entry.getDescriptor() != null && !classPathJars.contains(jar.toAbsolutePath().normalize())) {
+                    logger.info("Plugin index is stale: {} is not on the classpath", jarName);
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot verify plugin index against {}: {}", directory, e.getMessage());
+            return false;
+        }
+
+        for (String jarName : entries.keySet()) {
+            if (!jarsInDirectory.contains(jarName)) {
+                logger.info("Plugin index is stale: {} no longer exists", jarName);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Set<Path> classPathJars() {
+        Set<Path> jars = new LinkedHashSet<>();
+        for (String element : classPath.split(File.pathSeparator)) {
+            if (element.endsWith(".jar")) {
+                Path jar = Paths.get(element).toAbsolutePath().normalize();
+                if (jar.getParent() != null) {
+                    jars.add(jar);
+                }
+            }
+        }
+        return jars;
+    }
+}
@@ -4,65 +4,152 @@ import com.aldrineeinsteen.fun.options.PluginTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Handles plugin instantiation and registration.
+ * Discovered plugins are registered as {@link PluginHandle}s and only instantiated when first requested.
  */
 public class PluginLoader {
     private static final Logger logger = LoggerFactory.getLogger(PluginLoader.class);
     
-    private final Map<String, PluginTemplate> plugins = new HashMap<>();
-    private final Map<String, Runnable> utilities = new HashMap<>();
+    private final Map<String, PluginTemplate> plugins = new ConcurrentHashMap<>();
+    private final Map<String, Runnable> utilities = new ConcurrentHashMap<>();
+    private final Map<String, PluginHandle> handles = new ConcurrentHashMap<>();
 
     /**
      * Instantiate and register a plugin by class name
      */
     public void instantiateAndRegisterPlugin(String className) {
+        Class<?> clazz = loadIsolatedPluginClass(className, Thread.currentThread().getContextClassLoader());
+        if (clazz != null) {
+            register(className, instantiate(className, clazz));
+        }
+    }
+
+    /**
+     * Load a plugin class and check that it is a PluginTemplate or Runnable.
+     * @return the class, or null when it cannot be used as a plugin
+     */
+    public Class<?> loadPluginClass(String className, ClassLoader classLoader) {
         if (className == null || className.trim().isEmpty()) {
             logger.error("Plugin class name is null or empty");
-            return;
+            return null;
         }
 
-        logger.debug("Attempting to instantiate plugin: {}", className);
-        
-        try {
-            Class<?> clazz = Thread.currentThread().getContextClassLoader().loadClass(className);
+        logger.debug("Attempting to load plugin class: {}", className);
+
+        try (StartupProfiler.Span ignored = StartupProfiler.start("plugin.class-load", className)) {
+            Class<?> clazz = classLoader.loadClass(className);
             logger.debug("Successfully loaded class: {}", className);
 
-            if (PluginTemplate.class.isAssignableFrom(clazz)) {
-                instantiatePluginTemplate(className, clazz);
-            } else if (Runnable.class.isAssignableFrom(clazz)) {
-                instantiateRunnableUtility(className, clazz);
-            } else {
-                logger.error("Class {} does not implement PluginTemplate or Runnable interface. " +
-                    "Available interfaces: {}", className, java.util.Arrays.toString(clazz.getInterfaces()));
+            if (PluginTemplate.class.isAssignableFrom(clazz) || Runnable.class.isAssignableFrom(clazz)) {
+                return clazz;
             }
+            logger.error("Class {} does not implement PluginTemplate or Runnable interface. " +
+                "Available interfaces: {}", className, java.util.Arrays.toString(clazz.getInterfaces()));
         } catch (ClassNotFoundException e) {
             logger.error("Plugin class not found in classpath: {}. Check if the plugin JAR is properly deployed.", className, e);
-        } catch (Exception e) {
-            logger.error("Unexpected error instantiating plugin {}: {} - {}", className, e.getClass().getSimpleName(), e.getMessage(), e);
+        } catch (Exception | LinkageError e) {
+            logger.error("Unexpected error loading plugin {}: {} - {}", className, e.getClass().getSimpleName(), e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Load a plugin class in its own {@link PluginClassLoader} when its class file is in a JAR on the class path,
+     * so that it sees only the plugin API and can be unloaded. Classes in directories, e.g. when running tests
+     * from an IDE, are loaded from the class path itself.
+     * @return the class, or null when it cannot be used as a plugin
+     */
+    public Class<?> loadIsolatedPluginClass(String className, ClassLoader classPath) {
+        Path jar = className != null ? locateJar(className, classPath) : null;
+        if (jar == null) {
+            return loadPluginClass(className, classPath);
+        }
+        try {
+            PluginClassLoader classLoader = PluginClassLoader.open(jar);
+            Class<?> clazz = loadPluginClass(className, classLoader);
+            if (clazz == null) {
+                classLoader.close();
+                return null;
+            }
+            logger.debug("Loaded plugin class {} in its own class loader from {}", className, jar);
+            return clazz;
+        } catch (IOException e) {
+            logger.error("Cannot create a class loader for plugin JAR {}: {}", jar, e.getMessage());
+            return null;
         }
     }
 
-    private void instantiatePluginTemplate(String className, Class<?> clazz) {
+    /**
+     * @return the JAR holding the class file, or null when it is not in a JAR on the class path
+     */
+    private static Path locateJar(String className, ClassLoader classPath) {
+        URL resource = classPath.getResource(className.replace('.', '/') + ".class");
+        if (resource == null || !"jar".equals(resource.getProtocol())) {
+            return null;
+        }
+        String file = resource.getPath();
+        int separator = file.indexOf("!/");
         try {
-            logger.debug("Instantiating PluginTemplate: {}", className);
-            PluginTemplate pluginInstance = PluginTemplate.getInstance(clazz.asSubclass(PluginTemplate.class));
-            registerPlugin(className, pluginInstance);
+            return separator > 0 ? Paths.get(URI.create(file.substring(0, separator))) : null;
+        } catch (IllegalArgumentException | FileSystemNotFoundException e) {
+            logger.debug("Cannot locate the JAR of {} from {}", className, resource, e);
+            return null;
+        }
+    }
+
+    /**
+     * Create the plugin instance without registering it. Safe to call from several threads at once.
+     * @return the PluginTemplate singleton or a new Runnable utility, or null when construction failed
+     */
+    public Object instantiate(String className, Class<?> clazz) {
+        try (StartupProfiler.Span ignored = StartupProfiler.start("plugin.instantiate", className)) {
+            if (PluginTemplate.class.isAssignableFrom(clazz)) {
+                return instantiatePluginTemplate(className, clazz);
+            }
+            return instantiateRunnableUtility(className, clazz);
+        }
+    }
+
+    /**
+     * Register an instance created by {@link #instantiate(String, Class)} under its class name.
+     */
+    public void register(String className, Object instance) {
+        if (instance instanceof PluginTemplate) {
+            registerPlugin(className, (PluginTemplate) instance);
             logger.info("Successfully registered plugin: {}", className);
-        } catch (Exception e) {
+        } else if (instance instanceof Runnable) {
+            registerUtility(className, (Runnable) instance);
+            logger.info("Successfully registered utility: {}", className);
+        }
+    }
+
+    private PluginTemplate instantiatePluginTemplate(String className, Class<?> clazz) {
+        try {
+            logger.debug("Instantiating PluginTemplate: {}", className);
+            return PluginTemplate.getInstance(clazz.asSubclass(PluginTemplate.class));
+        } catch (Exception | LinkageError e) {
             logger.error("Error instantiating PluginTemplate {}: {}", className, e.getMessage(), e);
+            return null;
         }
     }
 
-    private void instantiateRunnableUtility(String className, Class<?> clazz) {
+    private Runnable instantiateRunnableUtility(String className, Class<?> clazz) {
         try {
             logger.debug("Instantiating Runnable utility: {}", className);
-            Runnable utilityInstance = (Runnable) clazz.getDeclaredConstructor().newInstance();
-            registerUtility(className, utilityInstance);
-            logger.info("Successfully registered utility: {}", className);
+            return (Runnable) clazz.getDeclaredConstructor().newInstance();
         } catch (NoSuchMethodException e) {
             logger.error("Plugin class {} does not have a required no-argument constructor", className, e);
         } catch (IllegalAccessException e) {
@@ -73,9 +160,10 @@ public class PluginLoader {
             logger.error("Error in plugin constructor for class {}: {}", className, e.getTargetException().getMessage(), e);
         } catch (SecurityException e) {
             logger.error("Security manager prevents plugin instantiation for class {}", className, e);
-        } catch (Exception e) {
+        } catch (Exception | LinkageError e) {
             logger.error("Unexpected error instantiating utility {}: {} - {}", className, e.getClass().getSimpleName(), e.getMessage(), e);
         }
+        return null;
     }
 
     public void registerPlugin(String name, PluginTemplate pluginInstance) {
@@ -86,18 +174,130 @@ public class PluginLoader {
         utilities.put(name, instance);
     }
 
+    /**
+     * Register a discovered plugin without instantiating it.
+     */
+    public void registerHandle(PluginHandle handle) {
+        handles.put(handle.getClassName(), handle);
+    }
+
+    /**
+     * Replace the handle registered under the same class name, dropping the previous handle's instance.
+     * Readers keep getting the previous instance until the new one, if already created, takes its place.
+     * @return the previous handle, or null
+     */
+    public PluginHandle replaceHandle(PluginHandle handle) {
+        String name = handle.getClassName();
+        PluginHandle previous = handles.put(name, handle);
+        Object instance = handle.peekInstance();
+        if (instance != null && handle.isPlugin()) {
+            plugins.put(name, (PluginTemplate) instance);
+        } else {
+            plugins.remove(name);
+        }
+        if (instance != null && handle.isUtility()) {
+            utilities.put(name, (Runnable) instance);
+        } else {
+            utilities.remove(name);
+        }
+        return previous;
+    }
+
+    /**
+     * Remove a plugin's handle and instances.
+     * @return the removed handle, or null when the plugin was registered without one
+     */
+    public PluginHandle unregister(String name) {
+        PluginHandle handle = handles.remove(name);
+        plugins.remove(name);
+        utilities.remove(name);
+        return handle;
+    }
+
+    public PluginHandle getHandle(String name) {
+        return handles.get(name);
+    }
+
+    public Map<String, PluginHandle> getHandles() {
+        return new HashMap<>(handles);
+    }
+
+    /**
+     * Get a plugin, instantiating it from its handle on first use.
+     */
     public PluginTemplate getPlugin(String name) {
-        return plugins.get(name);
+        PluginTemplate plugin = plugins.get(name);
+        if (plugin != null) {
+            return plugin;
+        }
+        PluginHandle handle = handles.get(name);
+        if (handle == null || !handle.isPlugin()) {
+            return null;
+        }
+        Object instance = handle.getInstance();
+        if (instance == null) {
+            return null;
+        }
+        PluginTemplate registered = plugins.computeIfAbsent(name, key -> (PluginTemplate) instance);
+        if (handles.get(name) != handle) {
+            // The handle was replaced or removed meanwhile; do not leave its instance behind
+            plugins.remove(name, instance);
+        }
+        return registered;
     }
 
+    /**
+     * Get a utility, instantiating it from its handle on first use.
+     */
     public Runnable getUtility(String name) {
-        return utilities.get(name);
+        Runnable utility = utilities.get(name);
+        if (utility != null) {
+            return utility;
+        }
+        PluginHandle handle = handles.get(name);
+        if (handle == null || !handle.isUtility()) {
+            return null;
+        }
+        Object instance = handle.getInstance();
+        if (instance == null) {
+            return null;
+        }
+        Runnable registered = utilities.computeIfAbsent(name, key -> (Runnable) instance);
+        if (handles.get(name) != handle) {
+            // The handle was replaced or removed meanwhile; do not leave its instance behind
+            utilities.remove(name, instance);
+        }
+        return registered;
     }
 
+    /**
+     * Instantiate the named plugins concurrently, e.g. the ones selected on the command line,
+     * so that slow constructors overlap. Names without a handle are ignored.
+     */
+    public void instantiateAll(Collection<String> names) {
+        int submitted = 0;
+        try (ExecutorService executor = StartupProfiler.newStartupExecutor()) {
+            for (String name : names) {
+                PluginHandle handle = handles.get(name);
+                if (handle != null && !handle.isInstantiated()) {
+                    executor.submit(() -> handle.isPlugin() ? getPlugin(name) : getUtility(name));
+                    submitted++;
+                }
+            }
+        }
+        logger.debug("Instantiated {} plugins on demand", submitted);
+    }
+
+    /**
+     * @return instantiated plugins only; plugins that are still only handles are not included
+     */
     public Map<String, PluginTemplate> getPlugins() {
         return new HashMap<>(plugins);
     }
 
+    /**
+     * @return instantiated utilities only; utilities that are still only handles are not included
+     */
     public Map<String, Runnable> getUtilities() {
         return new HashMap<>(utilities);
     }
@@ -0,0 +1,191 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loaded classes and metaspace per plugin class loader, for {@code --plugin-memory} and after hot reloads.
+ * Per-loader metaspace comes from the HotSpot {@code VM.metaspace} diagnostic command and is reported as -1 on
+ * JVMs without it. Loaders of unloaded plugins that are still listed have not been garbage collected yet;
+ * if they stay listed, something still references the old plugin.
+ */
+public final class PluginMemoryReport {
+    private static final Logger logger = LoggerFactory.getLogger(PluginMemoryReport.class);
+
+    public static final String OPTION = "plugin-memory";
+
+    // e.g.   12: CLD 0x00007f..: "plugin:keep-alive-timer.jar#1" instance of ..PluginClassLoader, 14 classes
+    private static final Pattern LOADER_LINE = Pattern.compile("CLD 0x\\p{XDigit}+: \"([^\"]+)\".*?, (\\d+) class");
+    // e.g.        Both:    3 chunks,  10.00 KB capacity, ..., 7.38 KB ( 74%) used, ...
+    private static final Pattern USED = Pattern.compile("([\\d.]+) (bytes|KB|MB|GB) \\(\\s*\\d+%\\) used");
+
+    private final List<Row> rows;
+    private final long metaspaceUsed;
+    private final long loadedClasses;
+    private final long unloadedClasses;
+
+    private PluginMemoryReport(List<Row> rows, long metaspaceUsed, long loadedClasses, long unloadedClasses) {
+        this.rows = rows;
+        this.metaspaceUsed = metaspaceUsed;
+        this.loadedClasses = loadedClasses;
+        this.unloadedClasses = unloadedClasses;
+    }
+
+    /**
+     * Measure every plugin class loader that is still alive.
+     * @param handles the registered plugins, used to name the loaders
+     */
+    public static PluginMemoryReport collect(Map<String, PluginHandle> handles) {
+        Map<ClassLoader, String> plugins = new HashMap<>();
+        handles.forEach((name, handle) -> plugins.put(handle.getPluginClass().getClassLoader(),
+            handle.getDescriptor().getName()));
+
+        Map<String, long[]> metaspace = parseMetaspace(metaspaceByLoader());
+        List<Row> rows = new ArrayList<>();
+        for (PluginClassLoader loader : PluginClassLoader.getLiveLoaders()) {
+            long[] measured = metaspace.get(loader.getName());
+            String plugin = plugins.get(loader);
+            rows.add(new Row(plugin != null ? plugin : loader.isClosed() ? "(unloaded)" : "(unused)",
+                loader.getName(),
+                measured != null ? (int) measured[0] : loader.getDefinedClassCount(),
+                measured != null ? measured[1] : -1));
+        }
+
+        ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+        return new PluginMemoryReport(rows, metaspaceUsed(), classLoading.getLoadedClassCount(),
+            classLoading.getUnloadedClassCount());
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of loaders of unloaded plugins that have not been collected yet
+     */
+    public int getUnloadedLoaderCount() {
+        return (int) rows.stream().filter(row -> "(unloaded)".equals(row.getPlugin())).count();
+    }
+
+    public String toTable() {
+        String format = "%-24s %-44s %8s %12s%n";
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(format, "Plugin", "Class loader", "Classes", "Metaspace KB"));
+        for (Row row : rows) {
+            table.append(String.format(Locale.ROOT, format, row.getPlugin(), row.getLoader(), row.getClasses(),
+                row.getMetaspaceBytes() < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", row.getMetaspaceBytes() / 1024.0)));
+        }
+        table.append(String.format(Locale.ROOT, "Metaspace used: %s KB, classes loaded: %d, unloaded: %d, "
+                + "unloaded plugin loaders not yet collected: %d%n",
+            metaspaceUsed < 0 ? "n/a" : String.valueOf(metaspaceUsed / 1024), loadedClasses, unloadedClasses,
+            getUnloadedLoaderCount()));
+        return table.toString();
+    }
+
+    /**
+     * @return the output of {@code VM.metaspace show-loaders}, or an empty string when it is not available
+     */
+    private static String metaspaceByLoader() {
+        try {
+            Object output = ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "vmMetaspace",
+                new Object[]{new String[]{"show-loaders"}}, new String[]{String[].class.getName()});
+            return output instanceof String ? (String) output : "";
+        } catch (JMException | RuntimeException e) {
+            logger.debug("Per class loader metaspace is not available: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * @return loader name to {classes, used metaspace bytes}, for named loaders only
+     */
+    static Map<String, long[]> parseMetaspace(String output) {
+        Map<String, long[]> loaders = new HashMap<>();
+        long[] current = null;
+        for (String line : output.split("\n")) {
+            Matcher loader = LOADER_LINE.matcher(line);
+            if (loader.find()) {
+                current = new long[]{Long.parseLong(loader.group(2)), -1};
+                loaders.put(loader.group(1), current);
+                continue;
+            }
+            if (line.isBlank()) {
+                // End of the loader's block; the totals that follow belong to no loader
+                current = null;
+                continue;
+            }
+            Matcher used = USED.matcher(line);
+            // The per-loader "Both" total comes last, after the non-class and class space lines
+            if (current != null && used.find()) {
+                current[1] = bytes(used.group(1), used.group(2));
+            }
+        }
+        return loaders;
+    }
+
+    private static long bytes(String value, String unit) {
+        double amount = Double.parseDouble(value);
+        switch (unit) {
+            case "KB": return (long) (amount * 1024);
+            case "MB": return (long) (amount * 1024 * 1024);
+            case "GB": return (long) (amount * 1024 * 1024 * 1024);
+            default: return (long) amount;
+        }
+    }
+
+    private static long metaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One plugin class loader.
+     */
+    public static final class Row {
+        private final String plugin;
+        private final String loader;
+        private final int classes;
+        private final long metaspaceBytes;
+
+        Row(String plugin, String loader, int classes, long metaspaceBytes) {
+            this.plugin = plugin;
+            this.loader = loader;
+            this.classes = classes;
+            this.metaspaceBytes = metaspaceBytes;
+        }
+
+        public String getPlugin() {
+            return plugin;
+        }
+
+        public String getLoader() {
+            return loader;
+        }
+
+        public int getClasses() {
+            return classes;
+        }
+
+        public long getMetaspaceBytes() {
+            return metaspaceBytes;
+        }
+    }
+}
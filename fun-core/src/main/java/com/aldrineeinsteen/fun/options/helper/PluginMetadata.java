@@ -2,6 +2,7 @@ package com.aldrineeinsteen.fun.options.helper;
 
 import org.apache.commons.cli.Option;
 
+import java.lang.invoke.MethodHandle;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -45,11 +46,31 @@ public class PluginMetadata {
         private final String action;
         private final String plugin;
         private final String keyCombination;
+        private final ShortcutRepeatPolicy repeatPolicy;
+        private final long repeatIntervalMillis;
+        private final MethodHandle handle;
 
         public ShortcutAction(String action, String plugin, String keyCombination) {
+            this(action, plugin, keyCombination, ShortcutRepeatPolicy.LEADING, ShortcutRepeatPolicy.DEFAULT_INTERVAL_MILLIS);
+        }
+
+        public ShortcutAction(String action, String plugin, String keyCombination,
+                              ShortcutRepeatPolicy repeatPolicy, long repeatIntervalMillis) {
+            this(action, plugin, keyCombination, repeatPolicy, repeatIntervalMillis, null);
+        }
+
+        /**
+         * @param handle the resolved {@code @PluginAction} method, of type {@code PluginActions.TYPE}, or null to
+         *               run the action through {@code executeAction}
+         */
+        public ShortcutAction(String action, String plugin, String keyCombination,
+                              ShortcutRepeatPolicy repeatPolicy, long repeatIntervalMillis, MethodHandle handle) {
             this.action = action;
             this.plugin = plugin;
             this.keyCombination = keyCombination;
+            this.repeatPolicy = repeatPolicy;
+            this.repeatIntervalMillis = repeatIntervalMillis;
+            this.handle = handle;
         }
 
         public String getAction() {
@@ -64,12 +85,31 @@ public class PluginMetadata {
             return keyCombination;
         }
 
+        public ShortcutRepeatPolicy getRepeatPolicy() {
+            return repeatPolicy;
+        }
+
+        /**
+         * @return the minimum time between actions under {@link ShortcutRepeatPolicy#RATE}
+         */
+        public long getRepeatIntervalMillis() {
+            return repeatIntervalMillis;
+        }
+
+        /**
+         * @return the action's method handle, or null when the plugin resolves the action name itself
+         */
+        public MethodHandle getHandle() {
+            return handle;
+        }
+
         @Override
         public String toString() {
             return "ShortcutAction{" +
                     "action='" + action + '\'' +
                     ", plugin='" + plugin + '\'' +
                     ", keyCombination='" + keyCombination + '\'' +
+                    ", repeat=" + repeatPolicy +
                     '}';
         }
     }
@@ -1,6 +1,13 @@
 package com.aldrineeinsteen.fun.options.helper;
 
+import com.aldrineeinsteen.fun.options.DashboardChanges;
 import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.PluginUsage;
+import com.aldrineeinsteen.fun.options.GlobalInputListener;
+import com.aldrineeinsteen.fun.options.PluginRuntime;
+import com.aldrineeinsteen.fun.options.UtilityTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Central repository for plugin management and discovery.
@@ -16,15 +24,29 @@ import java.util.*;
 public class PluginRepository {
     private static final Logger logger = LoggerFactory.getLogger(PluginRepository.class);
     private static final Options options = new Options();
-    private static final Set<String> loadedPlugins = new HashSet<>();
+    private static final Set<String> loadedPlugins = ConcurrentHashMap.newKeySet();
+    private static final Map<String, PluginMetadata> pluginInfos = new ConcurrentHashMap<>();
+
+    // Shortcuts are registered into the working map and read from an immutable snapshot, so the hotkey path
+    // never sees a half-applied plugin reload
     private static final Map<String, PluginMetadata.ShortcutAction> shortcutActions = new HashMap<>();
-    private static final Map<String, PluginMetadata> pluginInfos = new HashMap<>();
+    private static volatile Map<String, PluginMetadata.ShortcutAction> shortcutSnapshot = Map.of();
+    private static volatile ShortcutDispatchTable shortcutTable = ShortcutDispatchTable.EMPTY;
+
+    // Taken by writers only (discovery, hot reload); readers use the concurrent maps and the snapshot
+    private static final Object registryLock = new Object();
+    private static final Map<String, PluginRuntime.Task> utilityTasks = new ConcurrentHashMap<>();
+    // Command line param values by plugin class name, kept for versions of the plugin loaded at runtime
+    private static final Map<String, Map<String, String>> pluginParams = new ConcurrentHashMap<>();
+    private static volatile GlobalInputListener inputListener;
     
     private final PluginLoader pluginLoader = new PluginLoader();
     private final PluginYamlParser yamlParser;
+    private final PluginDiscoveryPipeline discoveryPipeline;
 
     public PluginRepository() {
         this.yamlParser = new PluginYamlParser(pluginLoader, options, shortcutActions, pluginInfos);
+        this.discoveryPipeline = new PluginDiscoveryPipeline(pluginLoader, yamlParser);
     }
 
     public static void addLoadedPlugin(String pluginName) {
@@ -53,6 +75,134 @@ public class PluginRepository {
         return getInstance().pluginLoader.getUtility(name);
     }
 
+    /**
+     * @return the lazy handle of a discovered plugin, or null for unknown or directly registered plugins
+     */
+    public static PluginHandle getPluginHandle(String name) {
+        return getInstance().pluginLoader.getHandle(name);
+    }
+
+    /**
+     * @return the lazy handles of all discovered plugins, by class name
+     */
+    public static Map<String, PluginHandle> getPluginHandles() {
+        return getInstance().pluginLoader.getHandles();
+    }
+
+    PluginLoader getPluginLoader() {
+        return pluginLoader;
+    }
+
+    /**
+     * Instantiate the named plugins ahead of use, concurrently.
+     */
+    public static void instantiatePlugins(Collection<String> names) {
+        getInstance().pluginLoader.instantiateAll(names);
+    }
+
+    /**
+     * Set the listener that plugins with shortcuts need while they are started.
+     */
+    public static void setInputListener(GlobalInputListener listener) {
+        inputListener = listener;
+    }
+
+    /**
+     * @return true when the plugin declares at least one shortcut
+     */
+    static boolean hasShortcuts(String name) {
+        for (PluginMetadata.ShortcutAction shortcut : getShortcutActions().values()) {
+            if (name.equals(shortcut.getPlugin())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Pass the descriptor params given on the command line to the plugin's utility, and keep them so that a
+     * version of the plugin loaded at runtime is configured the same way.
+     */
+    public static void configurePlugin(String name, Map<String, String> params) {
+        pluginParams.put(name, Map.copyOf(params));
+        applyParams(name);
+    }
+
+    /**
+     * Pass the kept param values, if any, to the plugin's current utility instance.
+     */
+    static void applyParams(String name) {
+        Map<String, String> params = pluginParams.get(name);
+        Runnable utility = params != null ? getUtility(name) : null;
+        if (utility instanceof UtilityTemplate) {
+            ((UtilityTemplate) utility).configure(params);
+        }
+    }
+
+    /**
+     * Start a plugin, or run a utility on a virtual thread of the {@link PluginRuntime}.
+     */
+    public static void startPlugin(String name) {
+        GlobalInputListener listener = inputListener;
+        if (listener != null && hasShortcuts(name)) {
+            listener.acquire(name);
+        }
+        // Start utilities
+        Runnable utility = getUtility(name);
+        if (utility != null) {
+            utilityTasks.put(name, PluginRuntime.execute(PluginUsage.ownerOf(name), utility));
+        }
+
+        // Start plugins
+        PluginTemplate plugin = getPlugin(name);
+        if (plugin != null) {
+            plugin.start();
+        }
+        DashboardChanges.signal();
+    }
+
+    /**
+     * @return true when the plugin has been started, or the utility is still running or has work scheduled
+     */
+    static boolean isRunning(String name, Object instance) {
+        if (instance instanceof PluginTemplate) {
+            return ((PluginTemplate) instance).getState() == PluginTemplate.PluginState.STARTED;
+        }
+        if (instance instanceof UtilityTemplate && ((UtilityTemplate) instance).hasScheduledWork()) {
+            return true;
+        }
+        PluginRuntime.Task task = utilityTasks.get(name);
+        return task != null && !task.isDone();
+    }
+
+    /**
+     * Stop a plugin or utility instance that is no longer registered and release it.
+     * Utilities are asked to stop, which cancels their scheduled work, and their thread is interrupted.
+     */
+    static void stopInstance(String name, Object instance) {
+        GlobalInputListener listener = inputListener;
+        if (listener != null) {
+            listener.release(name);
+        }
+        if (instance instanceof PluginTemplate) {
+            PluginTemplate plugin = (PluginTemplate) instance;
+            plugin.stop();
+            PluginTemplate.releaseInstance(plugin.getClass());
+            DashboardChanges.signal();
+            return;
+        }
+        if (instance instanceof UtilityTemplate) {
+            ((UtilityTemplate) instance).stop();
+        } else if (instance != null) {
+            logger.warn("Utility {} has no stop hook; interrupting its thread", name);
+        }
+        PluginRuntime.Task task = utilityTasks.remove(name);
+        if (task != null) {
+            task.cancel();
+        }
+        DashboardChanges.signal();
+    }
+
     public static Options getOptions() {
         return options;
     }
@@ -65,8 +215,61 @@ public class PluginRepository {
         return HelpTextGenerator.generateStructuredHelp(pluginInfos);
     }
 
+    /**
+     * @return the current shortcut mappings; an immutable snapshot that is replaced whenever plugins change
+     */
     public static Map<String, PluginMetadata.ShortcutAction> getShortcutActions() {
-        return shortcutActions;
+        return shortcutSnapshot;
+    }
+
+    /**
+     * @return the current shortcut mappings compiled for lookup by native key code, replaced along with the snapshot
+     */
+    public static ShortcutDispatchTable getShortcutTable() {
+        return shortcutTable;
+    }
+
+    private static void publishShortcuts() {
+        Map<String, PluginMetadata.ShortcutAction> snapshot =
+                Collections.unmodifiableMap(new LinkedHashMap<>(shortcutActions));
+        shortcutTable = ShortcutDispatchTable.compile(snapshot);
+        shortcutSnapshot = snapshot;
+    }
+
+    /**
+     * Put a plugin loaded at runtime into the registry, replacing any plugin with the same class name.
+     * The handle's instance, if already created, is registered along with it.
+     * @return the replaced handle, or null
+     */
+    PluginHandle swapPlugin(PluginHandle handle) {
+        synchronized (registryLock) {
+            PluginHandle previous = pluginLoader.replaceHandle(handle);
+            if (previous != null) {
+                pluginInfos.remove(previous.getDescriptor().getName());
+            }
+            shortcutActions.values().removeIf(action -> handle.getClassName().equals(action.getPlugin()));
+            yamlParser.commitDescriptor(handle.getDescriptor());
+            publishShortcuts();
+            return previous;
+        }
+    }
+
+    /**
+     * Remove a plugin and its shortcuts and metadata from the registry. Its options stay registered,
+     * as the command line has already been parsed.
+     * @return the removed handle, or null when the plugin was not discovered through a handle
+     */
+    PluginHandle removePlugin(String className) {
+        synchronized (registryLock) {
+            PluginHandle removed = pluginLoader.unregister(className);
+            if (removed != null) {
+                pluginInfos.remove(removed.getDescriptor().getName());
+            }
+            loadedPlugins.remove(className);
+            shortcutActions.values().removeIf(action -> className.equals(action.getPlugin()));
+            publishShortcuts();
+            return removed;
+        }
     }
 
     // Singleton instance for backward compatibility
@@ -83,6 +286,15 @@ public class PluginRepository {
      * Initialize the plugin discovery system
      */
     public void init() {
+        try (StartupProfiler.Span ignored = StartupProfiler.start("PluginRepository.init")) {
+            synchronized (registryLock) {
+                initialize();
+                publishShortcuts();
+            }
+        }
+    }
+
+    private void initialize() {
         // Set this instance as the singleton
         instance = this;
         
@@ -91,24 +303,83 @@ public class PluginRepository {
         
         // Add dashboard option
         options.addOption("dash", "dashboard", false, "Enable TUI dashboard mode");
+
+        // Add startup report option; the file argument is optional
+        options.addOption(Option.builder().longOpt(StartupProfiler.OPTION).hasArg().optionalArg(true).argName("file")
+            .desc("Print startup timings as a table and JSON, or write the JSON to a file").build());
+
+        // Add hot reload option; the directory argument is optional
+        options.addOption(Option.builder().longOpt(PluginDirectoryWatcher.OPTION).hasArg().optionalArg(true)
+            .argName("dir").desc("Load, replace and unload plugin JARs in " + PluginDirectoryWatcher.DEFAULT_DIRECTORY
+                + " (or the given directory) while running").build());
+
+        // Add plugin memory diagnostic option
+        options.addOption(Option.builder().longOpt(PluginMemoryReport.OPTION)
+            .desc("Print loaded classes and metaspace of each plugin class loader after startup").build());
+
+        // Add shortcut latency report option; the file argument is optional
+        options.addOption(Option.builder().longOpt(ShortcutLatency.OPTION).hasArg().optionalArg(true).argName("file")
+            .desc("On exit, print shortcut latency percentiles per stage as a table and JSON, or write the JSON "
+                + "to a file").build());
+
+        // Add plugin usage option; the file argument is optional
+        options.addOption(Option.builder().longOpt(PluginUsage.OPTION).hasArg().optionalArg(true).argName("file")
+            .desc("Measure CPU time, allocations and threads per plugin, show them on the dashboard and print "
+                + "them on exit, or write them to a file").build());
         
         logger.info("Initializing dynamic plugin discovery system...");
+
+        boolean servicesOnly = PluginServiceDiscovery.isServicesOnly();
+        if (servicesOnly) {
+            logger.info("Discovering plugins from service providers only");
+        }
+        if (servicesOnly || discoverFromDescriptorFiles()) {
+            discoverServiceProviders();
+        }
+
+        logDiscoverySummary();
+        logger.debug("Complete shortcut mappings: {}", shortcutActions);
+    }
+
+    /**
+     * Merge in plugins registered as service providers; plugins already described by a plugin.yaml keep
+     * that description.
+     */
+    private void discoverServiceProviders() {
+        List<PluginDescriptor> provided = new PluginServiceDiscovery()
+            .discover(Thread.currentThread().getContextClassLoader());
+        provided.removeIf(descriptor -> {
+            boolean described = loadedPlugins.contains(descriptor.getPluginClass());
+            if (described) {
+                logger.debug("Service provider {} is already described by its plugin.yaml", descriptor.getPluginClass());
+            }
+            return described;
+        });
+        discoveryPipeline.discoverFromDescriptors(provided);
+    }
+
+    /**
+     * Discover plugins from the build-time index, or from the plugin.yaml files on the classpath without one.
+     * @return true when service providers should be looked up as well; not needed when the index covers every
+     * plugin JAR with a plugin.yaml, so that the index keeps startup free of classpath scans
+     */
+    private boolean discoverFromDescriptorFiles() {
+        // Prefer the build-time index; it replaces the classpath scan and YAML parsing
+        PluginIndexLoader indexLoader = new PluginIndexLoader();
+        Optional<List<PluginDescriptor>> indexed = indexLoader.load();
+        if (indexed.isPresent()) {
+            discoveryPipeline.discoverFromDescriptors(indexed.get());
+            return indexLoader.hasUndescribedJars();
+        }
+
         try {
             List<URL> urls = discoverPluginConfigurations();
             logger.info("Discovered {} plugin configuration files", urls.size());
-            
-            for (URL url : urls) {
-                logger.info("Processing plugin configuration: {}", url.getPath());
-                yamlParser.parsePluginYaml(url);
-            }
-            
-            logDiscoverySummary();
-            
+            discoveryPipeline.discoverFromYaml(urls);
         } catch (IOException e) {
             logger.error("Exception when loading plugin configurations: ", e);
         }
-
-        logger.debug("Complete shortcut mappings: {}", getShortcutActions());
+        return true;
     }
 
     /**
@@ -133,8 +404,8 @@ public class PluginRepository {
     private void logDiscoverySummary() {
         logger.info("Plugin discovery complete:");
         logger.info("  - Total plugins loaded: {}", getLoadedPlugins().size());
-        logger.info("  - Plugin instances registered: {}", pluginLoader.getPlugins().size());
-        logger.info("  - Utility instances registered: {}", pluginLoader.getUtilities().size());
+        logger.info("  - Plugin handles registered: {}", pluginLoader.getHandles().size());
+        logger.info("  - Plugin instances created: {}", pluginLoader.getPlugins().size() + pluginLoader.getUtilities().size());
         logger.info("  - CLI options registered: {}", options.getOptions().size());
         logger.info("  - Global shortcuts registered: {}", shortcutActions.size());
         
@@ -0,0 +1,79 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.UtilityTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDefinitionReader;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Discovers plugins registered as service providers of {@link PluginTemplate} or {@link UtilityTemplate} in
+ * {@code META-INF/services}, with their metadata taken from the
+ * {@link com.aldrineeinsteen.fun.options.descriptor.PluginDefinition} annotation.
+ * Providers are only looked up, never instantiated; their classes are loaded without being initialised so the
+ * annotation can be read, and the plugins are then loaded like any other discovered plugin.
+ */
+public class PluginServiceDiscovery {
+    private static final Logger logger = LoggerFactory.getLogger(PluginServiceDiscovery.class);
+
+    /** System property; {@code services} skips the plugin index and the plugin.yaml scan. */
+    public static final String DISCOVERY_PROPERTY = "fun.plugin.discovery";
+
+    private static final List<Class<?>> SERVICES = List.of(PluginTemplate.class, UtilityTemplate.class);
+
+    /**
+     * @return true when plugins should be discovered from service providers only
+     */
+    public static boolean isServicesOnly() {
+        return "services".equals(System.getProperty(DISCOVERY_PROPERTY));
+    }
+
+    /**
+     * @return descriptors of the providers visible to the class loader, in service and provider order
+     */
+    public List<PluginDescriptor> discover(ClassLoader classLoader) {
+        try (StartupProfiler.Span ignored = StartupProfiler.start("PluginServiceDiscovery.discover")) {
+            Set<Class<?>> providers = new LinkedHashSet<>();
+            for (Class<?> service : SERVICES) {
+                collectProviders(service, classLoader, providers);
+            }
+
+            List<PluginDescriptor> descriptors = new ArrayList<>(providers.size());
+            for (Class<?> provider : providers) {
+                descriptors.add(PluginDefinitionReader.read(provider));
+            }
+            logger.info("Discovered {} plugin service providers", descriptors.size());
+            return descriptors;
+        }
+    }
+
+    private static <S> void collectProviders(Class<S> service, ClassLoader classLoader, Set<Class<?>> providers) {
+        Iterator<ServiceLoader.Provider<S>> iterator = ServiceLoader.load(service, classLoader).stream().iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                Class<? extends S> type = iterator.next().type();
+                if (Modifier.isAbstract(type.getModifiers())) {
+                    logger.warn("Ignoring abstract {} provider {}", service.getSimpleName(), type.getName());
+                } else {
+                    providers.add(type);
+                }
+            } catch (ServiceConfigurationError e) {
+                // The iterator moves on to the next provider
+                logger.error("Invalid {} provider: {}", service.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.DashboardRenderer;
+import com.aldrineeinsteen.fun.options.PluginUsage;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dashboard panel with the CPU time, allocations and running threads of each plugin, and what measuring them costs.
+ */
+public class PluginUsageRenderer implements DashboardRenderer {
+
+    @Override
+    public Map<String, String> getDashboardData() {
+        Map<String, String> data = new LinkedHashMap<>();
+        for (PluginUsage.Usage usage : PluginUsage.getUsages()) {
+            data.put(usage.getOwner(), PluginUsage.formatNanos(usage.getCpuNanos()) + "  "
+                + PluginUsage.formatBytes(usage.getAllocatedBytes()) + "  " + usage.getActiveThreads() + " thr");
+        }
+        data.put("Overhead", String.format(Locale.ROOT, "%.2f%% (1 in %d)", PluginUsage.getOverheadPercent(),
+            PluginUsage.getSampleEvery()));
+        return data;
+    }
+
+    @Override
+    public int getDashboardPosition() {
+        return 95;
+    }
+
+    @Override
+    public int getDashboardRow() {
+        return 2;
+    }
+
+    @Override
+    public String getDashboardPluginName() {
+        return "Plugin Usage";
+    }
+}
@@ -0,0 +1,289 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.github.kwhat.jnativehook.NativeInputEvent;
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shortcut lookup for the native key hook, compiled from the registered key combination strings.
+ * A combination is one key stroke such as {@code CTRL + SHIFT + S}, or a comma separated sequence of strokes such as
+ * {@code CTRL + K, S}. The strokes form a trie whose edges live in a single open-addressing table keyed by
+ * {@code (state << 20) | (modifierMask << 16) | keyCode}, where the modifier mask folds the left and right variants of
+ * CTRL, SHIFT, ALT and META into four bits; advancing by one stroke is one probe, however many shortcuts there are.
+ * Key presses at the root with a modifier mask that no shortcut starts with, which covers ordinary typing, are
+ * rejected with a single bit test. Nothing is allocated after compilation.
+ */
+public final class ShortcutDispatchTable {
+    private static final Logger logger = LoggerFactory.getLogger(ShortcutDispatchTable.class);
+
+    /** The state before the first stroke of a combination. */
+    public static final int ROOT = 0;
+
+    private static final long EMPTY_SLOT = -1;
+
+    public static final ShortcutDispatchTable EMPTY = new ShortcutDispatchTable(0, new long[]{EMPTY_SLOT}, new int[1],
+            new PluginMetadata.ShortcutAction[1], new boolean[1], 0);
+
+    static final int CTRL = 1;
+    static final int SHIFT = 2;
+    static final int ALT = 4;
+    static final int META = 8;
+
+    // Bit n is set when some shortcut starts with modifier mask n
+    private final int modifierFilter;
+    private final long[] keys;
+    private final int[] targets;
+    // Indexed by state
+    private final PluginMetadata.ShortcutAction[] actions;
+    private final boolean[] prefixes;
+    private final int size;
+
+    private ShortcutDispatchTable(int modifierFilter, long[] keys, int[] targets,
+                                  PluginMetadata.ShortcutAction[] actions, boolean[] prefixes, int size) {
+        this.modifierFilter = modifierFilter;
+        this.keys = keys;
+        this.targets = targets;
+        this.actions = actions;
+        this.prefixes = prefixes;
+        this.size = size;
+    }
+
+    /**
+     * Compile the shortcut mappings. Combinations that cannot be parsed are logged and left out. When one
+     * combination is the start of a longer sequence, the shorter one wins and the sequence is left out.
+     */
+    public static ShortcutDispatchTable compile(Map<String, PluginMetadata.ShortcutAction> shortcuts) {
+        List<Map.Entry<String, int[]>> sequences = new ArrayList<>(shortcuts.size());
+        for (String keyCombination : shortcuts.keySet()) {
+            int[] strokes = parseSequence(keyCombination);
+            if (strokes == null) {
+                logger.warn("Ignoring shortcut '{}' of plugin {}: unknown key combination",
+                        keyCombination, shortcuts.get(keyCombination).getPlugin());
+            } else {
+                sequences.add(Map.entry(keyCombination, strokes));
+            }
+        }
+        // Shorter first, so a single stroke always keeps working when a sequence starting with it is added
+        sequences.sort(Comparator.comparingInt(sequence -> sequence.getValue().length));
+
+        Map<Long, Integer> edges = new HashMap<>();
+        List<PluginMetadata.ShortcutAction> stateActions = new ArrayList<>();
+        stateActions.add(null);
+        int modifierFilter = 0;
+        int size = 0;
+
+        for (Map.Entry<String, int[]> sequence : sequences) {
+            PluginMetadata.ShortcutAction action = shortcuts.get(sequence.getKey());
+            int state = ROOT;
+            PluginMetadata.ShortcutAction conflict = null;
+            for (int stroke : sequence.getValue()) {
+                conflict = stateActions.get(state);
+                if (conflict != null) {
+                    break;
+                }
+                Integer next = edges.get(edgeKey(state, stroke));
+                if (next == null) {
+                    next = stateActions.size();
+                    stateActions.add(null);
+                    edges.put(edgeKey(state, stroke), next);
+                }
+                state = next;
+            }
+            if (conflict == null) {
+                conflict = stateActions.get(state);
+            }
+            if (conflict != null) {
+                logger.warn("Shortcut '{}' of plugin {} is the same key combination as, or starts with, {}",
+                        sequence.getKey(), action.getPlugin(), conflict.getKeyCombination());
+                continue;
+            }
+            stateActions.set(state, action);
+            modifierFilter |= 1 << (sequence.getValue()[0] >>> 16);
+            size++;
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(1, edges.size()) * 2 - 1) << 1;
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY_SLOT);
+        int[] targets = new int[capacity];
+        boolean[] prefixes = new boolean[stateActions.size()];
+        for (Map.Entry<Long, Integer> edge : edges.entrySet()) {
+            int slot = slotOf(keys, edge.getKey());
+            keys[slot] = edge.getKey();
+            targets[slot] = edge.getValue();
+            prefixes[(int) (edge.getKey() >>> 20)] = true;
+        }
+        return new ShortcutDispatchTable(modifierFilter, keys, targets,
+                stateActions.toArray(new PluginMetadata.ShortcutAction[0]), prefixes, size);
+    }
+
+    /**
+     * Look up a single-stroke shortcut.
+     * @param modifiers the native event modifiers, see {@link NativeInputEvent#getModifiers()}
+     * @param keyCode   the native virtual key code, see {@link NativeKeyEvent#getKeyCode()}
+     * @return the shortcut for the key press, or null
+     */
+    public PluginMetadata.ShortcutAction lookup(int modifiers, int keyCode) {
+        int state = advance(ROOT, modifiers, keyCode);
+        return state < 0 ? null : actions[state];
+    }
+
+    /**
+     * Follow one key stroke from a state.
+     * @return the next state, or -1 when no combination continues with the stroke
+     */
+    public int advance(int state, int modifiers, int keyCode) {
+        int mask = modifierMask(modifiers);
+        if (state == ROOT && (modifierFilter & (1 << mask)) == 0) {
+            return -1;
+        }
+        int slot = slotOf(keys, edgeKey(state, (mask << 16) | (keyCode & 0xFFFF)));
+        return keys[slot] == EMPTY_SLOT ? -1 : targets[slot];
+    }
+
+    /**
+     * @return the shortcut completed by reaching the state, or null for the root and partial sequences
+     */
+    public PluginMetadata.ShortcutAction actionAt(int state) {
+        return actions[state];
+    }
+
+    /**
+     * @return true when longer sequences continue from the state
+     */
+    public boolean isPrefix(int state) {
+        return prefixes[state];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Fold the native modifiers into the four bit mask the table is keyed by.
+     */
+    static int modifierMask(int modifiers) {
+        int mask = 0;
+        if ((modifiers & NativeInputEvent.CTRL_MASK) != 0) {
+            mask |= CTRL;
+        }
+        if ((modifiers & NativeInputEvent.SHIFT_MASK) != 0) {
+            mask |= SHIFT;
+        }
+        if ((modifiers & NativeInputEvent.ALT_MASK) != 0) {
+            mask |= ALT;
+        }
+        if ((modifiers & NativeInputEvent.META_MASK) != 0) {
+            mask |= META;
+        }
+        return mask;
+    }
+
+    private static long edgeKey(int state, int stroke) {
+        return ((long) state << 20) | stroke;
+    }
+
+    // Linear probing; the table is at most half full, so a probe always ends at the key or an empty slot
+    private static int slotOf(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (keys[slot] != key && keys[slot] != EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Parse a comma separated sequence of key strokes.
+     * @return the strokes, or null when any of them is invalid
+     */
+    static int[] parseSequence(String keyCombination) {
+        String[] parts = keyCombination.split(",", -1);
+        int[] strokes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            strokes[i] = parse(parts[i]);
+            if (strokes[i] < 0) {
+                return null;
+            }
+        }
+        return strokes;
+    }
+
+    /**
+     * Parse a single key stroke such as {@code CTRL + SHIFT + S}. The modifiers may come in any order and the key is
+     * the name of a {@code NativeKeyEvent.VC_} constant, with spaces for underscores where the name has them.
+     * @return the stroke, or -1 when it has no key or an unknown one
+     */
+    static int parse(String keyCombination) {
+        int mask = 0;
+        int keyCode = -1;
+        for (String part : keyCombination.split("\\+")) {
+            String token = part.trim().toUpperCase(Locale.ROOT);
+            switch (token) {
+                case "CTRL", "CONTROL" -> mask |= CTRL;
+                case "SHIFT" -> mask |= SHIFT;
+                case "ALT" -> mask |= ALT;
+                case "META" -> mask |= META;
+                default -> {
+                    if (keyCode >= 0) {
+                        return -1;
+                    }
+                    keyCode = KeyCodes.lookup(token);
+                    if (keyCode < 0) {
+                        return -1;
+                    }
+                }
+            }
+        }
+        return keyCode < 0 ? -1 : (mask << 16) | keyCode;
+    }
+
+    /**
+     * Key names of the {@code VC_} constants, read on first use.
+     */
+    private static final class KeyCodes {
+        private static final Map<String, Integer> BY_NAME = new HashMap<>();
+
+        static {
+            for (Field field : NativeKeyEvent.class.getFields()) {
+                if (field.getName().startsWith("VC_") && field.getType() == int.class
+                        && Modifier.isStatic(field.getModifiers())) {
+                    try {
+                        BY_NAME.put(field.getName().substring(3), field.getInt(null));
+                    } catch (IllegalAccessException e) {
+                        logger.debug("Cannot read key code {}", field.getName());
+                    }
+                }
+            }
+            // Spellings accepted by the previous string matching
+            alias("SPACEBAR", "SPACE");
+            alias("RETURN", "ENTER");
+            alias("ESC", "ESCAPE");
+            alias("DEL", "DELETE");
+            alias("BACK", "BACKSPACE");
+        }
+
+        private static void alias(String alias, String name) {
+            BY_NAME.put(alias, BY_NAME.get(name));
+        }
+
+        static int lookup(String token) {
+            Integer keyCode = BY_NAME.get(token.replace(' ', '_'));
+            if (keyCode == null) {
+                keyCode = BY_NAME.get(token.replace(" ", ""));
+            }
+            return keyCode == null ? -1 : keyCode;
+        }
+    }
+}
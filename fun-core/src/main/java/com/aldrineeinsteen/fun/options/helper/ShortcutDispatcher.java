@@ -0,0 +1,259 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Runs shortcut actions off the native hook thread. The hook only enqueues the matched shortcut into a
+ * single-producer ring buffer, one submit at a time; a dispatcher thread hands each action to the lane of its plugin,
+ * a single worker thread with a bounded backlog, so actions of one plugin run in key press order while a slow plugin
+ * cannot hold up another. Actions that outlive the timeout are interrupted. Events that find the ring buffer or the
+ * backlog full are dropped, counted and reported by the dispatcher; the hook never blocks.
+ * <p>
+ * Queue wait and the total time from the key press to the end of the action are recorded in {@link ShortcutLatency}.
+ */
+public class ShortcutDispatcher implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(ShortcutDispatcher.class);
+
+    /** System property; the time in milliseconds a shortcut action may run before it is interrupted, 0 for none. */
+    public static final String TIMEOUT_PROPERTY = "fun.shortcut.timeout";
+    /** System property; the number of actions that may wait per plugin while one of its actions runs. */
+    public static final String BACKLOG_PROPERTY = "fun.shortcut.backlog";
+
+    static final int QUEUE_CAPACITY = 256;
+    static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+    static final int DEFAULT_BACKLOG = 16;
+
+    private final Consumer<PluginMetadata.ShortcutAction> executor;
+    private final SpscRingBuffer<Press> queue;
+    // The ring buffer takes one producer at a time. That is the native hook thread, but a re-registered hook delivers
+    // on a new thread while the old one may still finish an event; the lock hands the producer side over between them
+    // and makes the buffer's producer fields visible to the new thread. Uncontended, it costs one CAS per shortcut.
+    private final ReentrantLock producerLock = new ReentrantLock();
+    private final int laneBacklog;
+    private final long timeoutMillis;
+
+    // Lanes are created and fed by the dispatcher thread only
+    private final Map<String, ThreadPoolExecutor> lanes = new HashMap<>();
+    private final ScheduledExecutorService watchdog;
+
+    private final AtomicLong queueOverflows = new AtomicLong();
+    private final AtomicLong backlogOverflows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private long reportedOverflows;
+
+    private volatile Thread thread;
+    private volatile boolean running;
+
+    public ShortcutDispatcher(Consumer<PluginMetadata.ShortcutAction> executor, int queueCapacity,
+                              int laneBacklog, long timeoutMillis) {
+        this.executor = executor;
+        this.queue = new SpscRingBuffer<>(queueCapacity);
+        this.laneBacklog = Math.max(1, laneBacklog);
+        this.timeoutMillis = timeoutMillis;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("shortcut-watchdog").daemon(true).factory());
+    }
+
+    /**
+     * @return a dispatcher configured from the {@link #TIMEOUT_PROPERTY} and {@link #BACKLOG_PROPERTY} properties
+     */
+    public static ShortcutDispatcher fromSystemProperties(Consumer<PluginMetadata.ShortcutAction> executor) {
+        return new ShortcutDispatcher(executor, QUEUE_CAPACITY,
+            Integer.getInteger(BACKLOG_PROPERTY, DEFAULT_BACKLOG),
+            Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * Start the dispatcher on a daemon thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread dispatcherThread = new Thread(this, "shortcut-dispatcher");
+        dispatcherThread.setDaemon(true);
+        thread = dispatcherThread;
+        dispatcherThread.start();
+    }
+
+    /**
+     * Enqueue a shortcut action pressed just now.
+     * @return false when the queue is full and the action was dropped
+     */
+    public boolean submit(PluginMetadata.ShortcutAction action) {
+        return submit(action, System.nanoTime());
+    }
+
+    /**
+     * Enqueue a shortcut action. Usually called from the native hook thread; concurrent submits are serialised.
+     * @param pressedNanos {@link System#nanoTime()} when the listener received the key event
+     * @return false when the queue is full and the action was dropped
+     */
+    public boolean submit(PluginMetadata.ShortcutAction action, long pressedNanos) {
+        Press press = new Press(action, pressedNanos, System.nanoTime());
+        boolean queued;
+        producerLock.lock();
+        try {
+            queued = queue.offer(press);
+        } finally {
+            producerLock.unlock();
+        }
+        if (!queued) {
+            queueOverflows.incrementAndGet();
+        }
+        LockSupport.unpark(thread);
+        return queued;
+    }
+
+    @Override
+    public void run() {
+        logger.debug("Shortcut dispatcher started (timeout {} ms, backlog {} per plugin)", timeoutMillis, laneBacklog);
+        while (running) {
+            Press press = queue.poll();
+            if (press == null) {
+                reportOverflows();
+                LockSupport.park(this);
+                continue;
+            }
+            dispatch(press);
+        }
+        lanes.values().forEach(ThreadPoolExecutor::shutdownNow);
+        lanes.clear();
+    }
+
+    private void dispatch(Press press) {
+        ThreadPoolExecutor lane = lanes.computeIfAbsent(press.action.getPlugin(), this::newLane);
+        try {
+            lane.execute(() -> runWithTimeout(press));
+            dispatched.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            backlogOverflows.incrementAndGet();
+        }
+    }
+
+    private ThreadPoolExecutor newLane(String plugin) {
+        String name = "shortcut-" + plugin.substring(plugin.lastIndexOf('.') + 1);
+        ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(laneBacklog), Thread.ofPlatform().name(name).daemon(true).factory());
+        lane.allowCoreThreadTimeOut(true);
+        return lane;
+    }
+
+    private void runWithTimeout(Press press) {
+        ShortcutLatency.record(ShortcutLatency.Stage.QUEUE, System.nanoTime() - press.submittedNanos);
+        PluginMetadata.ShortcutAction action = press.action;
+        Run run = new Run(Thread.currentThread());
+        ScheduledFuture<?> timer = timeoutMillis <= 0 ? null : watchdog.schedule(() -> {
+            run.interrupt(() -> {
+                timeouts.incrementAndGet();
+                logger.warn("Action '{}' of plugin {} exceeded {} ms, interrupting it",
+                    action.getAction(), action.getPlugin(), timeoutMillis);
+            });
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            executor.accept(action);
+        } catch (RuntimeException e) {
+            logger.error("Action '{}' of plugin {} failed: {}", action.getAction(), action.getPlugin(), e.getMessage(), e);
+        } finally {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            run.finish();
+            // Clear an interrupt the action did not consume
+            Thread.interrupted();
+            ShortcutLatency.record(ShortcutLatency.Stage.TOTAL, System.nanoTime() - press.pressedNanos);
+        }
+    }
+
+    /**
+     * A queued action with the time of its key press; only created for presses that matched a shortcut.
+     */
+    private static final class Press {
+        private final PluginMetadata.ShortcutAction action;
+        private final long pressedNanos;
+        private final long submittedNanos;
+
+        Press(PluginMetadata.ShortcutAction action, long pressedNanos, long submittedNanos) {
+            this.action = action;
+            this.pressedNanos = pressedNanos;
+            this.submittedNanos = submittedNanos;
+        }
+    }
+
+    /**
+     * One execution of an action; the lock keeps a late watchdog from interrupting the next action on the lane.
+     */
+    private static final class Run {
+        private final Thread worker;
+        private boolean finished;
+
+        Run(Thread worker) {
+            this.worker = worker;
+        }
+
+        synchronized void interrupt(Runnable onTimeout) {
+            if (!finished) {
+                onTimeout.run();
+                worker.interrupt();
+            }
+        }
+
+        synchronized void finish() {
+            finished = true;
+        }
+    }
+
+    private void reportOverflows() {
+        long overflows = getDroppedCount();
+        if (overflows != reportedOverflows) {
+            logger.warn("Dropped {} shortcut events so far ({} with the queue full, {} with a plugin backlog full)",
+                overflows, queueOverflows.get(), backlogOverflows.get());
+            reportedOverflows = overflows;
+        }
+    }
+
+    /**
+     * Stop the dispatcher and interrupt running actions; queued actions are discarded.
+     */
+    public synchronized void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        watchdog.shutdownNow();
+        if (getDroppedCount() > 0 || timeouts.get() > 0) {
+            logger.info("Shortcut dispatcher stopped: {} dispatched, {} dropped, {} timed out",
+                dispatched.get(), getDroppedCount(), timeouts.get());
+        }
+    }
+
+    /**
+     * @return the number of actions dropped because the queue or a plugin backlog was full
+     */
+    public long getDroppedCount() {
+        return queueOverflows.get() + backlogOverflows.get();
+    }
+
+    public long getTimedOutCount() {
+        return timeouts.get();
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+}
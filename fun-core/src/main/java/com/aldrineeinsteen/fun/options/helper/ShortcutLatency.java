@@ -0,0 +1,193 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Latency of global shortcuts per stage, from the native key event to the end of the plugin action, for the
+ * dashboard and {@code --shortcut-latency}. Stages are measured with {@link System#nanoTime()}, except hook delivery:
+ * the native event only carries a millisecond timestamp, and on platforms where it is not wall-clock time the
+ * stage stays empty.
+ */
+public final class ShortcutLatency {
+    private static final Logger logger = LoggerFactory.getLogger(ShortcutLatency.class);
+
+    public static final String OPTION = "shortcut-latency";
+    /** System property; the shortcut-to-completion budget in milliseconds the report measures against. */
+    public static final String BUDGET_PROPERTY = "fun.shortcut.latency-budget";
+    static final long DEFAULT_BUDGET_MILLIS = 100;
+
+    // An event time further in the past than this comes from a clock other than the wall clock
+    private static final long MAX_DELIVERY_MILLIS = 10_000;
+
+    /**
+     * The stages of a shortcut, in the order they happen.
+     */
+    public enum Stage {
+        /** From the OS key event to the listener; millisecond resolution. */
+        DELIVERY("Delivery"),
+        /** Sequence and repeat matching on the hook thread, up to queueing the action. */
+        MATCH("Match"),
+        /** Waiting in the dispatcher queue and the plugin backlog. */
+        QUEUE("Queue"),
+        /** Plugin lookup, {@code validate()} and {@code isReady()}. */
+        VALIDATE("Validate"),
+        /** The plugin action itself. */
+        ACTION("Action"),
+        /** From the listener to the end of the action, all of the above but delivery. */
+        TOTAL("Total");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final Map<Stage, LatencyHistogram> histograms = new EnumMap<>(Stage.class);
+
+    static {
+        for (Stage stage : Stage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+        }
+    }
+
+    private ShortcutLatency() {
+    }
+
+    public static void record(Stage stage, long nanos) {
+        histograms.get(stage).record(nanos);
+    }
+
+    /**
+     * Record hook delivery unless the event time is not comparable with the wall clock.
+     * @param eventMillis the native event time
+     */
+    public static void recordDelivery(long eventMillis, long nowMillis) {
+        long delay = nowMillis - eventMillis;
+        if (delay >= 0 && delay <= MAX_DELIVERY_MILLIS) {
+            record(Stage.DELIVERY, delay * 1_000_000L);
+        }
+    }
+
+    public static LatencyHistogram.Snapshot snapshot(Stage stage) {
+        return histograms.get(stage).snapshot();
+    }
+
+    public static long getBudgetNanos() {
+        return Long.getLong(BUDGET_PROPERTY, DEFAULT_BUDGET_MILLIS) * 1_000_000L;
+    }
+
+    /**
+     * Discard recorded latencies.
+     */
+    static void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Print the table to standard output, followed by the JSON unless it is written to a file.
+     * @param file where to write the JSON, or null to print it
+     */
+    public static void report(String file) {
+        Map<Stage, LatencyHistogram.Snapshot> snapshots = snapshots();
+        System.out.println(toTable(snapshots, getBudgetNanos()));
+        if (file == null || file.isEmpty()) {
+            System.out.println(toJson(snapshots, getBudgetNanos()));
+            return;
+        }
+        try {
+            Files.writeString(Path.of(file), toJson(snapshots, getBudgetNanos()), StandardCharsets.UTF_8);
+            System.out.println("Shortcut latency report written to " + file);
+        } catch (IOException e) {
+            logger.error("Could not write shortcut latency report to {}", file, e);
+        }
+    }
+
+    static Map<Stage, LatencyHistogram.Snapshot> snapshots() {
+        Map<Stage, LatencyHistogram.Snapshot> snapshots = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            snapshots.put(stage, snapshot(stage));
+        }
+        return snapshots;
+    }
+
+    static String toTable(Map<Stage, LatencyHistogram.Snapshot> snapshots, long budgetNanos) {
+        String format = "%-10s %8s %10s %10s %10s %10s %10s%n";
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(format, "Stage", "Count", "p50", "p90", "p99", "p99.9", "Max"));
+        for (Map.Entry<Stage, LatencyHistogram.Snapshot> entry : snapshots.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue();
+            if (snapshot.getCount() == 0) {
+                table.append(String.format(format, entry.getKey().getLabel(), 0, "-", "-", "-", "-", "-"));
+                continue;
+            }
+            table.append(String.format(format, entry.getKey().getLabel(), snapshot.getCount(),
+                format(snapshot.getPercentile(50)), format(snapshot.getPercentile(90)),
+                format(snapshot.getPercentile(99)), format(snapshot.getPercentile(99.9)),
+                format(snapshot.getMax())));
+        }
+        table.append("Budget: ").append(budgetLine(snapshots.get(Stage.TOTAL), budgetNanos))
+            .append(String.format("%n"));
+        return table.toString();
+    }
+
+    static String toJson(Map<Stage, LatencyHistogram.Snapshot> snapshots, long budgetNanos) {
+        LatencyHistogram.Snapshot total = snapshots.get(Stage.TOTAL);
+        StringBuilder json = new StringBuilder("{\n  \"budgetNanos\": ").append(budgetNanos)
+            .append(",\n  \"withinBudget\": ").append(total.getCountWithin(budgetNanos))
+            .append(",\n  \"stages\": [");
+        boolean first = true;
+        for (Map.Entry<Stage, LatencyHistogram.Snapshot> entry : snapshots.entrySet()) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue();
+            json.append(first ? "\n" : ",\n")
+                .append("    {\"stage\": \"").append(entry.getKey().name().toLowerCase(Locale.ROOT)).append('"')
+                .append(", \"count\": ").append(snapshot.getCount())
+                .append(", \"meanNanos\": ").append(snapshot.getMean())
+                .append(", \"p50Nanos\": ").append(snapshot.getPercentile(50))
+                .append(", \"p90Nanos\": ").append(snapshot.getPercentile(90))
+                .append(", \"p99Nanos\": ").append(snapshot.getPercentile(99))
+                .append(", \"p999Nanos\": ").append(snapshot.getPercentile(99.9))
+                .append(", \"maxNanos\": ").append(snapshot.getMax())
+                .append('}');
+            first = false;
+        }
+        return json.append("\n  ]\n}").toString();
+    }
+
+    /**
+     * @return e.g. "99.2% of 120 ≤ 100.0 ms"
+     */
+    static String budgetLine(LatencyHistogram.Snapshot total, long budgetNanos) {
+        if (total.getCount() == 0) {
+            return "No shortcuts measured yet";
+        }
+        return String.format(Locale.ROOT, "%.1f%% of %d ≤ %s", 100.0 * total.getCountWithin(budgetNanos)
+            / total.getCount(), total.getCount(), format(budgetNanos));
+    }
+
+    static String format(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format(Locale.ROOT, "%.1f µs", nanos / 1e3);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.2f s", nanos / 1e9);
+    }
+}
@@ -0,0 +1,43 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.DashboardRenderer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dashboard panel with the median and 99th percentile of each shortcut latency stage, and how many shortcuts
+ * completed within the budget.
+ */
+public class ShortcutLatencyRenderer implements DashboardRenderer {
+
+    @Override
+    public Map<String, String> getDashboardData() {
+        Map<String, String> data = new LinkedHashMap<>();
+        for (ShortcutLatency.Stage stage : ShortcutLatency.Stage.values()) {
+            LatencyHistogram.Snapshot snapshot = ShortcutLatency.snapshot(stage);
+            if (snapshot.getCount() > 0) {
+                data.put(stage.getLabel(), "p50 " + ShortcutLatency.format(snapshot.getPercentile(50))
+                    + "  p99 " + ShortcutLatency.format(snapshot.getPercentile(99)));
+            }
+        }
+        data.put("Budget", ShortcutLatency.budgetLine(ShortcutLatency.snapshot(ShortcutLatency.Stage.TOTAL),
+            ShortcutLatency.getBudgetNanos()));
+        return data;
+    }
+
+    @Override
+    public int getDashboardPosition() {
+        return 90;
+    }
+
+    @Override
+    public int getDashboardRow() {
+        return 2;
+    }
+
+    @Override
+    public String getDashboardPluginName() {
+        return "Shortcut Latency";
+    }
+}
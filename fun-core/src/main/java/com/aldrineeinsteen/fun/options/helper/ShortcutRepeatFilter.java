@@ -0,0 +1,103 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+/**
+ * Pairs shortcut presses with their key release and applies each shortcut's {@link ShortcutRepeatPolicy}, so that a
+ * held shortcut does not run its action for every OS auto-repeat. Only used from the native hook thread; it keeps a
+ * handful of held keys in fixed arrays and does not allocate.
+ * <p>
+ * A key that has not repeated for {@link #STALE_HOLD_MILLIS} is treated as released, so a missed release event
+ * cannot swallow a later deliberate press.
+ */
+public class ShortcutRepeatFilter {
+    static final int MAX_HELD_KEYS = 8;
+    static final long STALE_HOLD_MILLIS = 1500;
+
+    private final int[] heldKeyCodes = new int[MAX_HELD_KEYS];
+    private final PluginMetadata.ShortcutAction[] heldActions = new PluginMetadata.ShortcutAction[MAX_HELD_KEYS];
+    private final long[] lastPressNanos = new long[MAX_HELD_KEYS];
+    private final long[] lastFiredNanos = new long[MAX_HELD_KEYS];
+    private int heldCount;
+    private long suppressed;
+
+    /**
+     * @param action  the shortcut matched by the key press
+     * @param keyCode the native key code of the press
+     * @return the action to run now, or null while the policy holds it back
+     */
+    public PluginMetadata.ShortcutAction onPressed(PluginMetadata.ShortcutAction action, int keyCode, long nowNanos) {
+        int slot = indexOf(keyCode);
+        if (slot >= 0 && heldActions[slot] == action
+                && nowNanos - lastPressNanos[slot] < STALE_HOLD_MILLIS * 1_000_000L) {
+            lastPressNanos[slot] = nowNanos;
+            return onRepeat(slot, action, nowNanos);
+        }
+
+        if (slot < 0) {
+            if (heldCount == MAX_HELD_KEYS) {
+                // Nothing left to pair the release with; run the action rather than risk losing it
+                return action;
+            }
+            slot = heldCount++;
+        }
+        heldKeyCodes[slot] = keyCode;
+        heldActions[slot] = action;
+        lastPressNanos[slot] = nowNanos;
+        lastFiredNanos[slot] = nowNanos;
+        return action.getRepeatPolicy() == ShortcutRepeatPolicy.TRAILING ? null : action;
+    }
+
+    private PluginMetadata.ShortcutAction onRepeat(int slot, PluginMetadata.ShortcutAction action, long nowNanos) {
+        switch (action.getRepeatPolicy()) {
+            case ALWAYS:
+                return action;
+            case RATE:
+                if (nowNanos - lastFiredNanos[slot] >= action.getRepeatIntervalMillis() * 1_000_000L) {
+                    lastFiredNanos[slot] = nowNanos;
+                    return action;
+                }
+                break;
+            default:
+                break;
+        }
+        suppressed++;
+        return null;
+    }
+
+    /**
+     * @param keyCode the native key code of the release
+     * @return the action of a trailing-edge shortcut whose key was released, or null
+     */
+    public PluginMetadata.ShortcutAction onReleased(int keyCode) {
+        if (heldCount == 0) {
+            return null;
+        }
+        int slot = indexOf(keyCode);
+        if (slot < 0) {
+            return null;
+        }
+        PluginMetadata.ShortcutAction action = heldActions[slot];
+        heldCount--;
+        heldKeyCodes[slot] = heldKeyCodes[heldCount];
+        heldActions[slot] = heldActions[heldCount];
+        lastPressNanos[slot] = lastPressNanos[heldCount];
+        lastFiredNanos[slot] = lastFiredNanos[heldCount];
+        heldActions[heldCount] = null;
+        return action.getRepeatPolicy() == ShortcutRepeatPolicy.TRAILING ? action : null;
+    }
+
+    /**
+     * @return the number of auto-repeated presses whose action was not run
+     */
+    public long getSuppressedCount() {
+        return suppressed;
+    }
+
+    private int indexOf(int keyCode) {
+        for (int i = 0; i < heldCount; i++) {
+            if (heldKeyCodes[i] == keyCode) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
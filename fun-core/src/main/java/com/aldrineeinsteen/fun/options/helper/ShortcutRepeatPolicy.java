@@ -0,0 +1,35 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import java.util.Locale;
+
+/**
+ * What a shortcut does while its keys are held down and the OS auto-repeats the key press.
+ * Configured per shortcut with the {@code repeat} key in plugin.yaml.
+ */
+public enum ShortcutRepeatPolicy {
+    /** Run the action on the first press and ignore the repeats until the key is released. */
+    LEADING,
+    /** Run the action once when the key is released. */
+    TRAILING,
+    /** Run the action on the first press and then at most once per interval while the key is held. */
+    RATE,
+    /** Run the action on every press, including each auto-repeat. */
+    ALWAYS;
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 500;
+
+    /**
+     * @param repeat a plugin.yaml repeat value, or null
+     * @return the policy, {@link #LEADING} when null or unknown
+     */
+    public static ShortcutRepeatPolicy of(String repeat) {
+        if (repeat == null) {
+            return LEADING;
+        }
+        try {
+            return valueOf(repeat.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return LEADING;
+        }
+    }
+}
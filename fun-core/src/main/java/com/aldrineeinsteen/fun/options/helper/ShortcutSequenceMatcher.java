@@ -0,0 +1,90 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+
+/**
+ * Incremental matcher for multi-stroke shortcuts such as {@code CTRL + K, S}. Each key press advances the current
+ * position in the {@link ShortcutDispatchTable} trie by one probe; a sequence that is not continued within the
+ * timeout starts over. Only used from the native hook thread and does not allocate.
+ */
+public class ShortcutSequenceMatcher {
+
+    /** System property; the time in milliseconds allowed between the strokes of a sequence. */
+    public static final String TIMEOUT_PROPERTY = "fun.shortcut.sequence-timeout";
+    static final long DEFAULT_TIMEOUT_MILLIS = 1500;
+
+    private final long timeoutNanos;
+
+    private ShortcutDispatchTable table = ShortcutDispatchTable.EMPTY;
+    private int state = ShortcutDispatchTable.ROOT;
+    private long deadlineNanos;
+
+    public ShortcutSequenceMatcher() {
+        this(Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    public ShortcutSequenceMatcher(long timeoutMillis) {
+        this.timeoutNanos = timeoutMillis * 1_000_000L;
+    }
+
+    /**
+     * @param table     the current shortcut table; a different table than on the previous call restarts the sequence
+     * @param modifiers the native event modifiers
+     * @param keyCode   the native virtual key code
+     * @return the shortcut completed by this key press, or null
+     */
+    public PluginMetadata.ShortcutAction onKeyPressed(ShortcutDispatchTable table, int modifiers, int keyCode,
+                                                      long nowNanos) {
+        if (isModifierKey(keyCode)) {
+            // Pressing CTRL for the next stroke must not break the sequence
+            return null;
+        }
+        if (table != this.table || (state != ShortcutDispatchTable.ROOT && nowNanos - deadlineNanos > 0)) {
+            this.table = table;
+            state = ShortcutDispatchTable.ROOT;
+        }
+
+        int next = table.advance(state, modifiers, keyCode);
+        if (next < 0 && state != ShortcutDispatchTable.ROOT) {
+            // The sequence is broken; the key may still start another one
+            state = ShortcutDispatchTable.ROOT;
+            next = table.advance(state, modifiers, keyCode);
+        }
+        if (next < 0) {
+            return null;
+        }
+
+        PluginMetadata.ShortcutAction action = table.actionAt(next);
+        if (action != null || !table.isPrefix(next)) {
+            state = ShortcutDispatchTable.ROOT;
+            return action;
+        }
+        state = next;
+        deadlineNanos = nowNanos + timeoutNanos;
+        return null;
+    }
+
+    /**
+     * @return true while part of a sequence has been typed
+     */
+    public boolean isInSequence() {
+        return state != ShortcutDispatchTable.ROOT;
+    }
+
+    private static boolean isModifierKey(int keyCode) {
+        switch (keyCode) {
+            case NativeKeyEvent.VC_CONTROL:
+            case NativeKeyEvent.VC_SHIFT:
+            case NativeKeyEvent.VC_ALT:
+            case NativeKeyEvent.VC_META:
+            // Right-hand variants, which have no VC_ constant
+            case 0x0E1D:
+            case 0x0036:
+            case 0x0E38:
+            case 0x0E5C:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bounded lock-free queue for exactly one producer thread and one consumer thread. A producer that takes over from
+ * another must be ordered after it, for example by a lock around {@link #offer}.
+ * {@link #offer} and {@link #poll} never block and never allocate; a full buffer rejects the element.
+ */
+final class SpscRingBuffer<E> {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscRingBuffer.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscRingBuffer.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Object[] elements;
+    private final int mask;
+
+    // Next slot to read; written by the consumer only
+    private long head;
+    // Next slot to write; written by the producer only
+    private long tail;
+    // The producer's last view of head, so a non-full buffer costs no read of the consumer's field
+    private long headCache;
+
+    /**
+     * @param capacity the maximum number of queued elements, rounded up to a power of two
+     */
+    SpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.elements = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Producer side.
+     * @return false when the buffer is full
+     */
+    boolean offer(E element) {
+        long position = tail;
+        if (position - headCache >= elements.length) {
+            headCache = (long) HEAD.getAcquire(this);
+            if (position - headCache >= elements.length) {
+                return false;
+            }
+        }
+        elements[(int) position & mask] = element;
+        TAIL.setRelease(this, position + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side.
+     * @return the oldest element, or null when the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long position = head;
+        if (position >= (long) TAIL.getAcquire(this)) {
+            return null;
+        }
+        int index = (int) position & mask;
+        E element = (E) elements[index];
+        elements[index] = null;
+        HEAD.setRelease(this, position + 1);
+        return element;
+    }
+
+    int capacity() {
+        return elements.length;
+    }
+}
@@ -0,0 +1,294 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Records wall time, thread CPU time and allocated bytes of startup phases, overall and per plugin,
+ * and renders them for {@code --startup-report}.
+ * Profiling is off unless enabled; a disabled profiler hands out a shared no-op span.
+ * CPU time and allocations are measured on the thread that runs the span, so spans must be closed on the
+ * thread that opened them. Values the JVM cannot measure are reported as -1.
+ */
+public final class StartupProfiler {
+    private static final Logger logger = LoggerFactory.getLogger(StartupProfiler.class);
+
+    public static final String OPTION = "startup-report";
+
+    private static final Span NO_OP = new Span(null, null);
+    private static final Queue<Record> records = new ConcurrentLinkedQueue<>();
+    private static volatile boolean enabled;
+
+    private StartupProfiler() {
+    }
+
+    /**
+     * @return true when the arguments ask for a startup report; checked before the options are parsed
+     * so that plugin discovery is already profiled
+     */
+    public static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--" + OPTION) || arg.startsWith("--" + OPTION + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Discard recorded spans and disable profiling.
+     */
+    static void reset() {
+        enabled = false;
+        records.clear();
+    }
+
+    public static Span start(String phase) {
+        return start(phase, null);
+    }
+
+    /**
+     * Start timing a phase on the current thread.
+     * @param plugin the plugin the phase belongs to, or null for application phases
+     */
+    public static Span start(String phase, String plugin) {
+        return enabled ? new Span(phase, plugin) : NO_OP;
+    }
+
+    /**
+     * Executor for concurrent startup work. Virtual threads do not report CPU time or allocations,
+     * so platform threads are used while profiling.
+     */
+    static ExecutorService newStartupExecutor() {
+        return enabled
+                ? Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("startup-", 0).factory())
+                : Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * @return recorded spans, slowest first
+     */
+    public static List<Record> getRecords() {
+        List<Record> sorted = new ArrayList<>(records);
+        sorted.sort(Comparator.comparingLong(Record::getWallNanos).reversed());
+        return sorted;
+    }
+
+    /**
+     * Print the table to standard output, followed by the JSON unless it is written to a file.
+     * @param file where to write the JSON, or null to print it
+     */
+    public static void report(String file) {
+        List<Record> sorted = getRecords();
+        System.out.println(toTable(sorted));
+        if (file == null || file.isEmpty()) {
+            System.out.println(toJson(sorted));
+            return;
+        }
+        try {
+            Files.writeString(Path.of(file), toJson(sorted), StandardCharsets.UTF_8);
+            System.out.println("Startup report written to " + file);
+        } catch (IOException e) {
+            logger.error("Could not write startup report to {}", file, e);
+        }
+    }
+
+    static String toJson(List<Record> sorted) {
+        StringBuilder json = new StringBuilder("{\n  \"phases\": [");
+        for (int i = 0; i < sorted.size(); i++) {
+            Record record = sorted.get(i);
+            json.append(i == 0 ? "\n" : ",\n")
+                .append("    {\"phase\": ").append(quote(record.getPhase()))
+                .append(", \"plugin\": ").append(quote(record.getPlugin()))
+                .append(", \"thread\": ").append(quote(record.getThread()))
+                .append(", \"wallNanos\": ").append(record.getWallNanos())
+                .append(", \"cpuNanos\": ").append(record.getCpuNanos())
+                .append(", \"allocatedBytes\": ").append(record.getAllocatedBytes())
+                .append('}');
+        }
+        return json.append(sorted.isEmpty() ? "]\n}" : "\n  ]\n}").toString();
+    }
+
+    static String toTable(List<Record> sorted) {
+        String format = "%-34s %-22s %10s %10s %12s  %s%n";
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(format, "Phase", "Plugin", "Wall ms", "CPU ms", "Alloc KB", "Thread"));
+        for (Record record : sorted) {
+            table.append(String.format(Locale.ROOT, format,
+                record.getPhase(),
+                record.getPlugin() != null ? simpleName(record.getPlugin()) : "-",
+                String.format(Locale.ROOT, "%.2f", record.getWallNanos() / 1e6),
+                record.getCpuNanos() < 0 ? "n/a" : String.format(Locale.ROOT, "%.2f", record.getCpuNanos() / 1e6),
+                record.getAllocatedBytes() < 0 ? "n/a" : String.valueOf(record.getAllocatedBytes() / 1024),
+                record.getThread()));
+        }
+        return table.toString();
+    }
+
+    private static String simpleName(String plugin) {
+        return plugin.substring(plugin.lastIndexOf('.') + 1);
+    }
+
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': quoted.append("\\\""); break;
+                case '\\': quoted.append("\\\\"); break;
+                case '\n': quoted.append("\\n"); break;
+                case '\r': quoted.append("\\r"); break;
+                case '\t': quoted.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * A running phase. Closing it records the phase; closing the shared no-op span does nothing.
+     */
+    public static final class Span implements AutoCloseable {
+        private final String phase;
+        private String plugin;
+        private final long startWall;
+        private final long startCpu;
+        private final long startAllocated;
+
+        private Span(String phase, String plugin) {
+            this.phase = phase;
+            this.plugin = plugin;
+            if (phase == null) {
+                startWall = startCpu = startAllocated = 0;
+            } else {
+                startCpu = ThreadMetrics.cpuNanos();
+                startAllocated = ThreadMetrics.allocatedBytes();
+                startWall = System.nanoTime();
+            }
+        }
+
+        /**
+         * Name the plugin once it is known, e.g. after its descriptor has been parsed.
+         */
+        public Span plugin(String plugin) {
+            if (phase != null) {
+                this.plugin = plugin;
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (phase == null) {
+                return;
+            }
+            long wall = System.nanoTime() - startWall;
+            long cpu = ThreadMetrics.cpuNanos();
+            long allocated = ThreadMetrics.allocatedBytes();
+            records.add(new Record(phase, plugin, Thread.currentThread().getName(), wall,
+                startCpu < 0 || cpu < 0 ? -1 : cpu - startCpu,
+                startAllocated < 0 || allocated < 0 ? -1 : allocated - startAllocated));
+        }
+    }
+
+    /**
+     * One measured phase.
+     */
+    public static final class Record {
+        private final String phase;
+        private final String plugin;
+        private final String thread;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long allocatedBytes;
+
+        Record(String phase, String plugin, String thread, long wallNanos, long cpuNanos, long allocatedBytes) {
+            this.phase = phase;
+            this.plugin = plugin;
+            this.thread = thread;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        public String getPhase() {
+            return phase;
+        }
+
+        public String getPlugin() {
+            return plugin;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+    }
+
+    /**
+     * Current-thread counters; only loaded (with java.management) once profiling is enabled.
+     */
+    private static final class ThreadMetrics {
+        private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private static final com.sun.management.ThreadMXBean extended =
+            threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+
+        static long cpuNanos() {
+            try {
+                return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+            } catch (UnsupportedOperationException e) {
+                return -1;
+            }
+        }
+
+        static long allocatedBytes() {
+            try {
+                return extended != null && extended.isThreadAllocatedMemorySupported()
+                    ? extended.getCurrentThreadAllocatedBytes() : -1;
+            } catch (UnsupportedOperationException e) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.helper;
+
+import java.util.Arrays;
+
+/**
+ * The frame last written to the terminal, as a grid of cells that each hold a character and its ANSI style. Each new
+ * frame is compared with it cell by cell, and only the runs of cells that changed are written, each preceded by a
+ * cursor-positioning sequence. The first frame, and every {@link #FULL_REPAINT_PROPERTY}th after it, clears the
+ * screen and is written in full, so that anything else written to the terminal does not linger.
+ * <p>
+ * A frame is text with SGR (colour) sequences and newlines; other escape sequences are ignored. A cell takes the
+ * columns its character does, see {@link DisplayWidth}. The grids, the styles seen and the output are reused from
+ * frame to frame, so once they have grown to the size of the dashboard, updating allocates nothing.
+ */
+public class TerminalFrame {
+
+    /** System property; every how many frames the screen is cleared and repainted, 0 to never repaint. */
+    public static final String FULL_REPAINT_PROPERTY = "fun.dashboard.full-repaint";
+    static final int DEFAULT_FULL_REPAINT = 60;
+
+    static final String CLEAR_SCREEN = "\033[H\033[2J";
+    private static final String RESET = "\033[0m";
+    private static final String CLEAR_TO_END_OF_LINE = "\033[K";
+    private static final String CLEAR_TO_END_OF_SCREEN = "\033[J";
+    // Unchanged cells between two changes that are rewritten rather than skipped with a cursor movement
+    private static final int MAX_GAP = 6;
+
+    private final int fullRepaintEvery;
+    private final Styles styles = new Styles();
+    private final StringBuilder out = new StringBuilder();
+    private final Cursor cursor = new Cursor(out, styles);
+    private Grid previous = new Grid();
+    private Grid next = new Grid();
+    private boolean repaint = true;
+    private int framesSinceRepaint;
+    private volatile long frames;
+    private volatile long lastFrameBytes;
+    private volatile long lastFullFrameBytes;
+    private volatile long totalBytes;
+    private volatile long totalFullFrameBytes;
+
+    public TerminalFrame() {
+        this(Integer.getInteger(FULL_REPAINT_PROPERTY, DEFAULT_FULL_REPAINT));
+    }
+
+    public TerminalFrame(int fullRepaintEvery) {
+        this.fullRepaintEvery = Math.max(0, fullRepaintEvery);
+    }
+
+    /**
+     * Make the next frame clear the screen and repaint in full, e.g. after something else wrote to the terminal.
+     */
+    public void invalidate() {
+        repaint = true;
+    }
+
+    /**
+     * Record the new frame.
+     * @return what to write to the terminal to turn the previous frame into this one, empty when nothing changed;
+     *         only valid until the next update
+     */
+    public CharSequence update(CharSequence content) {
+        next.parse(content, styles);
+        out.setLength(0);
+        if (repaint || (fullRepaintEvery > 0 && framesSinceRepaint >= fullRepaintEvery)) {
+            out.append(CLEAR_SCREEN).append(content);
+            repaint = false;
+            framesSinceRepaint = 0;
+        } else {
+            appendChanges(previous, next);
+            framesSinceRepaint++;
+        }
+        Grid swap = previous;
+        previous = next;
+        next = swap;
+
+        long bytes = utf8Length(out);
+        long fullBytes = utf8Length(CLEAR_SCREEN) + utf8Length(content);
+        frames++;
+        lastFrameBytes = bytes;
+        lastFullFrameBytes = fullBytes;
+        totalBytes += bytes;
+        totalFullFrameBytes += fullBytes;
+        return out;
+    }
+
+    private void appendChanges(Grid before, Grid after) {
+        cursor.reset();
+        for (int row = 0; row < after.count; row++) {
+            Line old = row < before.count ? before.lines[row] : Line.EMPTY;
+            Line line = after.lines[row];
+            int column = 0;
+            while (column < line.length) {
+                if (line.sameCell(column, old)) {
+                    column++;
+                    continue;
+                }
+                int end = column + 1;
+                // A combining mark is written along with the character it combines with
+                while (column > 0 && line.cellWidth(column) == 0) {
+                    column--;
+                }
+                int gap = 0;
+                for (int i = end; i < line.length && gap <= MAX_GAP; i++) {
+                    if (line.sameCell(i, old)) {
+                        gap++;
+                    } else {
+                        end = i + 1;
+                        gap = 0;
+                    }
+                }
+                cursor.moveTo(row, line.columns[column]);
+                for (int i = column; i < end; i++) {
+                    cursor.write(line.styles[i], line.codePoints[i], line.cellWidth(i));
+                }
+                column = end;
+            }
+            if (line.width < old.width) {
+                cursor.moveTo(row, line.width);
+                cursor.style(Styles.PLAIN);
+                out.append(CLEAR_TO_END_OF_LINE);
+            }
+        }
+        if (after.count < before.count) {
+            cursor.moveTo(after.count, 0);
+            cursor.style(Styles.PLAIN);
+            out.append(CLEAR_TO_END_OF_SCREEN);
+        }
+        if (out.length() > 0) {
+            cursor.style(Styles.PLAIN);
+            // Leave the cursor where writing the whole frame would have left it
+            cursor.moveTo(after.count - 1, after.lines[after.count - 1].width);
+        }
+    }
+
+    static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return the bytes written for the last frame
+     */
+    public long getLastFrameBytes() {
+        return lastFrameBytes;
+    }
+
+    /**
+     * @return the bytes repainting the last frame in full would have taken
+     */
+    public long getLastFullFrameBytes() {
+        return lastFullFrameBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getTotalFullFrameBytes() {
+        return totalFullFrameBytes;
+    }
+
+    /**
+     * The rows of one frame; rows and their cells are kept for the next frame parsed into the grid.
+     */
+    private static final class Grid {
+        private Line[] lines = new Line[0];
+        private int count;
+
+        private void parse(CharSequence content, Styles styles) {
+            count = 0;
+            Line line = nextLine();
+            int style = Styles.PLAIN;
+            int i = 0;
+            while (i < content.length()) {
+                char c = content.charAt(i);
+                if (c == '\n') {
+                    line = nextLine();
+                    i++;
+                } else if (c == '\033') {
+                    int end = DisplayWidth.skipEscape(content, i, content.length());
+                    if (content.charAt(end - 1) == 'm' && end - i > 2) {
+                        style = styles.apply(style, content, i, end);
+                    }
+                    i = end;
+                } else {
+                    int codePoint = Character.codePointAt(content, i);
+                    line.add(codePoint, style);
+                    i += Character.charCount(codePoint);
+                }
+            }
+        }
+
+        private Line nextLine() {
+            if (count == lines.length) {
+                lines = Arrays.copyOf(lines, Math.max(16, count * 2));
+            }
+            if (lines[count] == null) {
+                lines[count] = new Line();
+            }
+            Line line = lines[count++];
+            line.clear();
+            return line;
+        }
+    }
+
+    /**
+     * One row of cells.
+     */
+    private static final class Line {
+        private static final Line EMPTY = new Line();
+
+        private int[] codePoints = new int[16];
+        private int[] styles = new int[16];
+        // The column each cell starts at
+        private int[] columns = new int[16];
+        private int length;
+        private int width;
+
+        private void clear() {
+            length = 0;
+            width = 0;
+        }
+
+        private void add(int codePoint, int style) {
+            if (length == codePoints.length) {
+                codePoints = Arrays.copyOf(codePoints, length * 2);
+                styles = Arrays.copyOf(styles, length * 2);
+                columns = Arrays.copyOf(columns, length * 2);
+            }
+            codePoints[length] = codePoint;
+            styles[length] = style;
+            columns[length] = width;
+            length++;
+            width += DisplayWidth.of(codePoint);
+        }
+
+        private int cellWidth(int cell) {
+            return (cell + 1 < length ? columns[cell + 1] : width) - columns[cell];
+        }
+
+        private boolean sameCell(int cell, Line other) {
+            return cell < other.length && codePoints[cell] == other.codePoints[cell]
+                && columns[cell] == other.columns[cell] && styles[cell] == other.styles[cell];
+        }
+    }
+
+    /**
+     * The styles seen so far, each the SGR sequences written since the last reset, numbered so that cells compare
+     * them as ints. A style is only created the first time it is seen.
+     */
+    private static final class Styles {
+        private static final int PLAIN = 0;
+
+        private String[] sequences = {""};
+        // The style each one was applied on, and what was applied
+        private int[] bases = {PLAIN};
+        private String[] applied = {""};
+        private int count = 1;
+
+        /**
+         * @return the style after applying the SGR sequence from start to end to the current one
+         */
+        private int apply(int current, CharSequence text, int start, int end) {
+            // ESC [ m and ESC [ 0 m reset
+            int parameters = end - start - 3;
+            if (parameters == 0 || (parameters == 1 && text.charAt(start + 2) == '0')) {
+                return PLAIN;
+            }
+            for (int style = 1; style < count; style++) {
+                if (bases[style] == current && matches(applied[style], text, start, end)) {
+                    return style;
+                }
+            }
+            if (count == sequences.length) {
+                sequences = Arrays.copyOf(sequences, count * 2);
+                bases = Arrays.copyOf(bases, count * 2);
+                applied = Arrays.copyOf(applied, count * 2);
+            }
+            String sequence = text.subSequence(start, end).toString();
+            sequences[count] = sequences[current] + sequence;
+            bases[count] = current;
+            applied[count] = sequence;
+            return count++;
+        }
+
+        private static boolean matches(String sequence, CharSequence text, int start, int end) {
+            if (sequence.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < sequence.length(); i++) {
+                if (sequence.charAt(i) != text.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String sequenceOf(int style) {
+            return sequences[style];
+        }
+    }
+
+    /**
+     * Where the terminal's cursor is and which style it writes with, so that neither is sent when it is unchanged.
+     */
+    private static final class Cursor {
+        private final StringBuilder out;
+        private final Styles styles;
+        private int row;
+        private int column;
+        private int style;
+
+        private Cursor(StringBuilder out, Styles styles) {
+            this.out = out;
+            this.styles = styles;
+        }
+
+        /**
+         * Forget the position, and assume the plain style every frame ends with.
+         */
+        private void reset() {
+            row = -1;
+            column = -1;
+            style = Styles.PLAIN;
+        }
+
+        private void moveTo(int row, int column) {
+            if (row != this.row || column != this.column) {
+                out.append("\033[").append(row + 1).append(';').append(column + 1).append('H');
+                this.row = row;
+                this.column = column;
+            }
+        }
+
+        private void style(int style) {
+            if (style != this.style) {
+                out.append(RESET).append(styles.sequenceOf(style));
+                this.style = style;
+            }
+        }
+
+        private void write(int style, int codePoint, int width) {
+            style(style);
+            out.appendCodePoint(codePoint);
+            column += width;
+        }
+    }
+}
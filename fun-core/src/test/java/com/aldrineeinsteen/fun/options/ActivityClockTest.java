@@ -0,0 +1,72 @@
+package com.aldrineeinsteen.fun.options;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ActivityClock class
+ */
+public class ActivityClockTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @BeforeEach
+    void setUp() {
+        ActivityClock.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ActivityClock.reset();
+    }
+
+    @Test
+    void testNoActivity() {
+        assertFalse(ActivityClock.isAvailable());
+        assertEquals(Long.MIN_VALUE, ActivityClock.lastActivityNanos());
+        assertFalse(ActivityClock.isActiveWithin(30_000, 0));
+    }
+
+    @Test
+    void testLastActivity_IsTheLatestOfAllSources() {
+        ActivityClock.keyboardActivity(10 * SECOND);
+        ActivityClock.pointerMoved(5, 7, 4 * SECOND);
+
+        assertEquals(10 * SECOND, ActivityClock.lastActivityNanos());
+        assertEquals(4 * SECOND, ActivityClock.lastActivityNanos(ActivityClock.Source.MOUSE));
+        assertTrue(ActivityClock.isActiveWithin(30_000, 39 * SECOND));
+        assertFalse(ActivityClock.isActiveWithin(30_000, 40 * SECOND));
+    }
+
+    @Test
+    void testExpectedPointerMove_IsNotActivity() {
+        ActivityClock.expectPointerAt(-100, 200);
+        ActivityClock.pointerMoved(-100, 200, 5 * SECOND);
+
+        assertEquals(Long.MIN_VALUE, ActivityClock.lastActivityNanos(ActivityClock.Source.MOUSE));
+
+        // Only the announced move is ignored; coming back to the same spot later is the user
+        ActivityClock.pointerMoved(-100, 200, 6 * SECOND);
+        assertEquals(6 * SECOND, ActivityClock.lastActivityNanos(ActivityClock.Source.MOUSE));
+    }
+
+    @Test
+    void testSubscribers() {
+        int[] changes = {0};
+        ActivityClock.onSubscribersChanged(() -> changes[0]++);
+        assertFalse(ActivityClock.hasSubscribers());
+
+        ActivityClock.subscribe("KeepAliveTimer");
+        ActivityClock.subscribe("KeepAliveTimer");
+        assertTrue(ActivityClock.hasSubscribers());
+        assertEquals(1, changes[0]);
+
+        ActivityClock.unsubscribe("KeepAliveTimer");
+        ActivityClock.unsubscribe("KeepAliveTimer");
+        assertFalse(ActivityClock.hasSubscribers());
+        assertEquals(2, changes[0]);
+    }
+}
@@ -0,0 +1,95 @@
+package com.aldrineeinsteen.fun.options;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginActions class
+ */
+public class PluginActionsTest {
+
+    public static class ActionPlugin extends PluginTemplate {
+        final List<String> calls = new ArrayList<>();
+
+        @PluginAction
+        public String copy() {
+            calls.add("copy");
+            return "copied";
+        }
+
+        @PluginAction("paste-plain")
+        void pastePlain() {
+            calls.add("paste-plain");
+        }
+
+        @PluginAction
+        public void withArgument(String argument) {
+        }
+
+        @PluginAction
+        public static void staticAction() {
+        }
+
+        public void notAnAction() {
+        }
+    }
+
+    public static class OverridingPlugin extends ActionPlugin {
+        @Override
+        @PluginAction
+        public String copy() {
+            calls.add("override");
+            return null;
+        }
+    }
+
+    public static class StringPlugin extends PluginTemplate {
+        @Override
+        public void executeAction(String actionName) {
+        }
+    }
+
+    @Test
+    void testOf_ResolvesAnnotatedInstanceMethodsOnly() {
+        Map<String, MethodHandle> actions = PluginActions.of(ActionPlugin.class);
+
+        assertEquals(Set.of("copy", "paste-plain"), actions.keySet());
+        assertSame(actions, PluginActions.of(ActionPlugin.class), "Resolved once per class");
+        assertEquals(PluginActions.TYPE, actions.get("copy").type());
+        assertTrue(PluginActions.of(StringPlugin.class).isEmpty());
+    }
+
+    @Test
+    void testInvoke_RunsTheMethodOnTheInstance() {
+        ActionPlugin plugin = new ActionPlugin();
+
+        PluginActions.invoke(PluginActions.of(ActionPlugin.class).get("paste-plain"), plugin);
+        plugin.executeAction("copy");
+
+        assertEquals(List.of("paste-plain", "copy"), plugin.calls);
+        assertThrows(IllegalArgumentException.class, () -> plugin.executeAction("notAnAction"));
+    }
+
+    @Test
+    void testOf_SubclassOverrideWins() {
+        OverridingPlugin plugin = new OverridingPlugin();
+
+        PluginActions.invoke(PluginActions.of(OverridingPlugin.class).get("copy"), plugin);
+
+        assertEquals(List.of("override"), plugin.calls);
+        assertTrue(PluginActions.of(OverridingPlugin.class).containsKey("paste-plain"));
+    }
+
+    @Test
+    void testOverridesExecuteAction() {
+        assertFalse(PluginActions.overridesExecuteAction(ActionPlugin.class));
+        assertTrue(PluginActions.overridesExecuteAction(StringPlugin.class));
+    }
+}
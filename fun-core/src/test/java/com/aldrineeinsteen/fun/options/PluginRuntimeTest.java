@@ -0,0 +1,111 @@
+package com.aldrineeinsteen.fun.options;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginRuntime class
+ */
+public class PluginRuntimeTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void testExecute_RunsOnANamedVirtualThread() throws InterruptedException {
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        AtomicReference<String> name = new AtomicReference<>();
+
+        PluginRuntime.Task task = PluginRuntime.execute("test-execute", () -> {
+            thread.set(Thread.currentThread());
+            name.set(Thread.currentThread().getName());
+        });
+
+        assertTrue(task.awaitDone(TIMEOUT));
+        assertTrue(thread.get().isVirtual());
+        assertEquals("plugin-test-execute", name.get());
+        assertFalse(task.isCancelled());
+    }
+
+    @Test
+    void testScheduleWithFixedDelay_KeepsRunningAfterAFailure() throws InterruptedException {
+        long failuresBefore = PluginRuntime.getFailures();
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch threeRuns = new CountDownLatch(3);
+
+        PluginRuntime.Task task = PluginRuntime.scheduleWithFixedDelay("test-repeat", () -> {
+            threeRuns.countDown();
+            if (runs.incrementAndGet() == 1) {
+                throw new IllegalStateException("first run fails");
+            }
+        }, Duration.ZERO, Duration.ofMillis(1));
+
+        assertTrue(threeRuns.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        task.cancel();
+        assertTrue(task.isDone());
+        assertTrue(PluginRuntime.getFailures() > failuresBefore);
+        assertThrows(IllegalArgumentException.class,
+                () -> PluginRuntime.scheduleWithFixedDelay("test-zero", () -> { }, Duration.ZERO, Duration.ZERO));
+    }
+
+    @Test
+    void testCancel_RemovesPendingTimer() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        PluginRuntime.Task task = PluginRuntime.schedule("test-pending", () -> ran.set(true), Duration.ofHours(1));
+        assertFalse(task.isDone());
+        task.cancel();
+
+        assertTrue(task.isDone());
+        assertTrue(task.isCancelled());
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void testCancel_InterruptsRunningBody() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        PluginRuntime.Task task = PluginRuntime.execute("test-interrupt", () -> {
+            started.countDown();
+            try {
+                Thread.sleep(Duration.ofHours(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertTrue(started.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        task.cancel();
+
+        assertTrue(interrupted.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testUtilityStop_CancelsScheduledWork() {
+        AtomicBoolean ran = new AtomicBoolean();
+        UtilityTemplate utility = new UtilityTemplate() {
+            @Override
+            protected void logStart() {
+            }
+
+            @Override
+            protected void runUtility() {
+                schedule(Duration.ofHours(1), () -> ran.set(true));
+            }
+        };
+
+        utility.run();
+        assertTrue(utility.hasScheduledWork());
+        utility.stop();
+
+        assertFalse(utility.hasScheduledWork());
+        assertFalse(ran.get());
+    }
+}
@@ -0,0 +1,122 @@
+package com.aldrineeinsteen.fun.options;
+
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import com.aldrineeinsteen.fun.options.helper.DashboardDisplayRenderer;
+import com.aldrineeinsteen.fun.options.helper.PluginHandle;
+import com.aldrineeinsteen.fun.options.helper.PluginHandleRenderer;
+import com.aldrineeinsteen.fun.options.helper.PluginHandleRendererTest;
+import com.aldrineeinsteen.fun.options.helper.PluginLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginUsage class
+ */
+public class PluginUsageTest {
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    // Kept reachable so the allocation cannot be optimised away
+    private static volatile byte[] sink;
+
+    @BeforeEach
+    void setUp() {
+        PluginUsage.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        PluginUsage.reset();
+        System.clearProperty(PluginUsage.BUDGET_PROPERTY);
+    }
+
+    private static PluginUsage.Usage usageOf(String owner) {
+        return PluginUsage.getUsages().stream().filter(usage -> usage.getOwner().equals(owner)).findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void testDisabled_RunsWithoutMeasuring() {
+        assertEquals("value", PluginUsage.call("Plugin", () -> "value"));
+        assertTrue(PluginUsage.getUsages().isEmpty());
+    }
+
+    @Test
+    void testCall_ChargesAllocationsAndThreadsToTheOwner() {
+        PluginUsage.enable();
+
+        PluginUsage.run("Allocator", () -> sink = new byte[MEGABYTE]);
+        PluginUsage.run("Allocator", () -> { });
+
+        PluginUsage.Usage usage = usageOf("Allocator");
+        assertEquals(2, usage.getRuns());
+        assertTrue(usage.getAllocatedBytes() >= MEGABYTE);
+        assertTrue(usage.getCpuNanos() >= 0);
+        assertEquals(0, usage.getActiveThreads());
+        assertEquals(1, usage.getPeakThreads());
+        assertTrue(PluginUsage.toTable().contains("Allocator"));
+    }
+
+    @Test
+    void testCall_NestedWorkIsChargedToTheInnerOwnerOnly() {
+        PluginUsage.enable();
+
+        PluginUsage.run("Dashboard", () -> PluginUsage.run("Plugin", () -> sink = new byte[4 * MEGABYTE]));
+
+        assertTrue(usageOf("Plugin").getAllocatedBytes() >= 4 * MEGABYTE);
+        assertTrue(usageOf("Dashboard").getAllocatedBytes() < MEGABYTE);
+    }
+
+    @Test
+    void testOverBudget_MeasuresFewerRuns() {
+        System.setProperty(PluginUsage.BUDGET_PROPERTY, "0");
+        PluginUsage.enable();
+
+        for (int i = 0; i < PluginUsage.BUDGET_WINDOW; i++) {
+            PluginUsage.run("Busy", () -> { });
+        }
+
+        assertEquals(2, PluginUsage.getSampleEvery());
+        assertEquals(PluginUsage.BUDGET_WINDOW, usageOf("Busy").getRuns());
+        assertTrue(PluginUsage.getOverheadPercent() > 0);
+    }
+
+    @Test
+    void testRuntime_RunsMeasuredTasksOnPlatformThreads() throws InterruptedException {
+        PluginUsage.enable();
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        PluginRuntime.Task task = PluginRuntime.execute("MeasuredUtility", () -> thread.set(Thread.currentThread()));
+
+        assertTrue(task.awaitDone(Duration.ofSeconds(10)));
+        assertFalse(thread.get().isVirtual());
+        assertEquals(1, usageOf("MeasuredUtility").getRuns());
+        assertEquals("KeepAliveTimer", PluginUsage.ownerOf("com.aldrineeinsteen.fun.options.KeepAliveTimer"));
+    }
+
+    @Test
+    void testDashboard_ChargesRegisteredPluginThroughHandleRenderer() {
+        PluginUsage.enable();
+        String className = PluginHandleRendererTest.RenderablePlugin.class.getName();
+        PluginDescriptor descriptor = new PluginDescriptor("Renderable", className, null, List.of(), List.of(),
+            List.of(), new PluginDescriptor.DashboardSpec(true, 1, 1, 1));
+        PluginHandle handle = new PluginHandle(descriptor, PluginHandleRendererTest.RenderablePlugin.class,
+            new PluginLoader());
+        assertNotNull(handle.getInstance());
+
+        String dashboard = new DashboardDisplayRenderer().renderDashboard("1.0.0",
+            Map.of(className, new PluginHandleRenderer(handle)));
+
+        assertTrue(dashboard.contains("live"));
+        assertEquals(1, usageOf(PluginUsage.ownerOf(className)).getRuns());
+        assertTrue(PluginUsage.getUsages().stream().noneMatch(usage -> usage.getOwner().equals("PluginHandleRenderer")));
+    }
+}
@@ -1,12 +1,15 @@
 package com.aldrineeinsteen.fun.options.helper;
 
+import com.aldrineeinsteen.fun.options.DashboardChanges;
 import com.aldrineeinsteen.fun.options.DashboardRenderer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -33,7 +36,7 @@ public class DashboardDisplayRendererTest {
         assertTrue(result.contains("FunProject v1.0.0"));
         assertTrue(result.contains("Current Time:"));
         assertTrue(result.contains("Press Ctrl+C to exit"));
-        assertTrue(result.startsWith("\033[H\033[2J")); // Clear screen
+        assertFalse(result.contains("\033[2J")); // The screen is cleared by TerminalFrame
     }
 
     @Test
@@ -264,6 +267,40 @@ public class DashboardDisplayRendererTest {
         assertTrue(result.contains("ValueA"));
     }
 
+    @Test
+    void testRenderDashboard_ReadsDataAgainOnlyWhenChanged() {
+        DashboardRenderer plugin = createMockRenderer(0, 0, "Plugin1", Map.of("Status", "Active"));
+        Map<String, DashboardRenderer> renderers = Map.of("Plugin1", plugin);
+
+        renderer.renderDashboard("1.0.0", renderers);
+        renderer.renderDashboard("1.0.0", renderers);
+        verify(plugin, times(1)).getDashboardData();
+        assertEquals(Long.MAX_VALUE, renderer.getNextRefreshNanos());
+
+        when(plugin.getDashboardData()).thenReturn(Map.of("Status", "Idle"));
+        DashboardChanges.signal();
+        assertTrue(renderer.renderDashboard("1.0.0", renderers).contains("Idle"));
+        verify(plugin, times(2)).getDashboardData();
+    }
+
+    @Test
+    void testRenderDashboard_ReadsDataAgainWhenItsRefreshIsDue() {
+        DashboardRenderer plugin = createMockRenderer(0, 0, "Plugin1", Map.of("Status", "Active"));
+        when(plugin.getDashboardRefreshMillis()).thenReturn(60_000L);
+        Map<String, DashboardRenderer> renderers = Map.of("Plugin1", plugin);
+
+        long before = System.nanoTime();
+        renderer.renderDashboard("1.0.0", renderers);
+        renderer.renderDashboard("1.0.0", renderers);
+        verify(plugin, times(1)).getDashboardData();
+        assertTrue(renderer.getNextRefreshNanos() - before >= TimeUnit.SECONDS.toNanos(60));
+
+        // Due within the slack, so read with this frame
+        renderer.setRefreshSlack(Duration.ofMinutes(1));
+        renderer.renderDashboard("1.0.0", renderers);
+        verify(plugin, times(2)).getDashboardData();
+    }
+
     private DashboardRenderer createMockRenderer(int row, int col, String name, Map<String, String> data) {
         DashboardRenderer mock = mock(DashboardRenderer.class);
         when(mock.getDashboardRow()).thenReturn(row);
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -178,6 +179,33 @@ public class DashboardGridLayoutTest {
         assertEquals(0, row1Columns.next());
         assertEquals(1, row1Columns.next());
     }
-}
 
-// Made with Bob
\ No newline at end of file
+    @Test
+    void testLayout_ResolvesRowsColumnsAndBorders() {
+        DashboardRenderer first = mock(DashboardRenderer.class);
+        when(first.getDashboardRow()).thenReturn(1);
+        when(first.getDashboardColumn()).thenReturn(2);
+        DashboardRenderer second = mock(DashboardRenderer.class);
+        when(second.getDashboardRow()).thenReturn(1);
+        when(second.getDashboardColumn()).thenReturn(1);
+        DashboardRenderer below = mock(DashboardRenderer.class);
+        when(below.getDashboardRow()).thenReturn(2);
+        when(below.getDashboardColumn()).thenReturn(1);
+        Map<String, DashboardRenderer> renderers = new HashMap<>();
+        renderers.put("First", first);
+        renderers.put("Second", second);
+        renderers.put("Below", below);
+
+        DashboardGridLayout.Layout layout = gridLayout.layout(renderers);
+
+        assertEquals(2, layout.getRows().size());
+        DashboardGridLayout.Row top = layout.getRows().get(0);
+        assertEquals(List.of(second, first), top.getColumns());
+        assertEquals("┌" + "─".repeat(DashboardGridLayout.COLUMN_WIDTH) + "┬"
+            + "─".repeat(DashboardGridLayout.COLUMN_WIDTH) + "┐\n", top.getTopBorder());
+        assertEquals("└" + "─".repeat(DashboardGridLayout.COLUMN_WIDTH) + "┘\n",
+            layout.getRows().get(1).getBottomBorder());
+        assertThrows(UnsupportedOperationException.class, () -> layout.getRows().clear());
+        assertTrue(gridLayout.layout(new HashMap<>()).isEmpty());
+    }
+}
@@ -0,0 +1,49 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DisplayWidth class
+ */
+public class DisplayWidthTest {
+
+    private static final String GREEN = "\033[32m";
+    private static final String RESET = "\033[0m";
+
+    @Test
+    void testOf_CountsColumnsNotCharacters() {
+        assertEquals(6, DisplayWidth.of("Status"));
+        assertEquals(8, DisplayWidth.of(GREEN + "Status: " + RESET));
+        assertEquals(2, DisplayWidth.of("\033[1;36m\033[mok\033[K"));
+        assertEquals(8, DisplayWidth.of("✓ Active"), "Check marks are narrow");
+        assertEquals(4, DisplayWidth.of("状态"));
+        assertEquals(4, DisplayWidth.of("한글"));
+        assertEquals(5, DisplayWidth.of("ＡＢ!"));
+        assertEquals(2, DisplayWidth.of("🚀"), "Emoji outside the BMP");
+        assertEquals(4, DisplayWidth.of("Café"));
+        assertEquals(0, DisplayWidth.of("\t​"));
+        assertEquals(3, DisplayWidth.of("a状b", 1, 3));
+    }
+
+    @Test
+    void testFit_CutsBeforeTheFirstCharacterThatDoesNotFit() {
+        assertEquals(1, DisplayWidth.fit("状态ok", 3));
+        assertEquals(3, DisplayWidth.fit("状态ok", 5));
+        assertEquals(GREEN.length() + 2, DisplayWidth.fit(GREEN + "okay", 2));
+        assertEquals(4, DisplayWidth.fit("okay", 10));
+    }
+
+    @Test
+    void testAppendPadded_PadsAndEllipsizesToTheColumns() {
+        assertEquals("ok   |", DisplayWidth.appendPadded(new StringBuilder(), "ok", 5).append('|').toString());
+        assertEquals("状态 |", DisplayWidth.appendPadded(new StringBuilder(), "状态", 5).append('|').toString());
+        assertEquals("Sele…|",
+            DisplayWidth.appendPadded(new StringBuilder(), "Selected signature", 5).append('|').toString());
+        assertEquals("状… |", DisplayWidth.appendPadded(new StringBuilder(), "状态状态", 4).append('|').toString());
+        assertEquals(GREEN + "Sel…" + RESET,
+            DisplayWidth.appendPadded(new StringBuilder(), GREEN + "Selected" + RESET, 4).toString());
+        assertEquals("", DisplayWidth.appendPadded(new StringBuilder(), "text", 0).toString());
+    }
+}
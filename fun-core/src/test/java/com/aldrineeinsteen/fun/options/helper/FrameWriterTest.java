@@ -0,0 +1,140 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.DashboardRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for FrameWriter class
+ */
+public class FrameWriterTest {
+
+    private static final int WARMUP_FRAMES = 2_000;
+    private static final int MEASURED_FRAMES = 1_000;
+
+    @Test
+    void testWrite_EncodesUtf8() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FrameWriter writer = new FrameWriter(Channels.newChannel(bytes));
+        String text = "\033[32m✓ Active\033[0m │ 状态 🚀 Café\n";
+
+        writer.write(text);
+        writer.write("");
+
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+    }
+
+    @Test
+    void testWrite_GrowsForLargeFrames() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FrameWriter writer = new FrameWriter(Channels.newChannel(bytes));
+        int capacity = writer.getCapacity();
+        String text = "─".repeat(capacity);
+
+        writer.write(text);
+
+        assertTrue(writer.getCapacity() > capacity);
+        assertEquals(text, bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRenderingAFrame_AllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        DashboardDisplayRenderer displayRenderer = new DashboardDisplayRenderer();
+        Map<String, DashboardRenderer> renderers = new LinkedHashMap<>();
+        renderers.put("first", new FixedRenderer("Keep Alive", 1));
+        renderers.put("second", new FixedRenderer("状态 ✓", 2));
+        DashboardGridLayout.Layout layout = new DashboardGridLayout().layout(renderers);
+        TerminalFrame frame = new TerminalFrame(10);
+        CountingChannel channel = new CountingChannel();
+        FrameWriter writer = new FrameWriter(channel);
+
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            writer.write(frame.update(displayRenderer.renderFrame("1.0.0", layout)));
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            writer.write(frame.update(displayRenderer.renderFrame("1.0.0", layout)));
+        }
+        long perFrame = (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED_FRAMES;
+
+        assertTrue(channel.bytes > 0);
+        // Zero in steady state; the margin absorbs a time zone lookup and the odd JIT deoptimisation
+        assertTrue(perFrame < 16, "Allocated " + perFrame + " bytes per frame");
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        return threads;
+    }
+
+    private static final class FixedRenderer implements DashboardRenderer {
+        private final String name;
+        private final int column;
+
+        private FixedRenderer(String name, int column) {
+            this.name = name;
+            this.column = column;
+        }
+
+        @Override
+        public Map<String, String> getDashboardData() {
+            Map<String, String> data = new LinkedHashMap<>();
+            data.put("Status", "\033[32m✓ Active\033[0m");
+            data.put("Last Selection", "A signature far too long for its column");
+            return data;
+        }
+
+        @Override
+        public int getDashboardColumn() {
+            return column;
+        }
+
+        @Override
+        public String getDashboardPluginName() {
+            return name;
+        }
+
+        @Override
+        public long getDashboardRefreshMillis() {
+            return 0;
+        }
+    }
+
+    /**
+     * Counts and discards what is written.
+     */
+    private static final class CountingChannel implements WritableByteChannel {
+        private long bytes;
+
+        @Override
+        public int write(ByteBuffer source) {
+            int written = source.remaining();
+            source.position(source.limit());
+            bytes += written;
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyHistogram class
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void testBuckets_CoverEveryValueInOrder() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.BUCKETS - 1));
+        for (int bucket = 1; bucket < LatencyHistogram.BUCKETS; bucket++) {
+            long lower = LatencyHistogram.upperBoundOf(bucket - 1) + 1;
+            assertEquals(bucket, LatencyHistogram.bucketOf(lower));
+            assertEquals(bucket, LatencyHistogram.bucketOf(LatencyHistogram.upperBoundOf(bucket)));
+        }
+    }
+
+    @Test
+    void testPercentiles_WithinOneBucketAboveTheValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1001, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMax());
+        long p50 = snapshot.getPercentile(50);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, "p50 was " + p50);
+        long p99 = snapshot.getPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+        assertEquals(1_000_000, snapshot.getPercentile(100));
+    }
+
+    @Test
+    void testCountWithin_CountsTheStraddlingBucketAsAbove() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.record(1_000);
+        histogram.record(5_000_000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.getCountWithin(1_000_000));
+        assertEquals(1, snapshot.getCountWithin(999));
+        assertEquals(3, snapshot.getCountWithin(5_000_000));
+    }
+
+    @Test
+    void testEmptyAndReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getPercentile(99));
+
+        histogram.record(42);
+        histogram.reset();
+
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+    }
+}
@@ -0,0 +1,61 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for NativeLibraryCache class
+ */
+public class NativeLibraryCacheTest {
+
+    private static final byte[] LIBRARY = "native library bytes".getBytes();
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(NativeLibraryCache.DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    void testExtract_CopiesOnceThenReusesTheCache(@TempDir Path tempDir) throws Exception {
+        Path source = Files.write(tempDir.resolve("libJNativeHook.so"), LIBRARY);
+        Path target = tempDir.resolve("cache/2.2.2/linux-x86_64/libJNativeHook.so");
+
+        assertEquals(target, NativeLibraryCache.extract(source.toUri().toURL(), target));
+        assertArrayEquals(LIBRARY, Files.readAllBytes(target));
+
+        FileTime extracted = FileTime.fromMillis(1_000_000);
+        Files.setLastModifiedTime(target, extracted);
+        NativeLibraryCache.extract(source.toUri().toURL(), target);
+        assertEquals(extracted, Files.getLastModifiedTime(target), "An intact copy is not written again");
+        try (var files = Files.list(target.getParent())) {
+            assertEquals(1, files.count(), "No partial files are left behind");
+        }
+    }
+
+    @Test
+    void testExtract_ReplacesATruncatedCopy(@TempDir Path tempDir) throws Exception {
+        Path source = Files.write(tempDir.resolve("libJNativeHook.so"), LIBRARY);
+        Path target = tempDir.resolve("cache/libJNativeHook.so");
+        Files.createDirectories(target.getParent());
+        Files.write(target, new byte[]{1, 2, 3});
+
+        NativeLibraryCache.extract(source.toUri().toURL(), target);
+
+        assertArrayEquals(LIBRARY, Files.readAllBytes(target));
+    }
+
+    @Test
+    void testCacheDirectory_Configurable(@TempDir Path tempDir) {
+        assertTrue(NativeLibraryCache.cacheDirectory().endsWith(Path.of("fun-project", "native")));
+
+        System.setProperty(NativeLibraryCache.DIRECTORY_PROPERTY, tempDir.toString());
+        assertEquals(tempDir, NativeLibraryCache.cacheDirectory());
+    }
+}
@@ -0,0 +1,99 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.UtilityTemplate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginClassLoader class
+ */
+public class PluginClassLoaderTest {
+
+    /**
+     * Plugin packaged into a JAR by the tests and loaded from there in its own class loader.
+     */
+    public static class IsolatedPlugin extends PluginTemplate {
+        @Override
+        public void executeAction(String actionName) {
+        }
+    }
+
+    static Path writeJar(Path jar) throws IOException {
+        try (JarOutputStream jarOut = new JarOutputStream(Files.newOutputStream(jar))) {
+            // The nest host goes along, as both classes must come from the same loader
+            for (Class<?> clazz : new Class<?>[]{IsolatedPlugin.class, PluginClassLoaderTest.class}) {
+                String classFile = clazz.getName().replace('.', '/') + ".class";
+                try (InputStream classBytes = clazz.getClassLoader().getResourceAsStream(classFile)) {
+                    assertNotNull(classBytes);
+                    jarOut.putNextEntry(new JarEntry(classFile));
+                    classBytes.transferTo(jarOut);
+                    jarOut.closeEntry();
+                }
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    void testLoadClass_PluginSeesOnlyTheApi(@TempDir Path tempDir) throws Exception {
+        try (PluginClassLoader loader = PluginClassLoader.open(writeJar(tempDir.resolve("plugin.jar")))) {
+            Class<?> pluginClass = loader.loadClass(IsolatedPlugin.class.getName());
+
+            assertSame(loader, pluginClass.getClassLoader());
+            assertNotSame(IsolatedPlugin.class, pluginClass);
+            assertSame(PluginTemplate.class, loader.loadClass(PluginTemplate.class.getName()));
+            assertSame(UtilityTemplate.class, loader.loadClass(UtilityTemplate.class.getName()));
+            assertSame(org.slf4j.Logger.class, loader.loadClass(org.slf4j.Logger.class.getName()));
+            assertThrows(ClassNotFoundException.class, () -> loader.loadClass(PluginRepository.class.getName()));
+            assertThrows(ClassNotFoundException.class, () -> loader.loadClass(Test.class.getName()));
+            assertEquals(1, loader.getDefinedClassCount());
+        }
+    }
+
+    @Test
+    void testCreate_ReadsFromACopy(@TempDir Path tempDir) throws Exception {
+        Path jar = writeJar(tempDir.resolve("plugin.jar"));
+        PluginClassLoader loader = PluginClassLoader.create(jar);
+        Files.delete(jar);
+
+        assertEquals(jar, loader.getJar());
+        assertNotNull(loader.loadClass(IsolatedPlugin.class.getName()));
+        loader.close();
+        assertTrue(loader.isClosed());
+    }
+
+    @Test
+    void testUnload_LoaderIsCollectedOnceReleased(@TempDir Path tempDir) throws Exception {
+        WeakReference<PluginClassLoader> loaderReference = loadAndRelease(writeJar(tempDir.resolve("plugin.jar")));
+
+        for (int i = 0; i < 50 && loaderReference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertNull(loaderReference.get(), "The plugin singleton registry must not keep the class loader alive");
+    }
+
+    private static WeakReference<PluginClassLoader> loadAndRelease(Path jar) throws Exception {
+        PluginClassLoader loader = PluginClassLoader.open(jar);
+        Class<? extends PluginTemplate> pluginClass =
+            loader.loadClass(IsolatedPlugin.class.getName()).asSubclass(PluginTemplate.class);
+        PluginTemplate plugin = PluginTemplate.getInstance(pluginClass);
+        plugin.start();
+        plugin.stop();
+        assertSame(plugin, PluginTemplate.releaseInstance(pluginClass));
+        loader.close();
+        return new WeakReference<>(loader);
+    }
+}
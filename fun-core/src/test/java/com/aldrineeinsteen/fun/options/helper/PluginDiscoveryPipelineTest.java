@@ -0,0 +1,111 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginDiscoveryPipeline class
+ */
+public class PluginDiscoveryPipelineTest {
+
+    private PluginLoader pluginLoader;
+    private Options options;
+    private Map<String, PluginMetadata.ShortcutAction> shortcutActions;
+    private Map<String, PluginMetadata> pluginInfos;
+    private PluginDiscoveryPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pluginLoader = new PluginLoader();
+        options = new Options();
+        shortcutActions = new HashMap<>();
+        pluginInfos = new HashMap<>();
+        pipeline = new PluginDiscoveryPipeline(pluginLoader,
+                new PluginYamlParser(pluginLoader, options, shortcutActions, pluginInfos));
+    }
+
+    private static PluginDescriptor descriptor(Class<?> pluginClass, String shortOpt) {
+        return new PluginDescriptor(pluginClass.getSimpleName(), pluginClass.getName(), null,
+                List.of(new PluginDescriptor.OptionSpec(shortOpt, shortOpt + "-long", null, false, false)),
+                List.of(),
+                List.of(new PluginDescriptor.ShortcutSpec("CTRL + SHIFT + T", shortOpt)),
+                null);
+    }
+
+    @Test
+    void testDiscover_CommitsInDiscoveryOrder() {
+        pipeline.discoverFromDescriptors(List.of(
+                descriptor(ExpensivePlugin.class, "expensive"),
+                descriptor(FastPlugin.class, "fast")));
+
+        // The later plugin wins the shortcut conflict, exactly as with sequential loading
+        PluginMetadata.ShortcutAction winner = shortcutActions.get("CTRL + SHIFT + T");
+        assertEquals(FastPlugin.class.getName(), winner.getPlugin());
+
+        List<String> optionOrder = options.getOptions().stream().map(Option::getOpt).collect(Collectors.toList());
+        assertTrue(optionOrder.containsAll(List.of("expensive", "fast")));
+
+        List<String> committed = pipeline.getTimings().stream()
+                .map(PluginDiscoveryPipeline.PluginTiming::getPluginName)
+                .collect(Collectors.toList());
+        assertEquals(List.of("ExpensivePlugin", "FastPlugin"), committed);
+    }
+
+    @Test
+    void testDiscover_RegistersHandlesWithoutInstantiating() {
+        pipeline.discoverFromDescriptors(List.of(descriptor(ExpensivePlugin.class, "expensive")));
+
+        assertTrue(pluginLoader.getPlugins().isEmpty());
+        PluginHandle handle = pluginLoader.getHandle(ExpensivePlugin.class.getName());
+        assertNotNull(handle);
+        assertFalse(handle.isInstantiated());
+        assertTrue(pluginInfos.containsKey("ExpensivePlugin"));
+        assertTrue(pipeline.getTimings().get(0).getClassLoadNanos() > 0);
+    }
+
+    @Test
+    void testDiscover_MissingClassStillRegistersMetadata() {
+        PluginDescriptor missing = new PluginDescriptor("Missing", "com.nonexistent.MissingPlugin", null,
+                List.of(), List.of(), List.of(), null);
+
+        pipeline.discoverFromDescriptors(List.of(missing));
+
+        assertTrue(pluginLoader.getPlugins().isEmpty());
+        assertTrue(pluginInfos.containsKey("Missing"));
+    }
+
+    /**
+     * Stands in for plugins with expensive constructors; discovery must not construct it
+     */
+    public static class ExpensivePlugin extends PluginTemplate {
+        public ExpensivePlugin() {
+            fail("ExpensivePlugin must not be constructed during discovery");
+        }
+
+        @Override
+        public void executeAction(String actionName) {
+            // Mock implementation
+        }
+    }
+
+    /**
+     * Plugin with a trivial constructor
+     */
+    public static class FastPlugin extends PluginTemplate {
+        @Override
+        public void executeAction(String actionName) {
+            // Mock implementation
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginHandleRenderer class
+ */
+public class PluginHandleRendererTest {
+
+    private PluginHandle handle(PluginDescriptor.DashboardSpec dashboard) {
+        PluginDescriptor descriptor = new PluginDescriptor("Renderable", RenderablePlugin.class.getName(), null,
+            List.of(), List.of(), List.of(new PluginDescriptor.ShortcutSpec("CTRL + R", "render")), dashboard);
+        return new PluginHandle(descriptor, RenderablePlugin.class, new PluginLoader());
+    }
+
+    @Test
+    void testRendersFromMetadataBeforeInstantiation() {
+        PluginHandle handle = handle(new PluginDescriptor.DashboardSpec(true, 7, 2, null));
+        PluginHandleRenderer renderer = new PluginHandleRenderer(handle);
+
+        assertTrue(renderer.isDashboardEnabled());
+        assertEquals(7, renderer.getDashboardPosition());
+        assertEquals(2, renderer.getDashboardColumn());
+        assertEquals(1, renderer.getDashboardRow());
+        assertEquals("RenderablePlugin", renderer.getDashboardPluginName());
+        assertEquals("Not started", renderer.getDashboardData().get("Status"));
+        assertEquals("1", renderer.getDashboardData().get("Shortcuts"));
+        assertFalse(handle.isInstantiated());
+    }
+
+    @Test
+    void testDisabledWithoutDashboardSection() {
+        assertFalse(new PluginHandleRenderer(handle(null)).isDashboardEnabled());
+    }
+
+    @Test
+    void testDelegatesOnceInstantiated() {
+        PluginHandle handle = handle(new PluginDescriptor.DashboardSpec(true, 7, 2, 1));
+        PluginHandleRenderer renderer = new PluginHandleRenderer(handle);
+
+        assertNotNull(handle.getInstance());
+
+        assertEquals("live", renderer.getDashboardData().get("Status"));
+        assertEquals(7, renderer.getDashboardPosition());
+    }
+
+    /**
+     * Plugin providing its own dashboard data
+     */
+    public static class RenderablePlugin extends PluginTemplate {
+        @Override
+        public void executeAction(String actionName) {
+            // Mock implementation
+        }
+
+        @Override
+        public Map<String, String> getDashboardData() {
+            return Map.of("Status", "live");
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.UtilityTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginHotReloader class
+ */
+public class PluginHotReloaderTest {
+
+    private static final String PLUGIN_CLASS = HotPlugin.class.getName();
+    private static final String UTILITY_CLASS = HotUtility.class.getName();
+
+    private PluginRepository repository;
+    private DashboardManager dashboardManager;
+    private PluginHotReloader reloader;
+
+    /**
+     * Plugin packaged into a JAR by the tests and loaded from there in its own class loader.
+     */
+    public static class HotPlugin extends PluginTemplate {
+        @Override
+        public void executeAction(String actionName) {
+        }
+    }
+
+    /**
+     * Utility packaged into a JAR by the tests; it shows the params it was configured with on the dashboard.
+     */
+    public static class HotUtility extends UtilityTemplate {
+        private Map<String, String> params = Map.of();
+
+        @Override
+        public void configure(Map<String, String> params) {
+            this.params = params;
+        }
+
+        @Override
+        protected void logStart() {
+        }
+
+        @Override
+        protected void runUtility() {
+            schedule(Duration.ofHours(1), () -> { });
+        }
+
+        @Override
+        public Map<String, String> getDashboardData() {
+            return params;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository = new PluginRepository();
+        repository.init();
+        dashboardManager = new DashboardManager();
+        reloader = new PluginHotReloader(repository, dashboardManager);
+    }
+
+    private static void writeJar(Path jar, String shortcutKey) throws IOException {
+        writeJar(jar, HotPlugin.class, shortcutKey);
+    }
+
+    private static void writeJar(Path jar, Class<?> pluginClass, String shortcutKey) throws IOException {
+        String yaml = String.join("\n",
+                "name: " + pluginClass.getSimpleName(),
+                "pluginClass: " + pluginClass.getName(),
+                "description: Hot reloaded plugin",
+                "shortcuts:",
+                "  - key: \"" + shortcutKey + "\"",
+                "    action: \"hot\"",
+                "dashboard:",
+                "  enabled: true",
+                "");
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out)) {
+            jarOut.putNextEntry(new JarEntry("plugin.yaml"));
+            jarOut.write(yaml.getBytes(StandardCharsets.UTF_8));
+            jarOut.closeEntry();
+            // The nest host goes along, as both classes must come from the same loader
+            copyClass(jarOut, pluginClass);
+            copyClass(jarOut, PluginHotReloaderTest.class);
+        }
+    }
+
+    private static void copyClass(JarOutputStream jarOut, Class<?> clazz) throws IOException {
+        String classFile = clazz.getName().replace('.', '/') + ".class";
+        try (InputStream classBytes = clazz.getClassLoader().getResourceAsStream(classFile)) {
+            assertNotNull(classBytes);
+            jarOut.putNextEntry(new JarEntry(classFile));
+            classBytes.transferTo(jarOut);
+            jarOut.closeEntry();
+        }
+    }
+
+    @Test
+    void testReload_NewJarIsRegisteredInItsOwnClassLoader(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("hot-plugin.jar");
+        writeJar(jar, "CTRL + ALT + H");
+
+        reloader.reload(jar);
+
+        PluginHandle handle = PluginRepository.getPluginHandle(PLUGIN_CLASS);
+        assertNotNull(handle);
+        assertInstanceOf(PluginClassLoader.class, handle.getPluginClass().getClassLoader());
+        assertEquals(PLUGIN_CLASS, PluginRepository.getShortcutActions().get("CTRL + ALT + H").getPlugin());
+        assertEquals(1, dashboardManager.getRendererCount());
+        assertTrue(reloader.getTrackedJars().contains(jar));
+
+        reloader.unload(jar);
+    }
+
+    @Test
+    void testReload_RunningPluginIsReplaced(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("hot-plugin.jar");
+        writeJar(jar, "CTRL + ALT + H");
+        reloader.reload(jar);
+        PluginRepository.startPlugin(PLUGIN_CLASS);
+        PluginTemplate first = PluginRepository.getPlugin(PLUGIN_CLASS);
+        assertEquals(PluginTemplate.PluginState.STARTED, first.getState());
+
+        writeJar(jar, "CTRL + ALT + J");
+        assertTrue(jar.toFile().setLastModified(jar.toFile().lastModified() + 2000));
+        reloader.reload(jar);
+
+        PluginTemplate second = PluginRepository.getPlugin(PLUGIN_CLASS);
+        assertNotSame(first, second);
+        assertNotSame(first.getClass(), second.getClass());
+        assertEquals(PluginTemplate.PluginState.STOPPED, first.getState());
+        assertEquals(PluginTemplate.PluginState.STARTED, second.getState());
+        assertNull(PluginRepository.getShortcutActions().get("CTRL + ALT + H"));
+        assertNotNull(PluginRepository.getShortcutActions().get("CTRL + ALT + J"));
+        assertEquals(1, dashboardManager.getRendererCount());
+
+        reloader.unload(jar);
+    }
+
+    @Test
+    void testReload_RunningUtilityKeepsCommandLineParams(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("hot-utility.jar");
+        writeJar(jar, HotUtility.class, "CTRL + ALT + U");
+        reloader.reload(jar);
+        PluginRepository.instantiatePlugins(List.of(UTILITY_CLASS));
+        PluginRepository.configurePlugin(UTILITY_CLASS, Map.of("end-time", "17:45", "seconds", "30"));
+        PluginRepository.startPlugin(UTILITY_CLASS);
+        UtilityTemplate first = (UtilityTemplate) PluginRepository.getUtility(UTILITY_CLASS);
+        assertEquals("30", first.getDashboardData().get("seconds"));
+
+        writeJar(jar, HotUtility.class, "CTRL + ALT + V");
+        assertTrue(jar.toFile().setLastModified(jar.toFile().lastModified() + 2000));
+        reloader.reload(jar);
+
+        UtilityTemplate second = (UtilityTemplate) PluginRepository.getUtility(UTILITY_CLASS);
+        assertNotSame(first.getClass(), second.getClass());
+        assertEquals(Map.of("end-time", "17:45", "seconds", "30"), second.getDashboardData());
+        assertTrue(PluginRepository.isRunning(UTILITY_CLASS, second));
+
+        reloader.unload(jar);
+    }
+
+    @Test
+    void testReload_UnchangedJarIsIgnored(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("hot-plugin.jar");
+        writeJar(jar, "CTRL + ALT + H");
+        reloader.reload(jar);
+        PluginHandle handle = PluginRepository.getPluginHandle(PLUGIN_CLASS);
+
+        reloader.reload(jar);
+
+        assertSame(handle, PluginRepository.getPluginHandle(PLUGIN_CLASS));
+        reloader.unload(jar);
+    }
+
+    @Test
+    void testUnload_RemovesPluginShortcutsAndRenderer(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("hot-plugin.jar");
+        writeJar(jar, "CTRL + ALT + H");
+        reloader.reload(jar);
+        PluginRepository.startPlugin(PLUGIN_CLASS);
+        PluginTemplate plugin = PluginRepository.getPlugin(PLUGIN_CLASS);
+
+        Files.delete(jar);
+        reloader.unload(jar);
+
+        assertNull(PluginRepository.getPluginHandle(PLUGIN_CLASS));
+        assertNull(PluginRepository.getPlugin(PLUGIN_CLASS));
+        assertNull(PluginRepository.getShortcutActions().get("CTRL + ALT + H"));
+        assertEquals(0, dashboardManager.getRendererCount());
+        assertEquals(PluginTemplate.PluginState.STOPPED, plugin.getState());
+        assertFalse(reloader.getTrackedJars().contains(jar));
+    }
+
+    @Test
+    void testReadDescriptor_JarWithoutDescriptor(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("empty.jar");
+        try (JarOutputStream jarOut = new JarOutputStream(Files.newOutputStream(jar))) {
+            jarOut.putNextEntry(new JarEntry("README.txt"));
+            jarOut.closeEntry();
+        }
+
+        assertNull(PluginHotReloader.readDescriptor(jar));
+    }
+}
@@ -0,0 +1,129 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import com.aldrineeinsteen.fun.options.descriptor.PluginIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginIndexLoader class
+ */
+public class PluginIndexLoaderTest {
+
+    @TempDir
+    Path pluginDir;
+
+    private Path pluginJar;
+    private Path libraryJar;
+    private PluginDescriptor descriptor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pluginJar = Files.write(pluginDir.resolve("signature-selector-1.0.jar"), new byte[]{1, 2, 3});
+        libraryJar = Files.write(pluginDir.resolve("helper-1.0.jar"), new byte[]{4, 5});
+        descriptor = new PluginDescriptor("SignatureSelector", "com.example.SignatureSelector", null,
+                List.of(new PluginDescriptor.OptionSpec("sign", "signature", "Weighted signature selector.", false, false)),
+                List.of(new PluginDescriptor.OptionSpec("e", "end-time", null, true, false)),
+                List.of(new PluginDescriptor.ShortcutSpec("CTRL + SHIFT + ALT + S", "getRandomSignature", "rate", 250)),
+                new PluginDescriptor.DashboardSpec(true, 20, null, 1));
+    }
+
+    private void writeIndex() throws IOException {
+        PluginIndex index = new PluginIndex();
+        index.put(entryFor(pluginJar, descriptor));
+        index.put(entryFor(libraryJar, null));
+        index.write(pluginDir.resolve(PluginIndex.FILE_NAME));
+    }
+
+    private static PluginIndex.Entry entryFor(Path jar, PluginDescriptor descriptor) throws IOException {
+        return new PluginIndex.Entry(jar.getFileName().toString(), Files.size(jar),
+                Files.getLastModifiedTime(jar).toMillis(), descriptor);
+    }
+
+    private PluginIndexLoader loaderOnClassPath(Path... jars) {
+        StringBuilder classPath = new StringBuilder("target/classes");
+        for (Path jar : jars) {
+            classPath.append(File.pathSeparator).append(jar);
+        }
+        return new PluginIndexLoader(classPath.toString(), null);
+    }
+
+    @Test
+    void testLoad_FreshIndexRoundTripsDescriptors() throws IOException {
+        writeIndex();
+
+        Optional<List<PluginDescriptor>> loaded = loaderOnClassPath(pluginJar, libraryJar).load();
+
+        assertTrue(loaded.isPresent());
+        assertEquals(List.of(descriptor), loaded.get());
+        PluginDescriptor restored = loaded.get().get(0);
+        assertEquals("No description available", restored.getDescription());
+        assertNull(restored.getDashboard().getColumn());
+        assertEquals("", restored.getParams().get(0).getDescription());
+    }
+
+    @Test
+    void testLoad_ReportsJarsWithoutDescriptor() throws IOException {
+        writeIndex();
+        PluginIndexLoader loader = loaderOnClassPath(pluginJar, libraryJar);
+
+        assertTrue(loader.load().isPresent());
+        assertTrue(loader.hasUndescribedJars());
+    }
+
+    @Test
+    void testLoad_NoIndexFallsBack() {
+        assertFalse(loaderOnClassPath(pluginJar, libraryJar).load().isPresent());
+    }
+
+    @Test
+    void testLoad_ChangedJarMakesIndexStale() throws IOException {
+        writeIndex();
+        Files.setLastModifiedTime(pluginJar, FileTime.fromMillis(Files.getLastModifiedTime(pluginJar).toMillis() + 5000));
+
+        assertFalse(loaderOnClassPath(pluginJar, libraryJar).load().isPresent());
+    }
+
+    @Test
+    void testLoad_UnindexedJarMakesIndexStale() throws IOException {
+        writeIndex();
+        Path newJar = Files.write(pluginDir.resolve("new-plugin-1.0.jar"), new byte[]{9});
+
+        assertFalse(loaderOnClassPath(pluginJar, libraryJar, newJar).load().isPresent());
+    }
+
+    @Test
+    void testLoad_RemovedJarMakesIndexStale() throws IOException {
+        writeIndex();
+        Files.delete(libraryJar);
+
+        assertFalse(loaderOnClassPath(pluginJar).load().isPresent());
+    }
+
+    @Test
+    void testLoad_PluginJarMissingFromClassPathMakesIndexStale() throws IOException {
+        Path index = pluginDir.resolve(PluginIndex.FILE_NAME);
+        writeIndex();
+
+        PluginIndexLoader loader = new PluginIndexLoader(libraryJar.toString(), index.toString());
+        assertFalse(loader.load().isPresent());
+    }
+
+    @Test
+    void testLoad_CorruptIndexFallsBack() throws IOException {
+        Files.write(pluginDir.resolve(PluginIndex.FILE_NAME), new byte[]{0x46, 0x50, 0x49});
+
+        assertFalse(loaderOnClassPath(pluginJar, libraryJar).load().isPresent());
+    }
+}
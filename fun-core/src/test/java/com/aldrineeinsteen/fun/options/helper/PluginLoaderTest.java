@@ -1,9 +1,13 @@
 package com.aldrineeinsteen.fun.options.helper;
 
 import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -162,6 +166,70 @@ public class PluginLoaderTest {
         assertSame(plugin2, pluginLoader.getPlugin("Test"));
     }
 
+    @Test
+    void testGetPlugin_InstantiatesHandleOnFirstUse() {
+        PluginHandle handle = handleFor(CountingPlugin.class,
+            new PluginDescriptor.DashboardSpec(true, 5, 2, 3));
+        pluginLoader.registerHandle(handle);
+        int before = CountingPlugin.constructed.get();
+
+        assertTrue(pluginLoader.getPlugins().isEmpty());
+        assertNull(pluginLoader.getUtility(CountingPlugin.class.getName()));
+        assertEquals(before, CountingPlugin.constructed.get());
+
+        PluginTemplate plugin = pluginLoader.getPlugin(CountingPlugin.class.getName());
+        assertNotNull(plugin);
+        assertTrue(handle.isInstantiated());
+        assertSame(plugin, pluginLoader.getPlugin(CountingPlugin.class.getName()));
+        assertTrue(plugin.isDashboardEnabled());
+        assertEquals(5, plugin.getDashboardPosition());
+        assertEquals(2, plugin.getDashboardColumn());
+        assertEquals(3, plugin.getDashboardRow());
+    }
+
+    @Test
+    void testInstantiateAll_CreatesOnlyNamedUtilities() {
+        pluginLoader.registerHandle(handleFor(CountingUtility.class, null));
+
+        pluginLoader.instantiateAll(List.of("com.example.Unknown"));
+        assertTrue(pluginLoader.getUtilities().isEmpty());
+
+        pluginLoader.instantiateAll(List.of(CountingUtility.class.getName()));
+        assertInstanceOf(CountingUtility.class, pluginLoader.getUtilities().get(CountingUtility.class.getName()));
+    }
+
+    private PluginHandle handleFor(Class<?> pluginClass, PluginDescriptor.DashboardSpec dashboard) {
+        PluginDescriptor descriptor = new PluginDescriptor(pluginClass.getSimpleName(), pluginClass.getName(), null,
+            List.of(), List.of(), List.of(), dashboard);
+        return new PluginHandle(descriptor, pluginClass, pluginLoader);
+    }
+
+    /**
+     * Plugin that counts how often it is constructed
+     */
+    public static class CountingPlugin extends PluginTemplate {
+        static final AtomicInteger constructed = new AtomicInteger();
+
+        public CountingPlugin() {
+            constructed.incrementAndGet();
+        }
+
+        @Override
+        public void executeAction(String actionName) {
+            // Mock implementation
+        }
+    }
+
+    /**
+     * Utility created through a lazy handle
+     */
+    public static class CountingUtility implements Runnable {
+        @Override
+        public void run() {
+            // Mock implementation
+        }
+    }
+
     /**
      * Mock plugin for testing
      */
@@ -0,0 +1,64 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginMemoryReport class
+ */
+public class PluginMemoryReportTest {
+
+    private static final String METASPACE = String.join("\n",
+            "Usage per loader:",
+            "",
+            "   1: CLD 0x00007f46d0505950: <hidden class>, loaded by \"<bootstrap>\", 1 class",
+            "  Non-Class:    2 chunks,      2.00 KB capacity,    2.00 KB (100%) committed,     1.34 KB ( 67%) used",
+            "       Both:    3 chunks,      3.00 KB capacity,    3.00 KB (100%) committed,     1.84 KB ( 61%) used",
+            "",
+            "  30: CLD 0x00007fa2b04114d0: \"plugin:keep-alive.jar#2\" instance of "
+                + "com.aldrineeinsteen.fun.options.helper.PluginClassLoader, 14 classes",
+            "  Non-Class:    2 chunks,      8.00 KB capacity,    8.00 KB (100%) committed,     6.62 KB ( 83%) used",
+            "      Class:    1 chunk,       2.00 KB capacity,    2.00 KB (100%) committed,   784 bytes ( 38%) used",
+            "       Both:    3 chunks,     10.00 KB capacity,   10.00 KB (100%) committed,     7.50 KB ( 74%) used",
+            "",
+            "Total Usage - 31 loaders, 3465 classes:",
+            "  Non-Class:  100 chunks,     12.00 MB capacity,   12.00 MB (100%) committed,    11.00 MB ( 91%) used",
+            "");
+
+    @Test
+    void testParseMetaspace_NamedLoadersOnly() {
+        Map<String, long[]> loaders = PluginMemoryReport.parseMetaspace(METASPACE);
+
+        assertEquals(1, loaders.size());
+        long[] plugin = loaders.get("plugin:keep-alive.jar#2");
+        assertEquals(14, plugin[0]);
+        assertEquals(7680, plugin[1]);
+    }
+
+    @Test
+    void testParseMetaspace_NoOutput() {
+        assertTrue(PluginMemoryReport.parseMetaspace("").isEmpty());
+    }
+
+    @Test
+    void testCollect_ListsLivePluginLoaders(@TempDir Path tempDir) throws Exception {
+        try (PluginClassLoader loader = PluginClassLoader.open(
+                PluginClassLoaderTest.writeJar(tempDir.resolve("plugin.jar")))) {
+            loader.loadClass(PluginClassLoaderTest.IsolatedPlugin.class.getName());
+
+            PluginMemoryReport report = PluginMemoryReport.collect(Map.of());
+
+            PluginMemoryReport.Row row = report.getRows().stream()
+                    .filter(candidate -> candidate.getLoader().equals(loader.getName()))
+                    .findFirst().orElseThrow();
+            assertEquals("(unused)", row.getPlugin());
+            assertTrue(row.getClasses() >= 1);
+            assertTrue(report.toTable().contains(loader.getName()));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.UtilityTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDefinition;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginServiceDiscovery class
+ */
+public class PluginServiceDiscoveryTest {
+
+    @PluginDefinition(
+            name = "Annotated",
+            description = "Annotated plugin",
+            options = @PluginDefinition.Option(shortOpt = "an", longOpt = "annotated", description = "Run it"),
+            params = @PluginDefinition.Option(shortOpt = "at", longOpt = "annotated-time", hasArguments = true),
+            shortcuts = @PluginDefinition.Shortcut(key = "CTRL + ALT + A", action = "annotated"),
+            dashboard = @PluginDefinition.Dashboard(position = 30, column = 2))
+    public static class AnnotatedPlugin extends PluginTemplate {
+        @Override
+        public void executeAction(String actionName) {
+        }
+    }
+
+    public static class PlainUtility extends UtilityTemplate {
+        @Override
+        protected void logStart() {
+        }
+
+        @Override
+        protected void runUtility() {
+        }
+    }
+
+    private static ClassLoader withServices(Path directory, String plugins, String utilities) throws Exception {
+        Path services = Files.createDirectories(directory.resolve("META-INF/services"));
+        Files.writeString(services.resolve(PluginTemplate.class.getName()), plugins);
+        Files.writeString(services.resolve(UtilityTemplate.class.getName()), utilities);
+        return new URLClassLoader(new URL[]{directory.toUri().toURL()},
+                PluginServiceDiscoveryTest.class.getClassLoader());
+    }
+
+    @Test
+    void testDiscover_ReadsAnnotationsOfProviders(@TempDir Path tempDir) throws Exception {
+        ClassLoader classLoader = withServices(tempDir,
+                AnnotatedPlugin.class.getName() + "\n", "# utilities\n" + PlainUtility.class.getName() + "\n");
+
+        List<PluginDescriptor> descriptors = new PluginServiceDiscovery().discover(classLoader);
+
+        assertEquals(2, descriptors.size());
+        PluginDescriptor annotated = descriptors.get(0);
+        assertEquals("Annotated", annotated.getName());
+        assertEquals(AnnotatedPlugin.class.getName(), annotated.getPluginClass());
+        assertEquals("Annotated plugin", annotated.getDescription());
+        assertEquals(List.of(new PluginDescriptor.OptionSpec("an", "annotated", "Run it", false, false)),
+                annotated.getOptions());
+        assertEquals(List.of(new PluginDescriptor.OptionSpec("at", "annotated-time", null, true, false)),
+                annotated.getParams());
+        assertEquals(List.of(new PluginDescriptor.ShortcutSpec("CTRL + ALT + A", "annotated")),
+                annotated.getShortcuts());
+        assertEquals(new PluginDescriptor.DashboardSpec(true, 30, 2, 1), annotated.getDashboard());
+
+        PluginDescriptor plain = descriptors.get(1);
+        assertEquals("PlainUtility", plain.getName());
+        assertEquals(PlainUtility.class.getName(), plain.getPluginClass());
+        assertTrue(plain.getOptions().isEmpty());
+        assertNull(plain.getDashboard());
+    }
+
+    @Test
+    void testDiscover_SkipsProvidersThatCannotBeLoaded(@TempDir Path tempDir) throws Exception {
+        ClassLoader classLoader = withServices(tempDir,
+                "com.example.MissingPlugin\n" + AnnotatedPlugin.class.getName() + "\n", "");
+
+        List<PluginDescriptor> descriptors = new PluginServiceDiscovery().discover(classLoader);
+
+        assertEquals(1, descriptors.size());
+        assertEquals(AnnotatedPlugin.class.getName(), descriptors.get(0).getPluginClass());
+    }
+
+    @Test
+    void testDiscover_NoProviders(@TempDir Path tempDir) throws Exception {
+        assertTrue(new PluginServiceDiscovery().discover(withServices(tempDir, "", "")).isEmpty());
+    }
+}
@@ -0,0 +1,228 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.aldrineeinsteen.fun.options.PluginAction;
+import com.aldrineeinsteen.fun.options.PluginTemplate;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorException;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorYamlReader;
+import org.apache.commons.cli.Options;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PluginYamlParser class
+ */
+public class PluginYamlParserTest {
+
+    private static final String VALID = String.join("\n",
+            "name: Sample",
+            "pluginClass: com.example.SamplePlugin",
+            "description: Sample plugin",
+            "option:",
+            "  - shortOpt: s",
+            "    name: Sample",
+            "    longOpt: sample",
+            "    hasArguments: false",
+            "params:",
+            "  - shortOpt: e",
+            "    longOpt: end-time",
+            "    description: End time",
+            "    hasArguments: true",
+            "shortcuts:",
+            "  - key: \"CTRL + SHIFT + S\"",
+            "    action: \"sample\"",
+            "dashboard:",
+            "  enabled: true",
+            "  position: 10",
+            "  column: 2",
+            "  row: 1",
+            "");
+
+    private PluginYamlParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new PluginYamlParser(new PluginLoader(), new Options(), new HashMap<>(), new HashMap<>());
+    }
+
+    private static PluginDescriptorYamlReader read(String yaml) throws PluginDescriptorException {
+        PluginDescriptorYamlReader reader = new PluginDescriptorYamlReader();
+        reader.read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)), "plugin.yaml");
+        return reader;
+    }
+
+    @Test
+    void testReadDescriptor_ValidFile(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("plugin.yaml");
+        Files.writeString(file, VALID);
+
+        PluginDescriptor descriptor = parser.readDescriptor(file.toUri().toURL());
+
+        assertNotNull(descriptor);
+        assertEquals("Sample", descriptor.getName());
+        assertEquals("com.example.SamplePlugin", descriptor.getPluginClass());
+        assertEquals(List.of(new PluginDescriptor.OptionSpec("s", "sample", null, false, false)),
+                descriptor.getOptions());
+        assertEquals(List.of(new PluginDescriptor.OptionSpec("e", "end-time", "End time", true, false)),
+                descriptor.getParams());
+        assertEquals(List.of(new PluginDescriptor.ShortcutSpec("CTRL + SHIFT + S", "sample")),
+                descriptor.getShortcuts());
+        assertEquals(new PluginDescriptor.DashboardSpec(true, 10, 2, 1), descriptor.getDashboard());
+    }
+
+    @Test
+    void testReadDescriptor_UnreadableReturnsNull(@TempDir Path tempDir) throws Exception {
+        Path file = tempDir.resolve("plugin.yaml");
+        Files.writeString(file, "- just\n- a list\n");
+
+        assertNull(parser.readDescriptor(file.toUri().toURL()));
+        assertNull(parser.readDescriptor(tempDir.resolve("missing.yaml").toUri().toURL()));
+    }
+
+    @Test
+    void testReader_ValidFileHasNoWarnings() throws Exception {
+        assertTrue(read(VALID).getWarnings().isEmpty());
+    }
+
+    @Test
+    void testReader_WarningsCarryLineAndColumn() throws Exception {
+        List<String> warnings = read(String.join("\n",
+                "name: Sample",
+                "version: 2",
+                "option:",
+                "  - shortOpt: s",
+                "    hasArguments: maybe",
+                "  - longOpt: missing-short",
+                "dashboard:",
+                "  position: first",
+                "")).getWarnings();
+
+        assertEquals(List.of(
+                "plugin.yaml:2:1: Unknown key 'version' in plugin descriptor",
+                "plugin.yaml:5:19: 'hasArguments' must be a boolean, found 'maybe'",
+                "plugin.yaml:4:5: Plugin option entry missing required longOpt",
+                "plugin.yaml:6:5: Plugin option entry missing required shortOpt",
+                "plugin.yaml:8:13: Dashboard position must be an integer, using 100"), warnings);
+    }
+
+    @Test
+    void testReader_WrongShapesAreSkipped() throws Exception {
+        PluginDescriptorYamlReader reader = new PluginDescriptorYamlReader();
+        PluginDescriptor descriptor = reader.read(new ByteArrayInputStream(String.join("\n",
+                "name: Sample",
+                "option: not-a-list",
+                "shortcuts:",
+                "  - just-a-string",
+                "  - key: \"CTRL + A\"",
+                "    action: \"\"",
+                "dashboard: [1, 2]",
+                "").getBytes(StandardCharsets.UTF_8)), "plugin.yaml");
+
+        assertEquals("Sample", descriptor.getName());
+        assertTrue(descriptor.getOptions().isEmpty());
+        assertTrue(descriptor.getShortcuts().isEmpty());
+        assertNull(descriptor.getDashboard());
+        assertEquals(List.of(
+                "plugin.yaml:2:9: 'option' must be a list, found 'not-a-list'",
+                "plugin.yaml:4:5: Invalid shortcut entry, expected a map but found 'just-a-string'",
+                "plugin.yaml:5:5: Shortcut missing action, key: CTRL + A",
+                "plugin.yaml:7:12: 'dashboard' must be a map, found a list"), reader.getWarnings());
+    }
+
+    @Test
+    void testReader_ShortcutRepeatPolicy() throws Exception {
+        PluginDescriptorYamlReader reader = new PluginDescriptorYamlReader();
+        PluginDescriptor descriptor = reader.read(new ByteArrayInputStream(String.join("\n",
+                "name: Sample",
+                "shortcuts:",
+                "  - key: \"CTRL + A\"",
+                "    action: \"a\"",
+                "    repeat: Rate",
+                "    interval: 250",
+                "  - key: \"CTRL + B\"",
+                "    action: \"b\"",
+                "    repeat: sometimes",
+                "    interval: -5",
+                "").getBytes(StandardCharsets.UTF_8)), "plugin.yaml");
+
+        assertEquals(List.of(
+                new PluginDescriptor.ShortcutSpec("CTRL + A", "a", "rate", 250),
+                new PluginDescriptor.ShortcutSpec("CTRL + B", "b", null, null)), descriptor.getShortcuts());
+        assertEquals(List.of(
+                "plugin.yaml:9:13: Shortcut repeat must be one of [leading, trailing, rate, always], using the default",
+                "plugin.yaml:10:15: Shortcut interval must be positive, using the default"), reader.getWarnings());
+    }
+
+    @Test
+    void testReader_InvalidDocumentsFail() {
+        PluginDescriptorException notMapping = assertThrows(PluginDescriptorException.class,
+                () -> read("just a string\n"));
+        assertTrue(notMapping.getMessage().startsWith("plugin.yaml:1:1: "));
+
+        assertThrows(PluginDescriptorException.class, () -> read("name: [unclosed\n"));
+        assertThrows(PluginDescriptorException.class, () -> read("name: a\n---\nname: b\n"));
+        assertThrows(PluginDescriptorException.class, () -> read(""));
+    }
+
+    @Test
+    void testCommitDescriptor_BindsActionsAndSkipsUnknownOnes() throws Exception {
+        assertEquals(Map.of("CTRL + SHIFT + P", "ping"), commitShortcuts(AnnotatedPlugin.class));
+    }
+
+    @Test
+    void testCommitDescriptor_KeepsUnknownActionsForExecuteActionOverrides() throws Exception {
+        Map<String, String> bound = commitShortcuts(StringActionPlugin.class);
+
+        assertEquals(2, bound.size());
+        assertNull(bound.get("CTRL + SHIFT + M"), "Left to executeAction");
+    }
+
+    /**
+     * @return the registered key combinations with the name of the bound action, or null when none was bound
+     */
+    private static Map<String, String> commitShortcuts(Class<? extends PluginTemplate> pluginClass) throws Exception {
+        String yaml = String.join("\n",
+                "name: Annotated",
+                "pluginClass: " + pluginClass.getName(),
+                "shortcuts:",
+                "  - key: \"CTRL + SHIFT + P\"",
+                "    action: ping",
+                "  - key: \"CTRL + SHIFT + M\"",
+                "    action: missing",
+                "");
+        PluginDescriptor descriptor = new PluginDescriptorYamlReader()
+                .read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)), "plugin.yaml");
+        PluginLoader loader = new PluginLoader();
+        loader.registerHandle(new PluginHandle(descriptor, pluginClass, loader));
+        Map<String, PluginMetadata.ShortcutAction> shortcuts = new HashMap<>();
+
+        new PluginYamlParser(loader, new Options(), shortcuts, new HashMap<>()).commitDescriptor(descriptor);
+
+        Map<String, String> bound = new HashMap<>();
+        shortcuts.forEach((key, shortcut) -> bound.put(key, shortcut.getHandle() != null ? shortcut.getAction() : null));
+        return bound;
+    }
+
+    public static class AnnotatedPlugin extends PluginTemplate {
+        @PluginAction
+        public void ping() {
+        }
+    }
+
+    public static class StringActionPlugin extends AnnotatedPlugin {
+        @Override
+        public void executeAction(String actionName) {
+        }
+    }
+}
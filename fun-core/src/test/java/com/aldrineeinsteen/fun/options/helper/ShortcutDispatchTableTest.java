@@ -0,0 +1,110 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.github.kwhat.jnativehook.NativeInputEvent;
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShortcutDispatchTable class
+ */
+public class ShortcutDispatchTableTest {
+
+    private static final int CTRL_SHIFT_ALT =
+            NativeInputEvent.CTRL_L_MASK | NativeInputEvent.SHIFT_L_MASK | NativeInputEvent.ALT_L_MASK;
+
+    private static PluginMetadata.ShortcutAction shortcut(String keyCombination, String action) {
+        return new PluginMetadata.ShortcutAction(action, "com.example.Plugin", keyCombination);
+    }
+
+    private static ShortcutDispatchTable tableOf(PluginMetadata.ShortcutAction... shortcuts) {
+        Map<String, PluginMetadata.ShortcutAction> map = new LinkedHashMap<>();
+        for (PluginMetadata.ShortcutAction shortcut : shortcuts) {
+            map.put(shortcut.getKeyCombination(), shortcut);
+        }
+        return ShortcutDispatchTable.compile(map);
+    }
+
+    @Test
+    void testLookup_MatchesEitherSideModifiers() {
+        PluginMetadata.ShortcutAction sign = shortcut("CTRL + SHIFT + ALT + S", "getRandomSignature");
+        ShortcutDispatchTable table = tableOf(sign, shortcut("CTRL + F5", "refresh"));
+
+        assertSame(sign, table.lookup(CTRL_SHIFT_ALT, NativeKeyEvent.VC_S));
+        assertSame(sign, table.lookup(NativeInputEvent.CTRL_R_MASK | NativeInputEvent.SHIFT_R_MASK
+                | NativeInputEvent.ALT_R_MASK | NativeInputEvent.NUM_LOCK_MASK, NativeKeyEvent.VC_S));
+        assertEquals("refresh", table.lookup(NativeInputEvent.CTRL_L_MASK, NativeKeyEvent.VC_F5).getAction());
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testLookup_RejectsOtherKeys() {
+        ShortcutDispatchTable table = tableOf(shortcut("CTRL + SHIFT + ALT + S", "getRandomSignature"));
+
+        assertNull(table.lookup(0, NativeKeyEvent.VC_S));
+        assertNull(table.lookup(NativeInputEvent.SHIFT_L_MASK, NativeKeyEvent.VC_S));
+        assertNull(table.lookup(CTRL_SHIFT_ALT, NativeKeyEvent.VC_D));
+        assertNull(table.lookup(CTRL_SHIFT_ALT | NativeInputEvent.META_L_MASK, NativeKeyEvent.VC_S));
+        assertNull(ShortcutDispatchTable.EMPTY.lookup(CTRL_SHIFT_ALT, NativeKeyEvent.VC_S));
+    }
+
+    @Test
+    void testParse_KeyNamesAndModifierOrder() {
+        assertEquals(ShortcutDispatchTable.parse("CTRL + SHIFT + PAGE UP"),
+                ShortcutDispatchTable.parse("shift+ctrl+Page Up"));
+        assertEquals((ShortcutDispatchTable.ALT << 16) | NativeKeyEvent.VC_ESCAPE,
+                ShortcutDispatchTable.parse("ALT + ESC"));
+        assertEquals(NativeKeyEvent.VC_PRINTSCREEN, ShortcutDispatchTable.parse("PRINT SCREEN"));
+        assertEquals(-1, ShortcutDispatchTable.parse("CTRL + SHIFT"));
+        assertEquals(-1, ShortcutDispatchTable.parse("CTRL + S + D"));
+        assertEquals(-1, ShortcutDispatchTable.parse("CTRL + NOT_A_KEY"));
+    }
+
+    @Test
+    void testCompile_SkipsUnknownAndDuplicateCombinations() {
+        PluginMetadata.ShortcutAction first = shortcut("CTRL + ALT + T", "first");
+        ShortcutDispatchTable table = tableOf(first, shortcut("ALT + CTRL + T", "second"),
+                shortcut("CTRL + HYPER", "unknown"));
+
+        assertEquals(1, table.size());
+        assertSame(first, table.lookup(NativeInputEvent.CTRL_L_MASK | NativeInputEvent.ALT_L_MASK,
+                NativeKeyEvent.VC_T));
+    }
+
+    @Test
+    void testCompile_SequencesShareTheirPrefix() {
+        ShortcutDispatchTable table = tableOf(shortcut("CTRL + K, S", "save"), shortcut("CTRL + K, CTRL + O", "open"));
+
+        int prefix = table.advance(ShortcutDispatchTable.ROOT, NativeInputEvent.CTRL_L_MASK, NativeKeyEvent.VC_K);
+        assertTrue(prefix > ShortcutDispatchTable.ROOT);
+        assertTrue(table.isPrefix(prefix));
+        assertNull(table.actionAt(prefix));
+        assertEquals("save", table.actionAt(table.advance(prefix, 0, NativeKeyEvent.VC_S)).getAction());
+        assertEquals("open", table.actionAt(
+                table.advance(prefix, NativeInputEvent.CTRL_R_MASK, NativeKeyEvent.VC_O)).getAction());
+        assertEquals(-1, table.advance(prefix, 0, NativeKeyEvent.VC_O));
+        assertNull(table.lookup(NativeInputEvent.CTRL_L_MASK, NativeKeyEvent.VC_K), "A prefix is not a shortcut");
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void testCompile_ShorterCombinationWinsOverSequenceStartingWithIt() {
+        PluginMetadata.ShortcutAction single = shortcut("CTRL + K", "single");
+        ShortcutDispatchTable table = tableOf(shortcut("CTRL + K, S", "sequence"), single);
+
+        assertSame(single, table.lookup(NativeInputEvent.CTRL_L_MASK, NativeKeyEvent.VC_K));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testParseSequence() {
+        assertArrayEquals(new int[]{(ShortcutDispatchTable.CTRL << 16) | NativeKeyEvent.VC_K, NativeKeyEvent.VC_S},
+                ShortcutDispatchTable.parseSequence("CTRL + K, S"));
+        assertNull(ShortcutDispatchTable.parseSequence("CTRL + K, NOT_A_KEY"));
+        assertNull(ShortcutDispatchTable.parseSequence("CTRL + K,"));
+    }
+}
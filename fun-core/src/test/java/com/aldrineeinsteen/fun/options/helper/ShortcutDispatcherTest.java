@@ -0,0 +1,170 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShortcutDispatcher class
+ */
+public class ShortcutDispatcherTest {
+
+    private ShortcutDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    private static PluginMetadata.ShortcutAction action(String plugin, String action) {
+        return new PluginMetadata.ShortcutAction(action, plugin, "CTRL + " + action);
+    }
+
+    private ShortcutDispatcher start(Consumer<PluginMetadata.ShortcutAction> executor, int backlog, long timeoutMillis) {
+        dispatcher = new ShortcutDispatcher(executor, 4, backlog, timeoutMillis);
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    @Test
+    void testSubmit_RunsActionsOfAPluginInOrder() throws InterruptedException {
+        List<String> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        start(action -> {
+            executed.add(action.getAction());
+            done.countDown();
+        }, 8, 1000);
+
+        assertTrue(dispatcher.submit(action("com.example.A", "1")));
+        assertTrue(dispatcher.submit(action("com.example.A", "2")));
+        assertTrue(dispatcher.submit(action("com.example.A", "3")));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2", "3"), executed);
+    }
+
+    @Test
+    void testSubmit_ConcurrentProducersLoseNoActions() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 500;
+        CountDownLatch done = new CountDownLatch(producers * perProducer);
+        dispatcher = new ShortcutDispatcher(action -> done.countDown(), producers * perProducer,
+            producers * perProducer, 0);
+        dispatcher.start();
+
+        // As when a re-registered hook thread delivers while the previous one finishes an event
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String plugin = "com.example.P" + p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    dispatcher.submit(action(plugin, Integer.toString(i)));
+                }
+            }));
+        }
+        go.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, dispatcher.getDroppedCount());
+        assertEquals(producers * perProducer, dispatcher.getDispatchedCount());
+    }
+
+    @Test
+    void testSubmit_SlowPluginDoesNotHoldUpOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch fastDone = new CountDownLatch(1);
+        start(action -> {
+            if (action.getPlugin().endsWith("Slow")) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                fastDone.countDown();
+            }
+        }, 8, 0);
+
+        dispatcher.submit(action("com.example.Slow", "wait"));
+        dispatcher.submit(action("com.example.Fast", "go"));
+
+        assertTrue(fastDone.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void testTimeout_InterruptsLongRunningAction() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        start(action -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }, 8, 50);
+
+        dispatcher.submit(action("com.example.A", "hang"));
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1, dispatcher.getTimedOutCount());
+    }
+
+    @Test
+    void testOverflow_CountsDroppedActionsWithoutBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        start(action -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1, 0);
+
+        dispatcher.submit(action("com.example.A", "running"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // One waits in the backlog; the rest overflow it
+        for (int i = 0; i < 3; i++) {
+            dispatcher.submit(action("com.example.A", "queued" + i));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.getDroppedCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, dispatcher.getDroppedCount());
+        assertEquals(2, dispatcher.getDispatchedCount());
+        release.countDown();
+    }
+
+    @Test
+    void testSubmit_QueueFullWhenNotStarted() {
+        dispatcher = new ShortcutDispatcher(action -> { }, 4, 8, 0);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(dispatcher.submit(action("com.example.A", String.valueOf(i))));
+        }
+        assertFalse(dispatcher.submit(action("com.example.A", "overflow")));
+        assertEquals(1, dispatcher.getDroppedCount());
+    }
+}
@@ -0,0 +1,69 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShortcutLatency class
+ */
+public class ShortcutLatencyTest {
+
+    @BeforeEach
+    void setUp() {
+        ShortcutLatency.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShortcutLatency.reset();
+    }
+
+    @Test
+    void testRecordDelivery_IgnoresEventTimesFromAnotherClock() {
+        ShortcutLatency.recordDelivery(1_000, 1_003);
+        ShortcutLatency.recordDelivery(5_000, 1_003);
+        ShortcutLatency.recordDelivery(123, System.currentTimeMillis());
+
+        LatencyHistogram.Snapshot delivery = ShortcutLatency.snapshot(ShortcutLatency.Stage.DELIVERY);
+        assertEquals(1, delivery.getCount());
+        assertEquals(3_000_000, delivery.getMax());
+    }
+
+    @Test
+    void testReport_TableAndJson() {
+        ShortcutLatency.record(ShortcutLatency.Stage.MATCH, 2_000);
+        ShortcutLatency.record(ShortcutLatency.Stage.TOTAL, 40_000_000);
+        ShortcutLatency.record(ShortcutLatency.Stage.TOTAL, 150_000_000);
+
+        Map<ShortcutLatency.Stage, LatencyHistogram.Snapshot> snapshots = ShortcutLatency.snapshots();
+        String table = ShortcutLatency.toTable(snapshots, 100_000_000);
+        assertTrue(table.contains("Match"));
+        assertTrue(table.contains("2.0 µs"));
+        assertTrue(table.contains("150.0 ms"));
+        assertTrue(table.contains("Budget: 50.0% of 2 ≤ 100.0 ms"), table);
+
+        String json = ShortcutLatency.toJson(snapshots, 100_000_000);
+        assertTrue(json.contains("\"withinBudget\": 1"));
+        assertTrue(json.contains("{\"stage\": \"total\", \"count\": 2"));
+        assertTrue(json.contains("\"maxNanos\": 150000000}"));
+    }
+
+    @Test
+    void testRenderer_ShowsMeasuredStagesOnly() {
+        ShortcutLatencyRenderer renderer = new ShortcutLatencyRenderer();
+        assertEquals(Map.of("Budget", "No shortcuts measured yet"), renderer.getDashboardData());
+
+        ShortcutLatency.record(ShortcutLatency.Stage.ACTION, 500);
+        ShortcutLatency.record(ShortcutLatency.Stage.TOTAL, 1_500_000);
+
+        Map<String, String> data = renderer.getDashboardData();
+        assertEquals("p50 500 ns  p99 500 ns", data.get("Action"));
+        assertFalse(data.containsKey("Queue"));
+        assertTrue(data.get("Budget").startsWith("100.0% of 1"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShortcutRepeatFilter class
+ */
+public class ShortcutRepeatFilterTest {
+
+    private static final int KEY_S = 31;
+    private static final int KEY_T = 20;
+    private static final long MS = 1_000_000L;
+
+    private final ShortcutRepeatFilter filter = new ShortcutRepeatFilter();
+
+    private static PluginMetadata.ShortcutAction shortcut(ShortcutRepeatPolicy policy, long intervalMillis) {
+        return new PluginMetadata.ShortcutAction("action", "com.example.Plugin", "CTRL + S", policy, intervalMillis);
+    }
+
+    @Test
+    void testLeading_RunsOncePerHold() {
+        PluginMetadata.ShortcutAction action = shortcut(ShortcutRepeatPolicy.LEADING, 500);
+
+        assertSame(action, filter.onPressed(action, KEY_S, 0));
+        for (int i = 1; i <= 20; i++) {
+            assertNull(filter.onPressed(action, KEY_S, i * 33 * MS), "auto-repeat " + i);
+        }
+        assertNull(filter.onReleased(KEY_S));
+        assertSame(action, filter.onPressed(action, KEY_S, 700 * MS), "A new press after the release runs again");
+        assertEquals(20, filter.getSuppressedCount());
+    }
+
+    @Test
+    void testTrailing_RunsOnRelease() {
+        PluginMetadata.ShortcutAction action = shortcut(ShortcutRepeatPolicy.TRAILING, 500);
+
+        assertNull(filter.onPressed(action, KEY_S, 0));
+        assertNull(filter.onPressed(action, KEY_S, 33 * MS));
+        assertSame(action, filter.onReleased(KEY_S));
+        assertNull(filter.onReleased(KEY_S), "A release is only paired once");
+    }
+
+    @Test
+    void testRate_LimitsRepeatsToTheInterval() {
+        PluginMetadata.ShortcutAction action = shortcut(ShortcutRepeatPolicy.RATE, 100);
+
+        int runs = 0;
+        for (int i = 0; i < 31; i++) {
+            if (filter.onPressed(action, KEY_S, i * 10 * MS) != null) {
+                runs++;
+            }
+        }
+        assertEquals(4, runs, "The first press and then one per 100 ms over 300 ms");
+    }
+
+    @Test
+    void testAlways_RunsEveryRepeat() {
+        PluginMetadata.ShortcutAction action = shortcut(ShortcutRepeatPolicy.ALWAYS, 500);
+
+        assertSame(action, filter.onPressed(action, KEY_S, 0));
+        assertSame(action, filter.onPressed(action, KEY_S, 33 * MS));
+    }
+
+    @Test
+    void testMissedRelease_StaleHoldCountsAsNewPress() {
+        PluginMetadata.ShortcutAction action = shortcut(ShortcutRepeatPolicy.LEADING, 500);
+
+        assertSame(action, filter.onPressed(action, KEY_S, 0));
+        long later = (ShortcutRepeatFilter.STALE_HOLD_MILLIS + 1) * MS;
+        assertSame(action, filter.onPressed(action, KEY_S, later));
+    }
+
+    @Test
+    void testKeysAreTrackedSeparately() {
+        PluginMetadata.ShortcutAction first = shortcut(ShortcutRepeatPolicy.LEADING, 500);
+        PluginMetadata.ShortcutAction second = shortcut(ShortcutRepeatPolicy.LEADING, 500);
+
+        assertSame(first, filter.onPressed(first, KEY_S, 0));
+        assertSame(second, filter.onPressed(second, KEY_T, MS));
+        assertNull(filter.onPressed(first, KEY_S, 2 * MS));
+        filter.onReleased(KEY_T);
+        assertNull(filter.onPressed(first, KEY_S, 3 * MS), "Releasing another key does not end the hold");
+    }
+}
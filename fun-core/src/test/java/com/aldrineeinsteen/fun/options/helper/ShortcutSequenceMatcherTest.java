@@ -0,0 +1,77 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import com.github.kwhat.jnativehook.NativeInputEvent;
+import com.github.kwhat.jnativehook.keyboard.NativeKeyEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ShortcutSequenceMatcher class
+ */
+public class ShortcutSequenceMatcherTest {
+
+    private static final int CTRL = NativeInputEvent.CTRL_L_MASK;
+    private static final long MS = 1_000_000L;
+
+    private final ShortcutSequenceMatcher matcher = new ShortcutSequenceMatcher(1000);
+
+    private static ShortcutDispatchTable tableOf(String... keyCombinations) {
+        Map<String, PluginMetadata.ShortcutAction> map = new LinkedHashMap<>();
+        for (String keyCombination : keyCombinations) {
+            map.put(keyCombination, new PluginMetadata.ShortcutAction(keyCombination, "com.example.Plugin", keyCombination));
+        }
+        return ShortcutDispatchTable.compile(map);
+    }
+
+    @Test
+    void testSequence_CompletesOnLastStroke() {
+        ShortcutDispatchTable table = tableOf("CTRL + K, S", "CTRL + SHIFT + ALT + S");
+
+        assertNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_CONTROL, 0));
+        assertNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_K, MS));
+        assertTrue(matcher.isInSequence());
+        assertEquals("CTRL + K, S", matcher.onKeyPressed(table, 0, NativeKeyEvent.VC_S, 2 * MS).getAction());
+        assertFalse(matcher.isInSequence());
+        assertNull(matcher.onKeyPressed(table, 0, NativeKeyEvent.VC_S, 3 * MS), "S alone is not a shortcut");
+    }
+
+    @Test
+    void testSequence_ModifierPressesDoNotBreakIt() {
+        ShortcutDispatchTable table = tableOf("CTRL + K, CTRL + O");
+
+        assertNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_K, 0));
+        assertNull(matcher.onKeyPressed(table, 0, NativeKeyEvent.VC_SHIFT, MS));
+        assertNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_CONTROL, 2 * MS));
+        assertNotNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_O, 3 * MS));
+    }
+
+    @Test
+    void testSequence_TimesOut() {
+        ShortcutDispatchTable table = tableOf("CTRL + K, S");
+
+        assertNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_K, 0));
+        assertNull(matcher.onKeyPressed(table, 0, NativeKeyEvent.VC_S, 1001 * MS));
+        assertFalse(matcher.isInSequence());
+    }
+
+    @Test
+    void testSequence_BrokenSequenceLetsTheKeyStartAnother() {
+        ShortcutDispatchTable table = tableOf("CTRL + K, S", "CTRL + J");
+
+        assertNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_K, 0));
+        assertEquals("CTRL + J", matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_J, MS).getAction());
+        assertNull(matcher.onKeyPressed(table, 0, NativeKeyEvent.VC_S, 2 * MS));
+    }
+
+    @Test
+    void testNewTable_RestartsTheSequence() {
+        ShortcutDispatchTable table = tableOf("CTRL + K, S");
+
+        assertNull(matcher.onKeyPressed(table, CTRL, NativeKeyEvent.VC_K, 0));
+        assertNull(matcher.onKeyPressed(tableOf("CTRL + K, S"), 0, NativeKeyEvent.VC_S, MS));
+    }
+}
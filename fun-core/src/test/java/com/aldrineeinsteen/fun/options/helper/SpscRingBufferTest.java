@@ -0,0 +1,67 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpscRingBuffer class
+ */
+public class SpscRingBufferTest {
+
+    @Test
+    void testOfferAndPoll_FifoUntilFull() {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4), "A full buffer rejects instead of blocking");
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4), "A slot frees up once the consumer has read it");
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void testProducerAndConsumerThreads_KeepOrder() throws InterruptedException {
+        SpscRingBuffer<Integer> buffer = new SpscRingBuffer<>(8);
+        int count = 100_000;
+        List<Integer> received = new ArrayList<>(count);
+
+        Thread consumer = new Thread(() -> {
+            while (received.size() < count) {
+                Integer value = buffer.poll();
+                if (value == null) {
+                    Thread.yield();
+                } else {
+                    received.add(value);
+                }
+            }
+        });
+        consumer.start();
+        for (int i = 0; i < count; i++) {
+            while (!buffer.offer(i)) {
+                Thread.yield();
+            }
+        }
+        consumer.join(10_000);
+
+        assertEquals(count, received.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<>(0));
+    }
+}
@@ -0,0 +1,104 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StartupProfiler class
+ */
+public class StartupProfilerTest {
+
+    @BeforeEach
+    void setUp() {
+        StartupProfiler.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        StartupProfiler.reset();
+    }
+
+    @Test
+    void testIsRequested() {
+        assertTrue(StartupProfiler.isRequested(new String[]{"-k", "--startup-report"}));
+        assertTrue(StartupProfiler.isRequested(new String[]{"--startup-report=report.json"}));
+        assertFalse(StartupProfiler.isRequested(new String[]{"-k", "--dash"}));
+    }
+
+    @Test
+    void testDisabled_RecordsNothing() {
+        try (StartupProfiler.Span span = StartupProfiler.start("phase", "plugin")) {
+            span.plugin("other");
+        }
+
+        assertTrue(StartupProfiler.getRecords().isEmpty());
+    }
+
+    @Test
+    void testEnabled_RecordsWallCpuAndAllocation() {
+        StartupProfiler.enable();
+
+        try (StartupProfiler.Span span = StartupProfiler.start("plugin.parse", "plugin.yaml")) {
+            span.plugin("com.example.Plugin");
+            byte[][] garbage = new byte[64][];
+            for (int i = 0; i < garbage.length; i++) {
+                garbage[i] = new byte[1024];
+            }
+            assertNotNull(garbage[63]);
+        }
+
+        List<StartupProfiler.Record> records = StartupProfiler.getRecords();
+        assertEquals(1, records.size());
+        StartupProfiler.Record record = records.get(0);
+        assertEquals("plugin.parse", record.getPhase());
+        assertEquals("com.example.Plugin", record.getPlugin());
+        assertEquals(Thread.currentThread().getName(), record.getThread());
+        assertTrue(record.getWallNanos() > 0);
+        assertTrue(record.getCpuNanos() != 0);
+        assertTrue(record.getAllocatedBytes() == -1 || record.getAllocatedBytes() >= 64 * 1024);
+    }
+
+    @Test
+    void testToTable_SortedSlowestFirst() {
+        List<StartupProfiler.Record> sorted = List.of(
+                new StartupProfiler.Record("Main.main", null, "main", 5_000_000, 4_000_000, 2048),
+                new StartupProfiler.Record("plugin.instantiate", "com.example.Slow", "startup-1", 3_000_000, -1, -1));
+
+        String table = StartupProfiler.toTable(sorted);
+
+        assertTrue(table.indexOf("Main.main") < table.indexOf("plugin.instantiate"));
+        assertTrue(table.contains("Slow"));
+        assertTrue(table.contains("n/a"));
+        assertTrue(table.contains("5.00"));
+    }
+
+    @Test
+    void testToJson_EscapesValues() {
+        String json = StartupProfiler.toJson(List.of(
+                new StartupProfiler.Record("plugin.parse", "jar:file:/a \"b\".jar", "main", 1, 2, 3)));
+
+        assertTrue(json.contains("\"plugin\": \"jar:file:/a \\\"b\\\".jar\""));
+        assertTrue(json.contains("\"wallNanos\": 1, \"cpuNanos\": 2, \"allocatedBytes\": 3"));
+        assertEquals("{\n  \"phases\": []\n}", StartupProfiler.toJson(List.of()));
+    }
+
+    @Test
+    void testReport_WritesJsonToFile(@TempDir Path tempDir) throws Exception {
+        StartupProfiler.enable();
+        StartupProfiler.start("PluginRepository.init").close();
+        Path file = tempDir.resolve("startup.json");
+
+        StartupProfiler.report(file.toString());
+
+        String json = Files.readString(file);
+        assertTrue(json.contains("\"phase\": \"PluginRepository.init\""));
+    }
+}
@@ -0,0 +1,216 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TerminalFrame class
+ */
+public class TerminalFrameTest {
+
+    private static final String GREEN = "\033[32m";
+    private static final String RESET = "\033[0m";
+
+    private static String frame(String time, String status, int rows) {
+        StringBuilder frame = new StringBuilder("FunProject\n").append("Current Time: ").append(time).append('\n');
+        for (int i = 0; i < rows; i++) {
+            frame.append("│ ").append(GREEN).append("Status: ").append(RESET).append(status).append(" │\n");
+        }
+        return frame.toString();
+    }
+
+    @Test
+    void testUpdate_FirstFrameRepaintsInFull() {
+        TerminalFrame terminalFrame = new TerminalFrame(0);
+        String content = frame("10:00:00", "Active", 3);
+
+        String output = update(terminalFrame, content);
+
+        assertEquals(TerminalFrame.CLEAR_SCREEN + content, output);
+        assertEquals(TerminalFrame.utf8Length(output), terminalFrame.getLastFrameBytes());
+        assertEquals(terminalFrame.getLastFrameBytes(), terminalFrame.getLastFullFrameBytes());
+    }
+
+    @Test
+    void testUpdate_UnchangedFrameWritesNothing() {
+        TerminalFrame terminalFrame = new TerminalFrame(0);
+        update(terminalFrame, frame("10:00:00", "Active", 3));
+
+        assertEquals("", update(terminalFrame, frame("10:00:00", "Active", 3)));
+        assertEquals(0, terminalFrame.getLastFrameBytes());
+        assertEquals(2, terminalFrame.getFrames());
+    }
+
+    @Test
+    void testUpdate_WritesOnlyTheChangedCells() {
+        TerminalFrame terminalFrame = new TerminalFrame(0);
+        Screen screen = new Screen();
+        screen.write(update(terminalFrame, frame("10:00:00", "Active", 3)));
+
+        String next = frame("10:00:01", "Active", 3);
+        String output = update(terminalFrame, next);
+        screen.write(output);
+
+        assertEquals(render(next), screen.text());
+        assertTrue(terminalFrame.getLastFrameBytes() < 20, output);
+        assertTrue(terminalFrame.getLastFullFrameBytes() > 5 * terminalFrame.getLastFrameBytes());
+    }
+
+    @Test
+    void testUpdate_ReproducesStylesAndShrinkingFrames() {
+        TerminalFrame terminalFrame = new TerminalFrame(0);
+        Screen screen = new Screen();
+        String[] frames = {
+            frame("10:00:00", "Active", 3),
+            frame("10:00:01", "Idle", 3),
+            frame("10:00:02", "Stopped", 1),
+            "FunProject\n" + GREEN + "Current" + RESET + " Time: 10:00:03\n",
+            frame("10:00:04", "Active", 4),
+        };
+
+        for (String content : frames) {
+            screen.write(update(terminalFrame, content));
+            assertEquals(render(content), screen.text());
+            assertEquals("", screen.style, "Every frame leaves the style reset");
+        }
+    }
+
+    @Test
+    void testUpdate_PositionsWideAndCombiningCharacters() {
+        TerminalFrame terminalFrame = new TerminalFrame(0);
+        Screen screen = new Screen();
+        String[] frames = {
+            "状态: 正常 ✓ done\n",
+            "状态: 停止 ✗ done\n",
+            "状态: ok ✗ done\n",
+            "状態: ok ✗ done\n",
+            "Cafe\u0301 状態: ok ✗ done\n",
+            "Cafe\u0300 状態: ok ✗ done\n",
+        };
+
+        for (String content : frames) {
+            screen.write(update(terminalFrame, content));
+            assertEquals(render(content), screen.text(), content);
+        }
+    }
+
+    @Test
+    void testUpdate_RepaintsPeriodically() {
+        TerminalFrame terminalFrame = new TerminalFrame(2);
+
+        assertTrue(update(terminalFrame, frame("10:00:00", "Active", 1)).startsWith(TerminalFrame.CLEAR_SCREEN));
+        assertFalse(update(terminalFrame, frame("10:00:01", "Active", 1)).startsWith(TerminalFrame.CLEAR_SCREEN));
+        assertFalse(update(terminalFrame, frame("10:00:02", "Active", 1)).startsWith(TerminalFrame.CLEAR_SCREEN));
+        assertTrue(update(terminalFrame, frame("10:00:03", "Active", 1)).startsWith(TerminalFrame.CLEAR_SCREEN));
+
+        terminalFrame.invalidate();
+        assertTrue(update(terminalFrame, frame("10:00:03", "Active", 1)).startsWith(TerminalFrame.CLEAR_SCREEN));
+    }
+
+    private static String update(TerminalFrame terminalFrame, String content) {
+        return terminalFrame.update(content).toString();
+    }
+
+    private static String render(String content) {
+        Screen screen = new Screen();
+        screen.write(TerminalFrame.CLEAR_SCREEN + content);
+        return screen.text();
+    }
+
+    /**
+     * Just enough of a terminal to replay frames: cursor position, erase, SGR and newline. Each cell is shown as its
+     * style followed by its character.
+     */
+    private static final class Screen {
+        private final List<List<String>> rows = new ArrayList<>();
+        private int row;
+        private int column;
+        private String style = "";
+
+        void write(String output) {
+            int i = 0;
+            while (i < output.length()) {
+                char c = output.charAt(i);
+                if (c == '\033') {
+                    int end = i + 2;
+                    while (!Character.isLetter(output.charAt(end))) {
+                        end++;
+                    }
+                    control(output.substring(i + 2, end), output.charAt(end), output.substring(i, end + 1));
+                    i = end + 1;
+                } else if (c == '\n') {
+                    row++;
+                    column = 0;
+                    i++;
+                } else {
+                    int codePoint = output.codePointAt(i);
+                    int width = DisplayWidth.of(codePoint);
+                    List<String> line = line(row);
+                    while (line.size() < column + width) {
+                        line.add(" ");
+                    }
+                    String character = new String(Character.toChars(codePoint));
+                    if (width == 0) {
+                        line.set(column - 1, line.get(column - 1) + character);
+                    } else {
+                        line.set(column, style + character);
+                        if (width == 2) {
+                            line.set(column + 1, "");
+                        }
+                        column += width;
+                    }
+                    i += Character.charCount(codePoint);
+                }
+            }
+        }
+
+        private void control(String parameters, char command, String sequence) {
+            switch (command) {
+                case 'H' -> {
+                    String[] position = parameters.isEmpty() ? new String[]{"1", "1"} : parameters.split(";");
+                    row = Integer.parseInt(position[0]) - 1;
+                    column = Integer.parseInt(position[1]) - 1;
+                }
+                case 'J' -> {
+                    if (parameters.equals("2")) {
+                        rows.clear();
+                    } else {
+                        clearLine();
+                        while (rows.size() > row + 1) {
+                            rows.remove(rows.size() - 1);
+                        }
+                    }
+                }
+                case 'K' -> clearLine();
+                case 'm' -> style = parameters.isEmpty() || parameters.equals("0") ? "" : style + sequence;
+                default -> fail("Unexpected sequence " + parameters + command);
+            }
+        }
+
+        private void clearLine() {
+            List<String> line = line(row);
+            while (line.size() > column) {
+                line.remove(line.size() - 1);
+            }
+        }
+
+        private List<String> line(int index) {
+            while (rows.size() <= index) {
+                rows.add(new ArrayList<>());
+            }
+            return rows.get(index);
+        }
+
+        String text() {
+            StringBuilder text = new StringBuilder();
+            for (List<String> line : rows) {
+                text.append(String.join("", line)).append('\n');
+            }
+            return text.toString().replaceAll("\n+$", "") + "@" + row + "," + column;
+        }
+    }
+}
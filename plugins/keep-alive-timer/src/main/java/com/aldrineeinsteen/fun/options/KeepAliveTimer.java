@@ -1,21 +1,40 @@
 package com.aldrineeinsteen.fun.options;
 
+import com.aldrineeinsteen.fun.options.descriptor.PluginDefinition;
 import com.aldrineeinsteen.fun.options.helper.DisplayModeWrapper;
+import com.aldrineeinsteen.fun.options.helper.KeepAliveScheduler;
 import com.aldrineeinsteen.fun.options.helper.MonitorManager;
 import com.aldrineeinsteen.fun.options.helper.MousePositionTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.*;
+import java.time.Duration;
 import java.time.LocalTime;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 /**
  * Keep-alive timer utility with multi-monitor support.
  * Moves the mouse periodically to prevent system sleep/lock.
+ * Also registered as a service provider; the definition below mirrors plugin.yaml.
  */
+@PluginDefinition(
+    name = "KeepAliveTimer",
+    description = "Prevents system sleep by moving mouse pointer at regular intervals. Supports multi-monitor setups "
+        + "with intelligent pointer tracking and hotplug detection.",
+    options = @PluginDefinition.Option(shortOpt = "k", longOpt = "keep-alive", description = "Run the KeepAlive timer."),
+    params = {
+        @PluginDefinition.Option(shortOpt = "e", longOpt = "end-time", description = "End Time in format of HH:mm.",
+            hasArguments = true),
+        @PluginDefinition.Option(shortOpt = "sec", longOpt = "seconds", description = "Delay in seconds.",
+            hasArguments = true)
+    },
+    dashboard = @PluginDefinition.Dashboard(position = 10, column = 2, row = 1))
 public class KeepAliveTimer extends UtilityTemplate {
     private static KeepAliveTimer instance;
     private static final Logger logger = LoggerFactory.getLogger(KeepAliveTimer.class);
@@ -23,10 +42,13 @@ public class KeepAliveTimer extends UtilityTemplate {
 
     private int delayMilliseconds = DEFAULT_DELAY_MILLISECONDS;
     private LocalTime endTime;
+    // Only an end time given on the command line may mean tomorrow; past the default one the timer just stops
+    private boolean endTimeRollsOver = false;
     private final Robot robot;
     
     private final MonitorManager monitorManager;
     private final MousePositionTracker positionTracker;
+    private volatile KeepAliveScheduler scheduler;
 
     public KeepAliveTimer() throws AWTException {
         this(DEFAULT_DELAY_MILLISECONDS, LocalTime.parse("18:30"));
@@ -55,6 +77,35 @@ public class KeepAliveTimer extends UtilityTemplate {
         return instance;
     }
 
+    /**
+     * Bind the {@code end-time} (HH:mm) and {@code seconds} params; invalid values keep the defaults.
+     * An end time given here that has already passed today is tomorrow's, so {@code 01:00} runs through the night.
+     */
+    @Override
+    public void configure(Map<String, String> params) {
+        String end = params.get("end-time");
+        if (end != null) {
+            try {
+                endTime = LocalTime.parse(end.trim());
+                endTimeRollsOver = true;
+            } catch (DateTimeParseException e) {
+                logger.warn("Invalid end time '{}', expected HH:mm; keeping {}", end, endTime);
+            }
+        }
+        String seconds = params.get("seconds");
+        if (seconds != null) {
+            try {
+                int parsed = Integer.parseInt(seconds.trim());
+                if (parsed <= 0) {
+                    throw new NumberFormatException("not positive");
+                }
+                delayMilliseconds = parsed * 1000;
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid delay '{}' seconds; keeping {} s", seconds, delayMilliseconds / 1000);
+            }
+        }
+    }
+
     @Override
     public void runUtility() {
         if (robot == null || endTime == null || monitorManager.getCurrentDisplayMode() == null) {
@@ -71,30 +122,68 @@ public class KeepAliveTimer extends UtilityTemplate {
                 currentDisplay.getHeight(),
                 currentDisplay.getDevice().getIDstring());
 
-        while (LocalTime.now().isBefore(endTime)) {
-            robot.delay(delayMilliseconds);
+        // Registers the input hook if no other plugin needed it yet
+        ActivityClock.subscribe(getClass().getName());
+        KeepAliveScheduler schedule = new KeepAliveScheduler(Duration.ofMillis(delayMilliseconds), endTime,
+            endTimeRollsOver, ZonedDateTime.now(), System.nanoTime());
+        scheduler = schedule;
+        logger.info("Keeping alive every {} s until {}", delayMilliseconds / 1000, schedule.getEnd());
+
+        wakeUp(schedule);
+    }
+
+    /**
+     * Nudge if due, then schedule the next wakeup for the deadline instead of waking on a fixed cadence.
+     */
+    private void wakeUp(KeepAliveScheduler schedule) {
+        long now = System.nanoTime();
+        if (isStopRequested() || schedule.isFinished(ZonedDateTime.now(), now)) {
+            ActivityClock.unsubscribe(getClass().getName());
+            logger.info("Keep-alive finished: {} nudges, {} wakeups ({} per hour)", schedule.getNudges(),
+                schedule.getWakeups(), String.format(Locale.ROOT, "%.1f", schedule.getWakeupsPerHour(now)));
+            dashboardChanged();
+            return;
+        }
+        if (schedule.isNudgeDue(lastActivityNanos(), now)) {
             processMouseMovement();
+            schedule.nudged(now);
+            dashboardChanged();
         }
+        schedule(Duration.ofNanos(schedule.nanosUntilWakeup(lastActivityNanos(), now)), () -> {
+            schedule.wokeUp();
+            wakeUp(schedule);
+        });
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        ActivityClock.unsubscribe(getClass().getName());
+    }
+
+    /**
+     * @return the last keyboard or mouse input, or {@link Long#MIN_VALUE} without native input events
+     */
+    private static long lastActivityNanos() {
+        return ActivityClock.isAvailable() ? ActivityClock.lastActivityNanos() : Long.MIN_VALUE;
     }
 
     /**
      * Process a single mouse movement cycle
      */
     private void processMouseMovement() {
-        // Get current mouse position
+        if (ActivityClock.isAvailable()) {
+            processActivity();
+            return;
+        }
+
+        // Without native input events, guess from the pointer position whether the user moved the mouse
         PointerInfo pointerInfo = MouseInfo.getPointerInfo();
         Point currentPosition = pointerInfo.getLocation();
         
         // Update position tracking
         positionTracker.updatePosition(currentPosition);
-        
-        // Detect which monitor the mouse is currently on
-        DisplayModeWrapper detectedMonitor = monitorManager.detectCurrentMonitor(
-            currentPosition.x, currentPosition.y);
-        
-        if (detectedMonitor != null && !detectedMonitor.equals(monitorManager.getCurrentDisplayMode())) {
-            switchToMonitor(detectedMonitor);
-        }
+        followPointer(currentPosition);
         
         // If user moved the mouse, don't move it automatically this time
         if (positionTracker.checkAndResetUserMovement()) {
@@ -105,6 +194,28 @@ public class KeepAliveTimer extends UtilityTemplate {
         moveMouseAutomatically(currentPosition);
     }
 
+    /**
+     * Nudge the pointer; the scheduler only gets here when the native input listener saw no activity for a whole
+     * interval. The pointer is only read when a nudge is due.
+     */
+    private void processActivity() {
+        Point currentPosition = MouseInfo.getPointerInfo().getLocation();
+        followPointer(currentPosition);
+        moveMouseAutomatically(currentPosition);
+    }
+
+    /**
+     * Detect which monitor the mouse is currently on
+     */
+    private void followPointer(Point currentPosition) {
+        DisplayModeWrapper detectedMonitor = monitorManager.detectCurrentMonitor(
+            currentPosition.x, currentPosition.y);
+        
+        if (detectedMonitor != null && !detectedMonitor.equals(monitorManager.getCurrentDisplayMode())) {
+            switchToMonitor(detectedMonitor);
+        }
+    }
+
     /**
      * Switch to a different monitor
      */
@@ -134,7 +245,8 @@ public class KeepAliveTimer extends UtilityTemplate {
         int absoluteX = newRelativePosition.x + currentDisplay.getX();
         int absoluteY = newRelativePosition.y + currentDisplay.getY();
         
-        // Move the mouse
+        // Move the mouse; our own move is not user activity
+        ActivityClock.expectPointerAt(absoluteX, absoluteY);
         robot.mouseMove(absoluteX, absoluteY);
         
         // Store the position we moved to
@@ -152,6 +264,14 @@ public class KeepAliveTimer extends UtilityTemplate {
         logger.info("Utility: '{}' started successfully", KeepAliveTimer.class.getSimpleName());
     }
     
+    /**
+     * The remaining time is shown in minutes; nudges and finishing are signalled as they happen.
+     */
+    @Override
+    public long getDashboardRefreshMillis() {
+        return 10_000;
+    }
+
     /**
      * Get dashboard data for display
      */
@@ -171,15 +291,20 @@ public class KeepAliveTimer extends UtilityTemplate {
         data.put("Status", "\u001B[32m✓ Active\u001B[0m");
         
         // Show time remaining
-        LocalTime now = LocalTime.now();
-        if (now.isBefore(endTime)) {
-            long secondsRemaining = java.time.Duration.between(now, endTime).getSeconds();
+        KeepAliveScheduler schedule = scheduler;
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime end = schedule != null ? schedule.getEnd() : KeepAliveScheduler.endAfter(now, endTime, endTimeRollsOver);
+        if (now.isBefore(end)) {
+            long secondsRemaining = Duration.between(now, end).getSeconds();
             long hours = secondsRemaining / 3600;
             long minutes = (secondsRemaining % 3600) / 60;
             data.put("Time Remaining", String.format("%dh %dm", hours, minutes));
         } else {
             data.put("Time Remaining", "Completed");
         }
+        if (schedule != null) {
+            data.put("Wakeups/h", String.format(Locale.ROOT, "%.1f", schedule.getWakeupsPerHour(System.nanoTime())));
+        }
         
         return data;
     }
@@ -0,0 +1,111 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+
+/**
+ * Decides when the keep-alive timer has to wake up: one interval after the later of the last user activity and
+ * the last nudge, plus some timer slack, or at the end time, whichever comes first. Between those deadlines the
+ * timer sleeps, so it wakes at most once per interval whatever the user is doing, and not at all after the end time.
+ * <p>
+ * An end time that rolls over is its next occurrence after the start, so {@code 01:00} started at 22:00 ends the
+ * next morning. One that does not is taken as today's, so a start after it finishes straight away.
+ */
+public class KeepAliveScheduler {
+    /** The wakeup may come this fraction of the interval late, leaving the OS room to coalesce timers. */
+    static final int SLACK_DIVISOR = 10;
+    static final long MAX_SLACK_NANOS = 2_000_000_000L;
+
+    private final long intervalNanos;
+    private final long slackNanos;
+    private final ZonedDateTime end;
+    private final long startNanos;
+    private final long endNanos;
+    private long lastNudgeNanos;
+    private volatile long wakeups;
+    private volatile long nudges;
+
+    public KeepAliveScheduler(Duration interval, LocalTime endTime, ZonedDateTime now, long nowNanos) {
+        this(interval, endTime, true, now, nowNanos);
+    }
+
+    public KeepAliveScheduler(Duration interval, LocalTime endTime, boolean rollOver, ZonedDateTime now,
+                              long nowNanos) {
+        this.intervalNanos = interval.toNanos();
+        this.slackNanos = Math.min(intervalNanos / SLACK_DIVISOR, MAX_SLACK_NANOS);
+        this.end = endAfter(now, endTime, rollOver);
+        this.startNanos = nowNanos;
+        this.endNanos = nowNanos + Duration.between(now, end).toNanos();
+        this.lastNudgeNanos = nowNanos;
+    }
+
+    /**
+     * @return the next time of day {@code endTime} after {@code now}
+     */
+    public static ZonedDateTime endAfter(ZonedDateTime now, LocalTime endTime) {
+        return endAfter(now, endTime, true);
+    }
+
+    /**
+     * @return the time of day {@code endTime} today, or when it has passed and {@code rollOver} is set, tomorrow
+     */
+    public static ZonedDateTime endAfter(ZonedDateTime now, LocalTime endTime, boolean rollOver) {
+        ZonedDateTime today = now.with(endTime);
+        return today.isAfter(now) || !rollOver ? today : now.plusDays(1).with(endTime);
+    }
+
+    public ZonedDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Checked against both clocks: the monotonic one may stand still while a laptop is suspended.
+     */
+    public boolean isFinished(ZonedDateTime now, long nowNanos) {
+        return nowNanos - endNanos >= 0 || !now.isBefore(end);
+    }
+
+    /**
+     * @param lastActivityNanos the last user input, {@link Long#MIN_VALUE} when unknown
+     */
+    public boolean isNudgeDue(long lastActivityNanos, long nowNanos) {
+        return nowNanos - quietSince(lastActivityNanos) >= intervalNanos;
+    }
+
+    public void nudged(long nowNanos) {
+        lastNudgeNanos = nowNanos;
+        nudges++;
+    }
+
+    /**
+     * @return how long to sleep before the next wakeup, never negative
+     */
+    public long nanosUntilWakeup(long lastActivityNanos, long nowNanos) {
+        long nudgeAt = quietSince(lastActivityNanos) + intervalNanos + slackNanos;
+        long wakeAt = nudgeAt - endNanos < 0 ? nudgeAt : endNanos;
+        return Math.max(0, wakeAt - nowNanos);
+    }
+
+    public void wokeUp() {
+        wakeups++;
+    }
+
+    public long getWakeups() {
+        return wakeups;
+    }
+
+    public long getNudges() {
+        return nudges;
+    }
+
+    public double getWakeupsPerHour(long nowNanos) {
+        long elapsed = nowNanos - startNanos;
+        return elapsed <= 0 ? 0 : wakeups * 3_600_000_000_000.0 / elapsed;
+    }
+
+    private long quietSince(long lastActivityNanos) {
+        return lastActivityNanos != Long.MIN_VALUE && lastActivityNanos - lastNudgeNanos > 0
+            ? lastActivityNanos : lastNudgeNanos;
+    }
+}
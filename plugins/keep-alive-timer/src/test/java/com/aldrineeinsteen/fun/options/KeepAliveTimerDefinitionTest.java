@@ -0,0 +1,28 @@
+package com.aldrineeinsteen.fun.options;
+
+import com.aldrineeinsteen.fun.options.descriptor.PluginDefinitionReader;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptor;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorYamlReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the KeepAliveTimer plugin definition
+ */
+public class KeepAliveTimerDefinitionTest {
+
+    @Test
+    void testAnnotationMatchesPluginYaml() throws Exception {
+        // plugin.yaml wins when both are present, so the annotation is only read with service discovery alone
+        PluginDescriptor fromYaml;
+        try (InputStream in = KeepAliveTimer.class.getResourceAsStream("/plugin.yaml")) {
+            assertNotNull(in);
+            fromYaml = new PluginDescriptorYamlReader().read(in, "plugin.yaml");
+        }
+
+        assertEquals(fromYaml, PluginDefinitionReader.read(KeepAliveTimer.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.aldrineeinsteen.fun.options.helper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeepAliveSchedulerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final ZonedDateTime EVENING = ZonedDateTime.of(2025, 3, 14, 22, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void testEndAfterMidnight() {
+        assertEquals(EVENING.plusHours(3), KeepAliveScheduler.endAfter(EVENING, LocalTime.of(1, 0)));
+        assertEquals(EVENING.plusMinutes(30), KeepAliveScheduler.endAfter(EVENING, LocalTime.of(22, 30)));
+        assertEquals(EVENING.plusDays(1), KeepAliveScheduler.endAfter(EVENING, LocalTime.of(22, 0)));
+    }
+
+    @Test
+    void testPastEndTimeWithoutRollOverFinishesAtOnce() {
+        assertEquals(EVENING.withHour(18).withMinute(30),
+            KeepAliveScheduler.endAfter(EVENING, LocalTime.of(18, 30), false));
+        assertEquals(EVENING.plusMinutes(30), KeepAliveScheduler.endAfter(EVENING, LocalTime.of(22, 30), false));
+
+        KeepAliveScheduler scheduler = new KeepAliveScheduler(Duration.ofSeconds(30), LocalTime.of(18, 30), false,
+            EVENING, 0);
+        assertTrue(scheduler.isFinished(EVENING, 0));
+        assertEquals(0, scheduler.nanosUntilWakeup(Long.MIN_VALUE, 0));
+    }
+
+    @Test
+    void testNudgeDueOnlyAfterAQuietInterval() {
+        KeepAliveScheduler scheduler = new KeepAliveScheduler(Duration.ofSeconds(30), LocalTime.of(23, 0), EVENING, 0);
+
+        assertFalse(scheduler.isNudgeDue(Long.MIN_VALUE, 29 * SECOND));
+        assertTrue(scheduler.isNudgeDue(Long.MIN_VALUE, 30 * SECOND));
+        assertFalse(scheduler.isNudgeDue(20 * SECOND, 30 * SECOND), "The user was active 10 s ago");
+        assertTrue(scheduler.isNudgeDue(20 * SECOND, 50 * SECOND));
+
+        scheduler.nudged(50 * SECOND);
+        assertFalse(scheduler.isNudgeDue(20 * SECOND, 60 * SECOND));
+        assertEquals(1, scheduler.getNudges());
+    }
+
+    @Test
+    void testWakeupFollowsActivityWithSlackUntilTheEnd() {
+        KeepAliveScheduler scheduler = new KeepAliveScheduler(Duration.ofSeconds(30), LocalTime.of(22, 1), EVENING, 0);
+
+        assertEquals(32 * SECOND, scheduler.nanosUntilWakeup(Long.MIN_VALUE, 0));
+        assertEquals(27 * SECOND, scheduler.nanosUntilWakeup(15 * SECOND, 20 * SECOND));
+        assertEquals(10 * SECOND, scheduler.nanosUntilWakeup(45 * SECOND, 50 * SECOND), "Capped at the end time");
+        assertEquals(0, scheduler.nanosUntilWakeup(Long.MIN_VALUE, 90 * SECOND));
+    }
+
+    @Test
+    void testSlackIsATenthOfShortIntervals() {
+        KeepAliveScheduler scheduler = new KeepAliveScheduler(Duration.ofSeconds(10), LocalTime.of(23, 0), EVENING, 0);
+        assertEquals(11 * SECOND, scheduler.nanosUntilWakeup(Long.MIN_VALUE, 0));
+
+        scheduler = new KeepAliveScheduler(Duration.ofMinutes(10), LocalTime.of(23, 0), EVENING, 0);
+        assertEquals(600 * SECOND + KeepAliveScheduler.MAX_SLACK_NANOS, scheduler.nanosUntilWakeup(Long.MIN_VALUE, 0));
+    }
+
+    @Test
+    void testFinishedOnEitherClock() {
+        KeepAliveScheduler scheduler = new KeepAliveScheduler(Duration.ofSeconds(30), LocalTime.of(22, 1), EVENING, 0);
+
+        assertFalse(scheduler.isFinished(EVENING.plusSeconds(59), 59 * SECOND));
+        assertTrue(scheduler.isFinished(EVENING.plusSeconds(60), 59 * SECOND));
+        assertTrue(scheduler.isFinished(EVENING.plusSeconds(10), 60 * SECOND));
+    }
+
+    @Test
+    void testWakeupsPerHour() {
+        KeepAliveScheduler scheduler = new KeepAliveScheduler(Duration.ofSeconds(30), LocalTime.of(23, 0), EVENING, 0);
+        assertEquals(0, scheduler.getWakeupsPerHour(0));
+
+        for (int i = 0; i < 6; i++) {
+            scheduler.wokeUp();
+        }
+        assertEquals(6, scheduler.getWakeups());
+        assertEquals(36.0, scheduler.getWakeupsPerHour(600 * SECOND), 1e-9);
+    }
+}
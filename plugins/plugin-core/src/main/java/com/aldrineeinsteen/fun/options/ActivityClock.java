@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * When the user last typed or moved the mouse, published by the application's native input listener and read by
+ * plugins that react to idleness. Each source is a single volatile {@link System#nanoTime()} value, so publishing
+ * an event neither locks nor allocates.
+ * <p>
+ * Pointer moves made by a plugin itself, e.g. to keep the session awake, are announced with
+ * {@link #expectPointerAt(int, int)} and do not count as activity.
+ * <p>
+ * Input events are only published while some plugin has {@link #subscribe(String) subscribed}, or a started plugin
+ * has shortcuts, because listening takes a system-wide input hook.
+ */
+public final class ActivityClock {
+
+    /**
+     * A kind of user input.
+     */
+    public enum Source {
+        KEYBOARD,
+        MOUSE
+    }
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private static volatile boolean available;
+    private static volatile long lastKeyboardNanos = NONE;
+    private static volatile long lastMouseNanos = NONE;
+    // Packed x and y, see pack()
+    private static volatile long expectedPointer = NONE;
+    private static final Set<String> subscribers = ConcurrentHashMap.newKeySet();
+    private static volatile Runnable subscribersChanged = () -> { };
+
+    private ActivityClock() {
+    }
+
+    /**
+     * @return true while native input events are being published; otherwise the clock knows nothing
+     */
+    public static boolean isAvailable() {
+        return available;
+    }
+
+    public static void setAvailable(boolean available) {
+        ActivityClock.available = available;
+    }
+
+    public static void keyboardActivity(long nanos) {
+        lastKeyboardNanos = nanos;
+    }
+
+    /**
+     * Record a pointer move; a move to the position announced by {@link #expectPointerAt} is not user activity.
+     */
+    public static void pointerMoved(int x, int y, long nanos) {
+        if (pack(x, y) == expectedPointer) {
+            expectedPointer = NONE;
+            return;
+        }
+        lastMouseNanos = nanos;
+    }
+
+    /**
+     * Announce a pointer move about to be made by the program rather than the user.
+     */
+    public static void expectPointerAt(int x, int y) {
+        expectedPointer = pack(x, y);
+    }
+
+    /**
+     * @return the time of the last input from the source, or {@link Long#MIN_VALUE} when there was none
+     */
+    public static long lastActivityNanos(Source source) {
+        return source == Source.KEYBOARD ? lastKeyboardNanos : lastMouseNanos;
+    }
+
+    /**
+     * @return the time of the last input from any source, or {@link Long#MIN_VALUE} when there was none
+     */
+    public static long lastActivityNanos() {
+        return Math.max(lastKeyboardNanos, lastMouseNanos);
+    }
+
+    /**
+     * @return true when the user typed or moved the mouse within the given time before {@code nowNanos}
+     */
+    public static boolean isActiveWithin(long millis, long nowNanos) {
+        long last = lastActivityNanos();
+        return last != NONE && nowNanos - last < millis * 1_000_000L;
+    }
+
+    /**
+     * Ask for input events to be published until {@link #unsubscribe(String)}.
+     * @param owner the subscribing plugin; subscribing twice has no further effect
+     */
+    public static void subscribe(String owner) {
+        if (subscribers.add(owner)) {
+            subscribersChanged.run();
+        }
+    }
+
+    public static void unsubscribe(String owner) {
+        if (subscribers.remove(owner)) {
+            subscribersChanged.run();
+        }
+    }
+
+    public static boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * Set what runs whenever a plugin subscribes or unsubscribes; used by the input listener.
+     */
+    public static void onSubscribersChanged(Runnable listener) {
+        subscribersChanged = listener;
+    }
+
+    /**
+     * Forget all activity and subscribers; for tests.
+     */
+    static void reset() {
+        available = false;
+        lastKeyboardNanos = lastMouseNanos = expectedPointer = NONE;
+        subscribers.clear();
+        subscribersChanged = () -> { };
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells the dashboard that some plugin's data changed, see {@link DashboardRenderer#dashboardChanged()}. Each signal
+ * bumps a counter, so the dashboard knows which of the data it holds may be out of date, and wakes the dashboard's
+ * listener. Signalling neither locks nor waits for the dashboard.
+ */
+public final class DashboardChanges {
+
+    private static final AtomicLong changes = new AtomicLong();
+    private static volatile Runnable listener = () -> { };
+
+    private DashboardChanges() {
+    }
+
+    public static void signal() {
+        changes.incrementAndGet();
+        listener.run();
+    }
+
+    /**
+     * @return the number of signals so far; data read before the last signal may be out of date
+     */
+    public static long getChanges() {
+        return changes.get();
+    }
+
+    /**
+     * Run the listener on the signalling thread after every signal; it should only schedule work.
+     */
+    public static void setListener(Runnable listener) {
+        DashboardChanges.listener = listener != null ? listener : () -> { };
+    }
+}
@@ -78,6 +78,23 @@ public interface DashboardRenderer {
     default boolean isDashboardEnabled() {
         return true;
     }
+    
+    /**
+     * Get how often the data changes without {@link #dashboardChanged()} being called, e.g. for a countdown.
+     * The data is only read again when it changed or this interval has passed.
+     *
+     * @return milliseconds between refreshes, 0 to refresh only when signalled (default: 1000)
+     */
+    default long getDashboardRefreshMillis() {
+        return 1000;
+    }
+    
+    /**
+     * Signal that the dashboard data changed, so the dashboard is redrawn right away.
+     */
+    default void dashboardChanged() {
+        DashboardChanges.signal();
+    }
 }
 
 // Made with Bob
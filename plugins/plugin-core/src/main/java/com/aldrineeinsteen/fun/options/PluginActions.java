@@ -0,0 +1,117 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the {@link PluginAction} methods of a plugin class to method handles, once per class. Every handle has
+ * the type {@link #TYPE}, so callers invoke it exactly without reflection.
+ */
+public final class PluginActions {
+    private static final Logger logger = LoggerFactory.getLogger(PluginActions.class);
+
+    /** The type of every action handle: takes the plugin instance, returns nothing. */
+    public static final MethodType TYPE = MethodType.methodType(void.class, PluginTemplate.class);
+
+    // Kept by each plugin class itself, so it does not keep unloaded plugin classes alive
+    private static final ClassValue<Map<String, MethodHandle>> actions = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private PluginActions() {
+    }
+
+    /**
+     * @return the action handles of the plugin class by action name, empty when it declares none
+     */
+    public static Map<String, MethodHandle> of(Class<?> pluginClass) {
+        return actions.get(pluginClass);
+    }
+
+    /**
+     * @return true when the plugin handles action names itself by overriding {@link PluginTemplate#executeAction}
+     */
+    public static boolean overridesExecuteAction(Class<?> pluginClass) {
+        try {
+            return pluginClass.getMethod("executeAction", String.class).getDeclaringClass() != PluginTemplate.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Invoke an action handle, rethrowing checked exceptions of the action unchecked.
+     */
+    public static void invoke(MethodHandle handle, PluginTemplate plugin) {
+        try {
+            handle.invokeExact(plugin);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Action failed: " + t.getMessage(), t);
+        }
+    }
+
+    private static Map<String, MethodHandle> resolve(Class<?> type) {
+        Map<String, MethodHandle> resolved = new LinkedHashMap<>();
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            logger.error("Cannot access the actions of plugin {}: {}", type.getName(), e.getMessage());
+            return Map.of();
+        }
+        // Subclass first, so an overriding action wins
+        for (Class<?> current = type; current != null && current != PluginTemplate.class;
+             current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                PluginAction annotation = method.getAnnotation(PluginAction.class);
+                if (annotation == null) {
+                    continue;
+                }
+                String name = annotation.value().isEmpty() ? method.getName() : annotation.value();
+                if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) {
+                    logger.error("Action '{}' of plugin {} must be an instance method without parameters, ignoring it",
+                        name, type.getName());
+                    continue;
+                }
+                if (resolved.containsKey(name)) {
+                    continue;
+                }
+                try {
+                    resolved.put(name, lookup.unreflect(method).asType(TYPE));
+                } catch (IllegalAccessException e) {
+                    logger.error("Cannot access action '{}' of plugin {}: {}", name, type.getName(), e.getMessage());
+                }
+            }
+        }
+        return Collections.unmodifiableMap(resolved);
+    }
+}
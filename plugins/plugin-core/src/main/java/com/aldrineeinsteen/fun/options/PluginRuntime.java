@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared threads for plugins, utilities and the dashboard. A single scheduler thread keeps the timers, and every task
+ * body runs on its own virtual thread, so the number of platform threads stays the same however many utilities are
+ * loaded. A failing body is logged and counted instead of ending a thread, and cancelling a {@link Task} removes its
+ * pending timer and interrupts its running body.
+ * <p>
+ * All threads are daemons; the main thread keeps the process alive, see {@code Main.awaitTermination}. While
+ * {@link PluginUsage} is enabled, bodies run on pooled platform threads instead, because the JVM cannot measure the CPU
+ * time of virtual threads.
+ */
+public final class PluginRuntime {
+    private static final Logger logger = LoggerFactory.getLogger(PluginRuntime.class);
+
+    private static final LongAdder failures = new LongAdder();
+    private static final Set<Task> live = ConcurrentHashMap.newKeySet();
+    private static final ScheduledThreadPoolExecutor scheduler = createScheduler();
+
+    private PluginRuntime() {
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform()
+            .name("plugin-scheduler").daemon(true).uncaughtExceptionHandler(PluginRuntime::uncaught).factory());
+        // Cancelled timers leave the queue at once instead of at their deadline
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static ExecutorService workers() {
+        return PluginUsage.isEnabled() ? PlatformWorkers.EXECUTOR : VirtualWorkers.EXECUTOR;
+    }
+
+    private static final class VirtualWorkers {
+        static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("plugin-", 0).uncaughtExceptionHandler(PluginRuntime::uncaught).factory());
+    }
+
+    private static final class PlatformWorkers {
+        static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(Thread.ofPlatform().name("plugin-", 0)
+            .daemon(true).uncaughtExceptionHandler(PluginRuntime::uncaught).factory());
+    }
+
+    private static void uncaught(Thread thread, Throwable e) {
+        failures.increment();
+        logger.error("Uncaught exception on {}", thread.getName(), e);
+    }
+
+    /**
+     * Run the body now on a virtual thread.
+     * @param name names the thread and the log messages
+     */
+    public static Task execute(String name, Runnable body) {
+        return schedule(name, body, Duration.ZERO);
+    }
+
+    /**
+     * Run the body once after the delay.
+     */
+    public static Task schedule(String name, Runnable body, Duration delay) {
+        Task task = new Task(name, body, 0);
+        task.submitAfter(delay.toNanos());
+        return task;
+    }
+
+    /**
+     * Run the body after the initial delay, then again each time the delay has passed since the previous run
+     * finished, until the task is cancelled. A run that throws is logged and the next one still happens.
+     */
+    public static Task scheduleWithFixedDelay(String name, Runnable body, Duration initialDelay, Duration delay) {
+        if (delay.isNegative() || delay.isZero()) {
+            throw new IllegalArgumentException("Delay must be positive: " + delay);
+        }
+        Task task = new Task(name, body, delay.toNanos());
+        task.submitAfter(initialDelay.toNanos());
+        return task;
+    }
+
+    /**
+     * @return the tasks that are waiting for their timer or running
+     */
+    public static int getLiveTasks() {
+        return live.size();
+    }
+
+    /**
+     * @return the task bodies that have thrown since startup
+     */
+    public static long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Scheduled work of a plugin; one-shot or repeated with a fixed delay.
+     */
+    public static final class Task {
+        private final String name;
+        private final Runnable body;
+        private final long delayNanos;
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile boolean cancelled;
+        // The timer or the running body, whichever comes next
+        private volatile Future<?> pending;
+
+        private Task(String name, Runnable body, long delayNanos) {
+            this.name = name;
+            this.body = body;
+            this.delayNanos = delayNanos;
+            live.add(this);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * @return true once a one-shot task has run or the task has been cancelled
+         */
+        public boolean isDone() {
+            return finished.getCount() == 0;
+        }
+
+        /**
+         * Wait for the task to be done.
+         * @return false if the timeout passed first
+         */
+        public boolean awaitDone(Duration timeout) throws InterruptedException {
+            return finished.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Remove the pending timer and interrupt the body if it is running. Does not wait for the body to return.
+         */
+        public void cancel() {
+            cancelled = true;
+            Future<?> next = pending;
+            if (next != null) {
+                next.cancel(true);
+            }
+            finish();
+        }
+
+        private void submitAfter(long nanos) {
+            if (nanos <= 0) {
+                start();
+                return;
+            }
+            pending = scheduler.schedule(this::start, nanos, TimeUnit.NANOSECONDS);
+            if (cancelled) {
+                cancel();
+            }
+        }
+
+        private void start() {
+            if (cancelled) {
+                finish();
+                return;
+            }
+            Future<?> running = workers().submit(this::run);
+            pending = running;
+            if (cancelled) {
+                running.cancel(true);
+            }
+        }
+
+        private void run() {
+            Thread thread = Thread.currentThread();
+            String threadName = thread.getName();
+            thread.setName("plugin-" + name);
+            try {
+                if (!cancelled) {
+                    PluginUsage.run(name, body);
+                }
+            } catch (Throwable e) {
+                if (!cancelled) {
+                    failures.increment();
+                    logger.error("Task '{}' failed", name, e);
+                }
+            } finally {
+                // Pooled threads go back under their own name
+                thread.setName(threadName);
+            }
+            if (delayNanos > 0 && !cancelled) {
+                submitAfter(delayNanos);
+            } else {
+                finish();
+            }
+        }
+
+        private void finish() {
+            live.remove(this);
+            finished.countDown();
+        }
+    }
+}
@@ -3,9 +3,9 @@ package com.aldrineeinsteen.fun.options;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -13,8 +13,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Provides singleton pattern implementation and plugin lifecycle hooks.
  */
 public abstract class PluginTemplate implements DashboardRenderer {
-    // Thread-safe singleton instance registry
-    private static final Map<Class<? extends PluginTemplate>, PluginTemplate> instances = new ConcurrentHashMap<>();
+    // Singleton registry; kept by each plugin class itself, so it does not keep unloaded plugin classes alive
+    private static final ClassValue<InstanceHolder> instances = new ClassValue<>() {
+        @Override
+        protected InstanceHolder computeValue(Class<?> type) {
+            return new InstanceHolder();
+        }
+    };
     
     private final static Logger logger = LoggerFactory.getLogger(PluginTemplate.class);
     
@@ -33,33 +38,62 @@ public abstract class PluginTemplate implements DashboardRenderer {
     private int dashboardColumn = 1;
     private int dashboardRow = 1;
 
-    public static synchronized <T extends PluginTemplate> T getInstance(Class<T> clazz) {
-        if (!instances.containsKey(clazz)) {
-            try {
-                T instance = clazz.getDeclaredConstructor().newInstance();
-                instance.setPluginName(clazz.getSimpleName());
-                
-                // Initialize the plugin
-                if (!instance.initialized.get()) {
-                    instance.initialize();
-                    instance.initialized.set(true);
+    public static <T extends PluginTemplate> T getInstance(Class<T> clazz) {
+        InstanceHolder holder = instances.get(clazz);
+        PluginTemplate existing = holder.instance;
+        if (existing != null) {
+            return clazz.cast(existing);
+        }
+        // Locked per class, so slow plugin constructors do not serialise each other
+        synchronized (holder) {
+            if (holder.instance == null) {
+                try {
+                    T instance = clazz.getDeclaredConstructor().newInstance();
+                    instance.setPluginName(clazz.getSimpleName());
+
+                    // Initialize the plugin
+                    if (!instance.initialized.get()) {
+                        instance.initialize();
+                        instance.initialized.set(true);
+                    }
+
+                    holder.instance = instance;
+                    logger.info("Plugin '{}' instantiated and initialized successfully", clazz.getSimpleName());
+                } catch (Exception e) {
+                    logger.error("Error creating instance for plugin: {}", clazz.getName(), e);
+                    throw new RuntimeException("Error creating instance for " + clazz.getName(), e);
                 }
-                
-                instances.put(clazz, instance);
-                logger.info("Plugin '{}' instantiated and initialized successfully", clazz.getSimpleName());
-            } catch (Exception e) {
-                logger.error("Error creating instance for plugin: {}", clazz.getName(), e);
-                throw new RuntimeException("Error creating instance for " + clazz.getName(), e);
             }
+            return clazz.cast(holder.instance);
         }
-        return clazz.cast(instances.get(clazz));
     }
 
     /**
-     * Execute a specific action for this plugin.
+     * Forget the singleton of an unloaded plugin class.
+     * @return the released instance, or null
+     */
+    public static PluginTemplate releaseInstance(Class<? extends PluginTemplate> clazz) {
+        InstanceHolder holder = instances.get(clazz);
+        synchronized (holder) {
+            PluginTemplate released = holder.instance;
+            holder.instance = null;
+            return released;
+        }
+    }
+
+    /**
+     * Execute a specific action for this plugin by name. Runs the {@link PluginAction} method of that name; plugins
+     * that handle action names themselves override this.
      * @param actionName the name of the action to execute
+     * @throws IllegalArgumentException when the plugin has no such action
      */
-    public abstract void executeAction(String actionName);
+    public void executeAction(String actionName) {
+        MethodHandle action = PluginActions.of(getClass()).get(actionName);
+        if (action == null) {
+            throw new IllegalArgumentException("Unknown action '" + actionName + "' for plugin " + getPluginName());
+        }
+        PluginActions.invoke(action, this);
+    }
 
     /**
      * Initialize the plugin. Called once during plugin instantiation.
@@ -224,6 +258,10 @@ public abstract class PluginTemplate implements DashboardRenderer {
         // Protected constructor to enforce singleton pattern
     }
 
+    private static final class InstanceHolder {
+        private volatile PluginTemplate instance;
+    }
+
     /**
      * Plugin lifecycle states
      */
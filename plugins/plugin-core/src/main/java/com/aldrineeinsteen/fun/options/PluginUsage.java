@@ -0,0 +1,335 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * CPU time, allocated bytes and threads of each plugin, measured with the {@link ThreadMXBean} around the work done
+ * on its behalf: {@link PluginRuntime} tasks, shortcut actions and dashboard data. Work nested in another owner's
+ * work is charged to the inner owner only. Off until {@link #enable()} is called.
+ * <p>
+ * The JVM cannot measure virtual threads, so while accounting is enabled the runtime runs tasks on platform threads.
+ * Reading the counters takes about a microsecond; when that exceeds {@link #BUDGET_PROPERTY} percent of the CPU time
+ * measured, only every second, then fourth, ... run is measured, and counts for the runs in between.
+ */
+public final class PluginUsage {
+    private static final Logger logger = LoggerFactory.getLogger(PluginUsage.class);
+
+    public static final String OPTION = "plugin-usage";
+    /** System property; the share of the measured CPU time, in percent, that measuring may cost. */
+    public static final String BUDGET_PROPERTY = "fun.plugin.usage.budget";
+    static final double DEFAULT_BUDGET_PERCENT = 1.0;
+    static final int MAX_SAMPLE_EVERY = 64;
+    // Measurements between two checks of the budget
+    static final int BUDGET_WINDOW = 32;
+
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean allocations =
+        threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+
+    private static final Map<String, Usage> usages = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Frame> current = new ThreadLocal<>();
+    private static final AtomicLong calls = new AtomicLong();
+    private static final LongAdder overheadNanos = new LongAdder();
+    private static final LongAdder measuredCpuNanos = new LongAdder();
+    private static final LongAdder windowOverheadNanos = new LongAdder();
+    private static final LongAdder windowCpuNanos = new LongAdder();
+    private static final LongAdder windowSamples = new LongAdder();
+    private static volatile boolean enabled;
+    private static volatile int sampleEvery = 1;
+
+    private PluginUsage() {
+    }
+
+    /**
+     * @return true when the command line asks for plugin usage, checked before the options are parsed
+     */
+    public static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--" + OPTION) || arg.startsWith("--" + OPTION + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Discard measurements and disable accounting.
+     */
+    static void reset() {
+        enabled = false;
+        sampleEvery = 1;
+        usages.clear();
+        calls.set(0);
+        overheadNanos.reset();
+        measuredCpuNanos.reset();
+        windowOverheadNanos.reset();
+        windowCpuNanos.reset();
+        windowSamples.reset();
+    }
+
+    /**
+     * @return the simple name of a plugin class, as used for owners
+     */
+    public static String ownerOf(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    public static void run(String owner, Runnable body) {
+        call(owner, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run the body on the current thread and charge its CPU time and allocations to the owner.
+     */
+    public static <T> T call(String owner, Supplier<T> body) {
+        if (!enabled) {
+            return body.get();
+        }
+        Usage usage = usages.computeIfAbsent(owner, Usage::new);
+        usage.enter();
+        Frame parent = current.get();
+        // Work nested in a measured run is always measured, so the outer owner is not charged for it
+        Frame frame = parent != null || isSampled() ? open(parent) : null;
+        try {
+            return body.get();
+        } finally {
+            if (frame != null) {
+                close(frame, usage);
+            }
+            usage.exit();
+        }
+    }
+
+    private static boolean isSampled() {
+        int every = sampleEvery;
+        return every == 1 || calls.incrementAndGet() % every == 0;
+    }
+
+    private static Frame open(Frame parent) {
+        long start = System.nanoTime();
+        Frame frame = new Frame(parent, parent != null ? parent.scale : sampleEvery, cpuNanos(), allocatedBytes());
+        current.set(frame);
+        long overhead = System.nanoTime() - start;
+        overheadNanos.add(overhead);
+        windowOverheadNanos.add(overhead);
+        return frame;
+    }
+
+    private static void close(Frame frame, Usage usage) {
+        long start = System.nanoTime();
+        long cpu = cpuNanos() - frame.cpuStart;
+        long allocated = allocatedBytes() - frame.allocatedStart;
+        if (frame.parent != null) {
+            frame.parent.childCpuNanos += cpu;
+            frame.parent.childAllocatedBytes += allocated;
+            current.set(frame.parent);
+        } else {
+            current.remove();
+            measuredCpuNanos.add(cpu);
+            windowCpuNanos.add(cpu);
+        }
+        usage.cpuNanos.add((cpu - frame.childCpuNanos) * frame.scale);
+        usage.allocatedBytes.add((allocated - frame.childAllocatedBytes) * frame.scale);
+        long overhead = System.nanoTime() - start;
+        overheadNanos.add(overhead);
+        windowOverheadNanos.add(overhead);
+        windowSamples.increment();
+        if (windowSamples.sum() >= BUDGET_WINDOW) {
+            checkBudget();
+        }
+    }
+
+    private static synchronized void checkBudget() {
+        if (windowSamples.sum() < BUDGET_WINDOW) {
+            return;
+        }
+        double percent = 100.0 * windowOverheadNanos.sum() / Math.max(1, windowCpuNanos.sum());
+        if (percent > getBudgetPercent() && sampleEvery < MAX_SAMPLE_EVERY) {
+            sampleEvery *= 2;
+            logger.info("Plugin usage measurement took {}% of the measured CPU time, now measuring 1 in {} runs",
+                String.format(Locale.ROOT, "%.1f", percent), sampleEvery);
+        }
+        windowOverheadNanos.reset();
+        windowCpuNanos.reset();
+        windowSamples.reset();
+    }
+
+    private static long cpuNanos() {
+        return Math.max(0, threads.getCurrentThreadCpuTime());
+    }
+
+    private static long allocatedBytes() {
+        return allocations != null ? Math.max(0, allocations.getCurrentThreadAllocatedBytes()) : 0;
+    }
+
+    public static double getBudgetPercent() {
+        try {
+            return Double.parseDouble(System.getProperty(BUDGET_PROPERTY, String.valueOf(DEFAULT_BUDGET_PERCENT)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_BUDGET_PERCENT;
+        }
+    }
+
+    /**
+     * @return 1 when every run is measured, otherwise how many runs one measurement stands for
+     */
+    public static int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * @return the time spent reading the counters, in percent of the CPU time they measured
+     */
+    public static double getOverheadPercent() {
+        long measured = measuredCpuNanos.sum();
+        return measured == 0 ? 0 : 100.0 * overheadNanos.sum() / measured;
+    }
+
+    /**
+     * @return the owners by CPU time, highest first
+     */
+    public static List<Usage> getUsages() {
+        List<Usage> sorted = new ArrayList<>(usages.values());
+        sorted.sort(Comparator.comparingLong(Usage::getCpuNanos).reversed());
+        return sorted;
+    }
+
+    public static String toTable() {
+        String format = "%-28s %8s %10s %12s %8s%n";
+        StringBuilder table = new StringBuilder();
+        table.append(String.format(format, "Owner", "Runs", "CPU", "Allocated", "Threads"));
+        for (Usage usage : getUsages()) {
+            table.append(String.format(format, usage.getOwner(), usage.getRuns(), formatNanos(usage.getCpuNanos()),
+                formatBytes(usage.getAllocatedBytes()), usage.getPeakThreads()));
+        }
+        table.append(String.format(Locale.ROOT, "Overhead: %.2f%% of measured CPU (budget %.2f%%), "
+            + "measuring 1 in %d runs%n", getOverheadPercent(), getBudgetPercent(), sampleEvery));
+        return table.toString();
+    }
+
+    public static String formatNanos(long nanos) {
+        return String.format(Locale.ROOT, "%.1f ms", nanos / 1e6);
+    }
+
+    public static String formatBytes(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * Totals of one owner since accounting was enabled.
+     */
+    public static final class Usage {
+        private final String owner;
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final AtomicInteger activeThreads = new AtomicInteger();
+        private final LongAccumulator peakThreads = new LongAccumulator(Math::max, 0);
+
+        private Usage(String owner) {
+            this.owner = owner;
+        }
+
+        private void enter() {
+            runs.increment();
+            peakThreads.accumulate(activeThreads.incrementAndGet());
+        }
+
+        private void exit() {
+            activeThreads.decrementAndGet();
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos.sum();
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        /**
+         * @return the threads running work of the owner right now
+         */
+        public int getActiveThreads() {
+            return activeThreads.get();
+        }
+
+        /**
+         * @return the most threads that ran work of the owner at the same time
+         */
+        public long getPeakThreads() {
+            return peakThreads.get();
+        }
+    }
+
+    /**
+     * A measured run on the current thread.
+     */
+    private static final class Frame {
+        private final Frame parent;
+        private final int scale;
+        private final long cpuStart;
+        private final long allocatedStart;
+        private long childCpuNanos;
+        private long childAllocatedBytes;
+
+        private Frame(Frame parent, int scale, long cpuStart, long allocatedStart) {
+            this.parent = parent;
+            this.scale = scale;
+            this.cpuStart = cpuStart;
+            this.allocatedStart = allocatedStart;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Plugin metadata for plugins that are registered as service providers of {@code PluginTemplate} or
+ * {@code UtilityTemplate} in {@code META-INF/services} instead of shipping a plugin.yaml.
+ * The elements mirror the plugin.yaml keys; see {@link PluginDefinitionReader}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PluginDefinition {
+
+    /**
+     * @return the plugin name; the simple class name when empty
+     */
+    String name() default "";
+
+    String description() default "";
+
+    Option[] options() default {};
+
+    Option[] params() default {};
+
+    Shortcut[] shortcuts() default {};
+
+    /**
+     * @return the dashboard settings; at most one, none for no dashboard section
+     */
+    Dashboard[] dashboard() default {};
+
+    /**
+     * A command-line option or parameter.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({})
+    @interface Option {
+        String shortOpt();
+
+        String longOpt();
+
+        String description() default "";
+
+        boolean hasArguments() default false;
+
+        boolean required() default false;
+    }
+
+    /**
+     * A global keyboard shortcut and the action it triggers.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({})
+    @interface Shortcut {
+        String key();
+
+        String action();
+
+        /**
+         * @return the policy while the keys are held, one of {@code leading}, {@code trailing}, {@code rate} or
+         * {@code always}; the default when empty
+         */
+        String repeat() default "";
+
+        /**
+         * @return the minimum time in milliseconds between actions of the {@code rate} policy; the default when 0
+         */
+        int interval() default 0;
+    }
+
+    /**
+     * Dashboard panel settings.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({})
+    @interface Dashboard {
+        boolean enabled() default true;
+
+        int position() default 100;
+
+        int column() default 1;
+
+        int row() default 1;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a {@link PluginDescriptor} from the {@link PluginDefinition} annotation of a plugin class.
+ */
+public final class PluginDefinitionReader {
+
+    private PluginDefinitionReader() {
+    }
+
+    /**
+     * Read the annotation without initialising the class. A class without the annotation gets a descriptor
+     * with its simple name only.
+     */
+    public static PluginDescriptor read(Class<?> pluginClass) {
+        PluginDefinition definition = pluginClass.getAnnotation(PluginDefinition.class);
+        if (definition == null) {
+            return new PluginDescriptor(pluginClass.getSimpleName(), pluginClass.getName(), null,
+                    List.of(), List.of(), List.of(), null);
+        }
+
+        List<PluginDescriptor.ShortcutSpec> shortcuts = new ArrayList<>();
+        for (PluginDefinition.Shortcut shortcut : definition.shortcuts()) {
+            shortcuts.add(new PluginDescriptor.ShortcutSpec(shortcut.key(), shortcut.action(),
+                    emptyToNull(shortcut.repeat()), shortcut.interval() > 0 ? shortcut.interval() : null));
+        }
+
+        PluginDescriptor.DashboardSpec dashboard = null;
+        if (definition.dashboard().length > 0) {
+            PluginDefinition.Dashboard settings = definition.dashboard()[0];
+            dashboard = new PluginDescriptor.DashboardSpec(settings.enabled(), settings.position(),
+                    settings.column(), settings.row());
+        }
+
+        return new PluginDescriptor(
+                definition.name().isEmpty() ? pluginClass.getSimpleName() : definition.name(),
+                pluginClass.getName(),
+                emptyToNull(definition.description()),
+                options(definition.options()),
+                options(definition.params()),
+                shortcuts,
+                dashboard);
+    }
+
+    private static List<PluginDescriptor.OptionSpec> options(PluginDefinition.Option[] options) {
+        List<PluginDescriptor.OptionSpec> specs = new ArrayList<>();
+        for (PluginDefinition.Option option : options) {
+            specs.add(new PluginDescriptor.OptionSpec(option.shortOpt(), option.longOpt(),
+                    emptyToNull(option.description()), option.hasArguments(), option.required()));
+        }
+        return specs;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
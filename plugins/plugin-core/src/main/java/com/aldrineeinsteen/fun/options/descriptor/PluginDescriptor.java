@@ -0,0 +1,282 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Typed, immutable view of a plugin.yaml descriptor.
+ * Shared by the build-time descriptor compiler and the runtime plugin repository.
+ */
+public final class PluginDescriptor {
+    private final String name;
+    private final String pluginClass;
+    private final String description;
+    private final List<OptionSpec> options;
+    private final List<OptionSpec> params;
+    private final List<ShortcutSpec> shortcuts;
+    private final DashboardSpec dashboard;
+
+    public PluginDescriptor(String name, String pluginClass, String description,
+                            List<OptionSpec> options, List<OptionSpec> params,
+                            List<ShortcutSpec> shortcuts, DashboardSpec dashboard) {
+        this.name = name;
+        this.pluginClass = pluginClass;
+        this.description = description;
+        this.options = List.copyOf(options);
+        this.params = List.copyOf(params);
+        this.shortcuts = List.copyOf(shortcuts);
+        this.dashboard = dashboard;
+    }
+
+    /**
+     * Display name, falling back to the plugin class when no name was declared.
+     */
+    public String getName() {
+        return name != null ? name : pluginClass;
+    }
+
+    public String getPluginClass() {
+        return pluginClass;
+    }
+
+    /**
+     * Description, falling back to a placeholder when none was declared.
+     */
+    public String getDescription() {
+        return description != null ? description : "No description available";
+    }
+
+    public List<OptionSpec> getOptions() {
+        return options;
+    }
+
+    public List<OptionSpec> getParams() {
+        return params;
+    }
+
+    public List<ShortcutSpec> getShortcuts() {
+        return shortcuts;
+    }
+
+    /**
+     * @return dashboard section, or null when the descriptor does not declare one
+     */
+    public DashboardSpec getDashboard() {
+        return dashboard;
+    }
+
+    String getDeclaredName() {
+        return name;
+    }
+
+    String getDeclaredDescription() {
+        return description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PluginDescriptor)) return false;
+        PluginDescriptor that = (PluginDescriptor) o;
+        return Objects.equals(name, that.name)
+                && Objects.equals(pluginClass, that.pluginClass)
+                && Objects.equals(description, that.description)
+                && options.equals(that.options)
+                && params.equals(that.params)
+                && shortcuts.equals(that.shortcuts)
+                && Objects.equals(dashboard, that.dashboard);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, pluginClass, description, options, params, shortcuts, dashboard);
+    }
+
+    @Override
+    public String toString() {
+        return "PluginDescriptor{" +
+                "name='" + getName() + '\'' +
+                ", pluginClass='" + pluginClass + '\'' +
+                ", options=" + options.size() +
+                ", params=" + params.size() +
+                ", shortcuts=" + shortcuts.size() +
+                '}';
+    }
+
+    /**
+     * A command line option or parameter declared by a plugin.
+     */
+    public static final class OptionSpec {
+        private final String shortOpt;
+        private final String longOpt;
+        private final String description;
+        private final boolean hasArguments;
+        private final boolean required;
+
+        public OptionSpec(String shortOpt, String longOpt, String description, boolean hasArguments, boolean required) {
+            this.shortOpt = shortOpt;
+            this.longOpt = longOpt;
+            this.description = description != null ? description : "";
+            this.hasArguments = hasArguments;
+            this.required = required;
+        }
+
+        public String getShortOpt() {
+            return shortOpt;
+        }
+
+        public String getLongOpt() {
+            return longOpt;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public boolean hasArguments() {
+            return hasArguments;
+        }
+
+        public boolean isRequired() {
+            return required;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof OptionSpec)) return false;
+            OptionSpec that = (OptionSpec) o;
+            return hasArguments == that.hasArguments && required == that.required
+                    && Objects.equals(shortOpt, that.shortOpt)
+                    && Objects.equals(longOpt, that.longOpt)
+                    && Objects.equals(description, that.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(shortOpt, longOpt, description, hasArguments, required);
+        }
+    }
+
+    /**
+     * A global keyboard shortcut bound to a plugin action, with the policy applied while its keys are held down.
+     */
+    public static final class ShortcutSpec {
+        /** Accepted values of {@code repeat}; null means the first one. */
+        public static final List<String> REPEAT_POLICIES = List.of("leading", "trailing", "rate", "always");
+
+        private final String key;
+        private final String action;
+        private final String repeat;
+        private final Integer interval;
+
+        public ShortcutSpec(String key, String action) {
+            this(key, action, null, null);
+        }
+
+        public ShortcutSpec(String key, String action, String repeat, Integer interval) {
+            this.key = key;
+            this.action = action;
+            this.repeat = repeat;
+            this.interval = interval;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * @return one of {@link #REPEAT_POLICIES}, or null for the default
+         */
+        public String getRepeat() {
+            return repeat;
+        }
+
+        /**
+         * @return the minimum time in milliseconds between actions of the {@code rate} policy, or null for the default
+         */
+        public Integer getInterval() {
+            return interval;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ShortcutSpec)) return false;
+            ShortcutSpec that = (ShortcutSpec) o;
+            return Objects.equals(key, that.key) && Objects.equals(action, that.action)
+                    && Objects.equals(repeat, that.repeat) && Objects.equals(interval, that.interval);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, action, repeat, interval);
+        }
+    }
+
+    /**
+     * Dashboard placement. Every field is optional; null means "keep the plugin default".
+     */
+    public static final class DashboardSpec {
+        private final Boolean enabled;
+        private final Integer position;
+        private final Integer column;
+        private final Integer row;
+
+        public DashboardSpec(Boolean enabled, Integer position, Integer column, Integer row) {
+            this.enabled = enabled;
+            this.position = position;
+            this.column = column;
+            this.row = row;
+        }
+
+        public Boolean getEnabled() {
+            return enabled;
+        }
+
+        public Integer getPosition() {
+            return position;
+        }
+
+        public Integer getColumn() {
+            return column;
+        }
+
+        public Integer getRow() {
+            return row;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DashboardSpec)) return false;
+            DashboardSpec that = (DashboardSpec) o;
+            return Objects.equals(enabled, that.enabled) && Objects.equals(position, that.position)
+                    && Objects.equals(column, that.column) && Objects.equals(row, that.row);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(enabled, position, column, row);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary form of a {@link PluginDescriptor}.
+ * Layout: magic, format version, then the descriptor fields in declaration order.
+ * Nullable values carry a presence flag so the decoded descriptor is equal to the one that was encoded.
+ */
+public final class PluginDescriptorCodec {
+    static final int MAGIC = 0x46504431; // "FPD1"
+    static final int FORMAT_VERSION = 2;
+    // Version 1 lacks the shortcut repeat policy and interval
+    private static final int FORMAT_VERSION_WITHOUT_REPEAT = 1;
+
+    private PluginDescriptorCodec() {
+    }
+
+    public static byte[] encode(PluginDescriptor descriptor) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            writeString(out, descriptor.getDeclaredName());
+            writeString(out, descriptor.getPluginClass());
+            writeString(out, descriptor.getDeclaredDescription());
+            writeOptions(out, descriptor.getOptions());
+            writeOptions(out, descriptor.getParams());
+            out.writeShort(descriptor.getShortcuts().size());
+            for (PluginDescriptor.ShortcutSpec shortcut : descriptor.getShortcuts()) {
+                writeString(out, shortcut.getKey());
+                writeString(out, shortcut.getAction());
+                writeString(out, shortcut.getRepeat());
+                writeInteger(out, shortcut.getInterval());
+            }
+            PluginDescriptor.DashboardSpec dashboard = descriptor.getDashboard();
+            out.writeBoolean(dashboard != null);
+            if (dashboard != null) {
+                out.writeByte(dashboard.getEnabled() == null ? -1 : dashboard.getEnabled() ? 1 : 0);
+                writeInteger(out, dashboard.getPosition());
+                writeInteger(out, dashboard.getColumn());
+                writeInteger(out, dashboard.getRow());
+            }
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static PluginDescriptor decode(byte[] data) throws PluginDescriptorException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC) {
+                throw new PluginDescriptorException("Not a compiled plugin descriptor");
+            }
+            int version = in.readUnsignedShort();
+            if (version != FORMAT_VERSION && version != FORMAT_VERSION_WITHOUT_REPEAT) {
+                throw new PluginDescriptorException("Unsupported plugin descriptor format version: " + version);
+            }
+            String name = readString(in);
+            String pluginClass = readString(in);
+            String description = readString(in);
+            List<PluginDescriptor.OptionSpec> options = readOptions(in);
+            List<PluginDescriptor.OptionSpec> params = readOptions(in);
+            int shortcutCount = in.readUnsignedShort();
+            List<PluginDescriptor.ShortcutSpec> shortcuts = new ArrayList<>(shortcutCount);
+            for (int i = 0; i < shortcutCount; i++) {
+                String key = readString(in);
+                String action = readString(in);
+                shortcuts.add(version == FORMAT_VERSION_WITHOUT_REPEAT
+                        ? new PluginDescriptor.ShortcutSpec(key, action)
+                        : new PluginDescriptor.ShortcutSpec(key, action, readString(in), readInteger(in)));
+            }
+            PluginDescriptor.DashboardSpec dashboard = null;
+            if (in.readBoolean()) {
+                byte enabled = in.readByte();
+                dashboard = new PluginDescriptor.DashboardSpec(
+                        enabled < 0 ? null : enabled == 1,
+                        readInteger(in), readInteger(in), readInteger(in));
+            }
+            return new PluginDescriptor(name, pluginClass, description, options, params, shortcuts, dashboard);
+        } catch (IOException e) {
+            throw new PluginDescriptorException("Truncated or corrupt plugin descriptor", e);
+        }
+    }
+
+    private static void writeOptions(DataOutputStream out, List<PluginDescriptor.OptionSpec> options) throws IOException {
+        out.writeShort(options.size());
+        for (PluginDescriptor.OptionSpec option : options) {
+            writeString(out, option.getShortOpt());
+            writeString(out, option.getLongOpt());
+            writeString(out, option.getDescription());
+            out.writeBoolean(option.hasArguments());
+            out.writeBoolean(option.isRequired());
+        }
+    }
+
+    private static List<PluginDescriptor.OptionSpec> readOptions(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        List<PluginDescriptor.OptionSpec> options = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            options.add(new PluginDescriptor.OptionSpec(readString(in), readString(in), readString(in),
+                    in.readBoolean(), in.readBoolean()));
+        }
+        return options;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeInteger(DataOutputStream out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInteger(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+}
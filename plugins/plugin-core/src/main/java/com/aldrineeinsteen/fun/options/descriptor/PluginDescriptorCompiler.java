@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Build-time entry point used by the plugin modules.
+ * <ul>
+ *     <li>{@code compile <plugin.yaml> <plugin.desc>} compiles a module's plugin.yaml into its binary descriptor.</li>
+ *     <li>{@code index <plugin.jar> <plugins.idx>} adds or refreshes the jar's entry in the merged plugin index.</li>
+ * </ul>
+ */
+public final class PluginDescriptorCompiler {
+
+    private PluginDescriptorCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException, PluginDescriptorException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException(
+                    "Usage: compile <plugin.yaml> <plugin.desc> | index <plugin.jar> <plugins.idx>");
+        }
+        switch (args[0]) {
+            case "compile":
+                compile(Paths.get(args[1]), Paths.get(args[2]));
+                break;
+            case "index":
+                index(Paths.get(args[1]), Paths.get(args[2]));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown goal: " + args[0]);
+        }
+    }
+
+    /**
+     * Compile plugin.yaml into a binary descriptor. Modules without a plugin.yaml are skipped.
+     */
+    static void compile(Path yamlFile, Path descriptorFile) throws IOException, PluginDescriptorException {
+        if (!Files.isRegularFile(yamlFile)) {
+            System.out.println("No plugin.yaml at " + yamlFile + ", skipping descriptor compilation");
+            return;
+        }
+        PluginDescriptorYamlReader reader = new PluginDescriptorYamlReader();
+        PluginDescriptor descriptor;
+        try (InputStream in = Files.newInputStream(yamlFile)) {
+            descriptor = reader.read(in, yamlFile.toString());
+        }
+        reader.getWarnings().forEach(warning -> System.err.println("WARNING: " + warning));
+
+        Files.createDirectories(descriptorFile.toAbsolutePath().getParent());
+        Files.write(descriptorFile, PluginDescriptorCodec.encode(descriptor));
+        System.out.println("Compiled " + descriptor + " to " + descriptorFile);
+    }
+
+    /**
+     * Record the jar in the index that lives in the same directory. Entries for jars that no longer exist are
+     * dropped, so renamed or removed plugins do not linger. Concurrent module builds are serialised on a lock file.
+     */
+    static void index(Path jarFile, Path indexFile) throws IOException, PluginDescriptorException {
+        if (!Files.isRegularFile(jarFile)) {
+            // Aggregator modules inherit the execution but never produce a jar
+            System.out.println("No plugin jar at " + jarFile + ", skipping indexing");
+            return;
+        }
+        Path directory = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path lockFile = directory.resolve(indexFile.getFileName() + ".lock");
+
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            PluginIndex index = new PluginIndex();
+            if (Files.isRegularFile(indexFile)) {
+                try {
+                    index = PluginIndex.read(indexFile);
+                } catch (PluginDescriptorException e) {
+                    System.err.println("WARNING: rebuilding unreadable plugin index: " + e.getMessage());
+                }
+            }
+            for (PluginIndex.Entry entry : index.getEntries()) {
+                if (!Files.isRegularFile(directory.resolve(entry.getJarName()))) {
+                    index.remove(entry.getJarName());
+                }
+            }
+
+            index.put(new PluginIndex.Entry(jarFile.getFileName().toString(), Files.size(jarFile),
+                    Files.getLastModifiedTime(jarFile).toMillis(), readDescriptor(jarFile)));
+            index.write(indexFile);
+            System.out.println("Indexed " + jarFile.getFileName() + " in " + indexFile);
+        }
+    }
+
+    private static PluginDescriptor readDescriptor(Path jarFile) throws IOException, PluginDescriptorException {
+        try (JarFile jar = new JarFile(jarFile.toFile())) {
+            ZipEntry entry = jar.getEntry(PluginIndex.DESCRIPTOR_RESOURCE);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = jar.getInputStream(entry)) {
+                return PluginDescriptorCodec.decode(in.readAllBytes());
+            }
+        }
+    }
+}
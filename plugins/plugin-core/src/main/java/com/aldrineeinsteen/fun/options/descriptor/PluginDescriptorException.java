@@ -0,0 +1,30 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+/**
+ * Raised when a plugin descriptor cannot be read, either from plugin.yaml or from its compiled form.
+ */
+public class PluginDescriptorException extends Exception {
+
+    public PluginDescriptorException(String message) {
+        super(message);
+    }
+
+    public PluginDescriptorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declared structure of plugin.yaml: the keys each mapping may contain, their types and which are required.
+ * {@link PluginDescriptorYamlReader} validates documents against it while streaming.
+ */
+final class PluginDescriptorSchema {
+
+    enum Type {
+        STRING("a string"),
+        BOOLEAN("a boolean"),
+        INTEGER("an integer"),
+        LIST("a list"),
+        MAPPING("a map");
+
+        private final String description;
+
+        Type(String description) {
+            this.description = description;
+        }
+
+        boolean isScalar() {
+            return this == STRING || this == BOOLEAN || this == INTEGER;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    static final Section OPTION = new Section("option")
+            .required("shortOpt", Type.STRING)
+            .required("longOpt", Type.STRING)
+            .optional("name", Type.STRING)
+            .optional("description", Type.STRING)
+            .optional("hasArguments", Type.BOOLEAN)
+            .optional("required", Type.BOOLEAN);
+
+    static final Section SHORTCUT = new Section("shortcut")
+            .required("key", Type.STRING)
+            .required("action", Type.STRING)
+            .optional("repeat", Type.STRING)
+            .optional("interval", Type.INTEGER);
+
+    static final Section DASHBOARD = new Section("dashboard")
+            .optional("enabled", Type.BOOLEAN)
+            .optional("position", Type.INTEGER)
+            .optional("column", Type.INTEGER)
+            .optional("row", Type.INTEGER);
+
+    static final Section ROOT = new Section("plugin descriptor")
+            .optional("name", Type.STRING)
+            .optional("pluginClass", Type.STRING)
+            .optional("description", Type.STRING)
+            .list("option", OPTION)
+            .list("params", OPTION)
+            .list("shortcuts", SHORTCUT)
+            .mapping("dashboard", DASHBOARD);
+
+    private PluginDescriptorSchema() {
+    }
+
+    /**
+     * One key of a mapping. List fields describe their entries, mapping fields their own keys.
+     */
+    static final class Field {
+        private final String name;
+        private final Type type;
+        private final boolean required;
+        private final Section section;
+
+        private Field(String name, Type type, boolean required, Section section) {
+            this.name = name;
+            this.type = type;
+            this.required = required;
+            this.section = section;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Type getType() {
+            return type;
+        }
+
+        Section getSection() {
+            return section;
+        }
+    }
+
+    /**
+     * The allowed keys of one kind of mapping.
+     */
+    static final class Section {
+        private final String name;
+        private final Map<String, Field> fields = new LinkedHashMap<>();
+
+        private Section(String name) {
+            this.name = name;
+        }
+
+        private Section required(String key, Type type) {
+            fields.put(key, new Field(key, type, true, null));
+            return this;
+        }
+
+        private Section optional(String key, Type type) {
+            fields.put(key, new Field(key, type, false, null));
+            return this;
+        }
+
+        private Section list(String key, Section entries) {
+            fields.put(key, new Field(key, Type.LIST, false, entries));
+            return this;
+        }
+
+        private Section mapping(String key, Section section) {
+            fields.put(key, new Field(key, Type.MAPPING, false, section));
+            return this;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return the declared field, or null for keys the schema does not know
+         */
+        Field field(String key) {
+            return fields.get(key);
+        }
+
+        /**
+         * @return required keys that are not among the given ones, in declaration order
+         */
+        List<String> missing(Collection<String> present) {
+            List<String> missing = new ArrayList<>();
+            for (Field field : fields.values()) {
+                if (field.required && !present.contains(field.name)) {
+                    missing.add(field.name);
+                }
+            }
+            return missing;
+        }
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorSchema.Field;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorSchema.Section;
+import com.aldrineeinsteen.fun.options.descriptor.PluginDescriptorSchema.Type;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reads a plugin.yaml document into a {@link PluginDescriptor} straight from the YAML event stream,
+ * validating it against {@link PluginDescriptorSchema} on the way; no intermediate document tree is built.
+ * Only unreadable documents fail the read; malformed sections and entries are skipped and reported as warnings
+ * prefixed with {@code source:line:column}, matching the lenient handling of the original runtime parser.
+ */
+public class PluginDescriptorYamlReader {
+    private static final Resolver resolver = new Resolver();
+
+    private final List<String> warnings = new ArrayList<>();
+    private Parser parser;
+    private String source;
+
+    /**
+     * Read a descriptor from the given stream.
+     *
+     * @param in     plugin.yaml content
+     * @param source name used in messages, usually the resource URL
+     */
+    public PluginDescriptor read(InputStream in, String source) throws PluginDescriptorException {
+        warnings.clear();
+        this.source = source;
+        this.parser = new ParserImpl(new StreamReader(new UnicodeReader(in)), new LoaderOptions());
+        try {
+            return readDocument();
+        } catch (YAMLException e) {
+            throw new PluginDescriptorException("Invalid YAML in " + source + ": " + e.getMessage(), e);
+        } finally {
+            parser = null;
+        }
+    }
+
+    /**
+     * @return entry-level problems found by the last {@link #read} call
+     */
+    public List<String> getWarnings() {
+        return List.copyOf(warnings);
+    }
+
+    private PluginDescriptor readDocument() throws PluginDescriptorException {
+        parser.getEvent(); // stream start
+        if (parser.checkEvent(Event.ID.StreamEnd)) {
+            throw new PluginDescriptorException("Plugin descriptor " + source + " must be a mapping");
+        }
+        parser.getEvent(); // document start
+        Event root = parser.getEvent();
+        if (!root.is(Event.ID.MappingStart)) {
+            throw new PluginDescriptorException(position(root.getStartMark())
+                    + "Plugin descriptor must be a mapping, found " + describe(root));
+        }
+
+        String name = null;
+        String pluginClass = null;
+        String description = null;
+        List<PluginDescriptor.OptionSpec> options = List.of();
+        List<PluginDescriptor.OptionSpec> params = List.of();
+        List<PluginDescriptor.ShortcutSpec> shortcuts = List.of();
+        PluginDescriptor.DashboardSpec dashboard = null;
+
+        Set<String> present = new HashSet<>();
+        Field field;
+        while ((field = nextField(PluginDescriptorSchema.ROOT, present)) != null) {
+            switch (field.getName()) {
+                case "name":
+                    name = string(parser.getEvent());
+                    break;
+                case "pluginClass":
+                    pluginClass = string(parser.getEvent());
+                    break;
+                case "description":
+                    description = string(parser.getEvent());
+                    break;
+                case "option":
+                    options = readOptions(field);
+                    break;
+                case "params":
+                    params = readOptions(field);
+                    break;
+                case "shortcuts":
+                    shortcuts = readShortcuts(field);
+                    break;
+                case "dashboard":
+                    dashboard = readDashboard(field);
+                    break;
+                default:
+                    skip(parser.getEvent());
+            }
+        }
+
+        parser.getEvent(); // document end
+        if (!parser.checkEvent(Event.ID.StreamEnd)) {
+            throw new PluginDescriptorException(position(parser.peekEvent().getStartMark())
+                    + "Plugin descriptor must be a single document");
+        }
+        return new PluginDescriptor(name, pluginClass, description, options, params, shortcuts, dashboard);
+    }
+
+    private List<PluginDescriptor.OptionSpec> readOptions(Field list) {
+        List<PluginDescriptor.OptionSpec> result = new ArrayList<>();
+        if (!parser.getEvent().is(Event.ID.SequenceStart)) {
+            return result; // empty value
+        }
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            Event entry = parser.getEvent();
+            if (!entry.is(Event.ID.MappingStart)) {
+                warn(entry, "Invalid " + list.getName() + " entry, expected a map but found " + describe(entry));
+                skip(entry);
+                continue;
+            }
+
+            String shortOpt = null;
+            String longOpt = null;
+            String description = null;
+            boolean hasArguments = false;
+            boolean required = false;
+
+            Set<String> present = new HashSet<>();
+            Field field;
+            while ((field = nextField(list.getSection(), present)) != null) {
+                Event value = parser.getEvent();
+                switch (field.getName()) {
+                    case "shortOpt":
+                        shortOpt = string(value);
+                        break;
+                    case "longOpt":
+                        longOpt = string(value);
+                        break;
+                    case "description":
+                        description = string(value);
+                        break;
+                    case "hasArguments":
+                        hasArguments = Boolean.TRUE.equals(bool(field, value));
+                        break;
+                    case "required":
+                        required = Boolean.TRUE.equals(bool(field, value));
+                        break;
+                    default:
+                        // informational only
+                }
+            }
+
+            List<String> missing = list.getSection().missing(present);
+            if (!missing.isEmpty()) {
+                warn(entry, "Plugin " + list.getName() + " entry missing required " + String.join(", ", missing));
+                continue;
+            }
+            result.add(new PluginDescriptor.OptionSpec(shortOpt, longOpt, description, hasArguments, required));
+        }
+        parser.getEvent(); // sequence end
+        return result;
+    }
+
+    private List<PluginDescriptor.ShortcutSpec> readShortcuts(Field list) {
+        List<PluginDescriptor.ShortcutSpec> result = new ArrayList<>();
+        if (!parser.getEvent().is(Event.ID.SequenceStart)) {
+            return result; // empty value
+        }
+        while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+            Event entry = parser.getEvent();
+            if (!entry.is(Event.ID.MappingStart)) {
+                warn(entry, "Invalid shortcut entry, expected a map but found " + describe(entry));
+                skip(entry);
+                continue;
+            }
+
+            String key = null;
+            String action = null;
+            String repeat = null;
+            Integer interval = null;
+
+            Set<String> present = new HashSet<>();
+            Field field;
+            while ((field = nextField(list.getSection(), present)) != null) {
+                Event value = parser.getEvent();
+                switch (field.getName()) {
+                    case "key":
+                        key = string(value);
+                        break;
+                    case "action":
+                        action = string(value);
+                        break;
+                    case "repeat":
+                        repeat = repeatPolicy(value);
+                        break;
+                    case "interval":
+                        interval = integer(field, value, null, "Shortcut");
+                        if (interval != null && interval <= 0) {
+                            warn(value, "Shortcut interval must be positive, using the default");
+                            interval = null;
+                        }
+                        break;
+                    default:
+                        // not part of the shortcut spec
+                }
+            }
+
+            if (key == null || key.trim().isEmpty()) {
+                warn(entry, "Shortcut missing key combination");
+                continue;
+            }
+            if (action == null || action.trim().isEmpty()) {
+                warn(entry, "Shortcut missing action, key: " + key);
+                continue;
+            }
+            result.add(new PluginDescriptor.ShortcutSpec(key, action, repeat, interval));
+        }
+        parser.getEvent(); // sequence end
+        return result;
+    }
+
+    private PluginDescriptor.DashboardSpec readDashboard(Field mapping) {
+        if (!parser.getEvent().is(Event.ID.MappingStart)) {
+            return null; // empty value
+        }
+
+        Boolean enabled = null;
+        Integer position = null;
+        Integer column = null;
+        Integer row = null;
+
+        Set<String> present = new HashSet<>();
+        Field field;
+        while ((field = nextField(mapping.getSection(), present)) != null) {
+            Event value = parser.getEvent();
+            switch (field.getName()) {
+                case "enabled":
+                    enabled = bool(field, value);
+                    break;
+                case "position":
+                    position = integer(field, value, 100, "Dashboard");
+                    break;
+                case "column":
+                    column = integer(field, value, 1, "Dashboard");
+                    break;
+                case "row":
+                    row = integer(field, value, 1, "Dashboard");
+                    break;
+                default:
+                    // not part of the dashboard spec
+            }
+        }
+        return new PluginDescriptor.DashboardSpec(enabled, position, column, row);
+    }
+
+    /**
+     * Advance to the next key of the current mapping that the schema declares and whose value has the declared
+     * shape, leaving that value as the next event. Unknown keys and values of the wrong shape are reported and
+     * skipped. Keys with a non-empty value are added to {@code present}.
+     *
+     * @return the field, or null once the end of the mapping has been consumed
+     */
+    private Field nextField(Section section, Set<String> present) {
+        while (true) {
+            Event key = parser.getEvent();
+            if (key.is(Event.ID.MappingEnd)) {
+                return null;
+            }
+            if (!key.is(Event.ID.Scalar)) {
+                warn(key, "Keys of " + section.getName() + " must be strings, found " + describe(key));
+                skip(key);
+                skip(parser.getEvent());
+                continue;
+            }
+
+            String name = ((ScalarEvent) key).getValue();
+            Field field = section.field(name);
+            if (field == null) {
+                warn(key, "Unknown key '" + name + "' in " + section.getName());
+                skip(parser.getEvent());
+                continue;
+            }
+
+            Event value = parser.peekEvent();
+            if (isNull(value)) {
+                return field;
+            }
+            if (!hasShape(field.getType(), value)) {
+                warn(value, "'" + name + "' must be " + field.getType() + ", found " + describe(value));
+                skip(parser.getEvent());
+                continue;
+            }
+            if (!present.add(name)) {
+                warn(key, "Duplicate key '" + name + "' in " + section.getName() + ", the last value is used");
+            }
+            return field;
+        }
+    }
+
+    private static boolean hasShape(Type type, Event value) {
+        switch (type) {
+            case LIST:
+                return value.is(Event.ID.SequenceStart);
+            case MAPPING:
+                return value.is(Event.ID.MappingStart);
+            default:
+                return value.is(Event.ID.Scalar);
+        }
+    }
+
+    /**
+     * Consume the rest of a node whose first event has already been read.
+     */
+    private void skip(Event start) {
+        if (!start.is(Event.ID.MappingStart) && !start.is(Event.ID.SequenceStart)) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            Event event = parser.getEvent();
+            if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                depth++;
+            } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                depth--;
+            }
+        }
+    }
+
+    private static String string(Event value) {
+        return isNull(value) ? null : ((ScalarEvent) value).getValue();
+    }
+
+    private Boolean bool(Field field, Event value) {
+        if (isNull(value)) {
+            return null;
+        }
+        ScalarEvent scalar = (ScalarEvent) value;
+        if (!Tag.BOOL.equals(tag(scalar))) {
+            warn(value, "'" + field.getName() + "' must be " + field.getType() + ", found " + describe(value));
+            return null;
+        }
+        String text = scalar.getValue().toLowerCase(Locale.ROOT);
+        return text.equals("true") || text.equals("yes") || text.equals("on");
+    }
+
+    private String repeatPolicy(Event value) {
+        String repeat = string(value);
+        if (repeat == null) {
+            return null;
+        }
+        String policy = repeat.trim().toLowerCase(Locale.ROOT);
+        if (!PluginDescriptor.ShortcutSpec.REPEAT_POLICIES.contains(policy)) {
+            warn(value, "Shortcut repeat must be one of " + PluginDescriptor.ShortcutSpec.REPEAT_POLICIES
+                    + ", using the default");
+            return null;
+        }
+        return policy;
+    }
+
+    private Integer integer(Field field, Event value, Integer fallback, String owner) {
+        if (isNull(value)) {
+            return null;
+        }
+        ScalarEvent scalar = (ScalarEvent) value;
+        if (Tag.INT.equals(tag(scalar))) {
+            String digits = scalar.getValue().replace("_", "");
+            try {
+                return digits.startsWith("0b") ? Integer.parseInt(digits.substring(2), 2) : Integer.decode(digits);
+            } catch (NumberFormatException e) {
+                // out of range or a notation Integer.decode does not accept
+            }
+        }
+        warn(value, owner + " " + field.getName() + " must be " + field.getType() + ", using "
+                + (fallback == null ? "the default" : fallback));
+        return fallback;
+    }
+
+    private static boolean isNull(Event value) {
+        return value.is(Event.ID.Scalar) && Tag.NULL.equals(tag((ScalarEvent) value));
+    }
+
+    private static Tag tag(ScalarEvent scalar) {
+        if (scalar.getTag() != null && !scalar.getTag().equals("!")) {
+            return new Tag(scalar.getTag());
+        }
+        return resolver.resolve(NodeId.scalar, scalar.getValue(), scalar.getImplicit().canOmitTagInPlainScalar());
+    }
+
+    private static String describe(Event event) {
+        if (event.is(Event.ID.MappingStart)) {
+            return "a map";
+        }
+        if (event.is(Event.ID.SequenceStart)) {
+            return "a list";
+        }
+        if (event.is(Event.ID.Alias)) {
+            return "an alias (aliases are not supported)";
+        }
+        if (event.is(Event.ID.Scalar)) {
+            return "'" + ((ScalarEvent) event).getValue() + "'";
+        }
+        return "nothing";
+    }
+
+    private void warn(Event event, String message) {
+        warnings.add(position(event.getStartMark()) + message);
+    }
+
+    private String position(Mark mark) {
+        return mark == null ? source + ": " : source + ":" + (mark.getLine() + 1) + ":" + (mark.getColumn() + 1) + ": ";
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017-2025 Aldrine Einsteen
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.aldrineeinsteen.fun.options.descriptor;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merged index of the compiled descriptors of every jar in a plugin directory.
+ * Each entry records the jar's size and modification time so a reader can tell when the index is stale.
+ */
+public final class PluginIndex {
+    /** File name of the index inside the plugin directory. */
+    public static final String FILE_NAME = "plugins.idx";
+    /** Location of the compiled descriptor inside a plugin jar. */
+    public static final String DESCRIPTOR_RESOURCE = "META-INF/fun-project/plugin.desc";
+
+    static final int MAGIC = 0x46504958; // "FPIX"
+    static final int FORMAT_VERSION = 1;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    public void put(Entry entry) {
+        entries.put(entry.getJarName(), entry);
+    }
+
+    public void remove(String jarName) {
+        entries.remove(jarName);
+    }
+
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Read an index file in a single pass.
+     */
+    public static PluginIndex read(Path file) throws IOException, PluginDescriptorException {
+        byte[] data = Files.readAllBytes(file);
+        PluginIndex index = new PluginIndex();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MAGIC) {
+                throw new PluginDescriptorException("Not a plugin index: " + file);
+            }
+            int version = in.readUnsignedShort();
+            if (version != FORMAT_VERSION) {
+                throw new PluginDescriptorException("Unsupported plugin index version " + version + ": " + file);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String jarName = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                int length = in.readInt();
+                PluginDescriptor descriptor = null;
+                if (length > 0) {
+                    byte[] encoded = new byte[length];
+                    in.readFully(encoded);
+                    descriptor = PluginDescriptorCodec.decode(encoded);
+                }
+                index.put(new Entry(jarName, size, lastModified, descriptor));
+            }
+        } catch (IOException e) {
+            throw new PluginDescriptorException("Truncated or corrupt plugin index: " + file, e);
+        }
+        return index;
+    }
+
+    /**
+     * Write the index next to its final location and move it into place, so readers never see a partial file.
+     */
+    public void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Entry entry : entries.values()) {
+                out.writeUTF(entry.getJarName());
+                out.writeLong(entry.getSize());
+                out.writeLong(entry.getLastModified());
+                if (entry.getDescriptor() == null) {
+                    out.writeInt(0);
+                } else {
+                    byte[] encoded = PluginDescriptorCodec.encode(entry.getDescriptor());
+                    out.writeInt(encoded.length);
+                    out.write(encoded);
+                }
+            }
+        }
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * One jar in the plugin directory. The descriptor is null for jars that do not declare a plugin.
+     */
+    public static final class Entry {
+        private final String jarName;
+        private final long size;
+        private final long lastModified;
+        private final PluginDescriptor descriptor;
+
+        public Entry(String jarName, long size, long lastModified, PluginDescriptor descriptor) {
+            this.jarName = jarName;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.descriptor = descriptor;
+        }
+
+        public String getJarName() {
+            return jarName;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public PluginDescriptor getDescriptor() {
+            return descriptor;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.aldrineeinsteen.fun.options;
 
+import com.aldrineeinsteen.fun.options.descriptor.PluginDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
@@ -13,6 +14,18 @@ import java.util.List;
 import java.util.*;
 import java.util.stream.Collectors;
 
+// Also registered as a service provider; the definition mirrors plugin.yaml
+@PluginDefinition(
+    name = "SignatureSelector",
+    description = "Provides weighted random selection of predefined signatures and copies them to the clipboard. "
+        + "Supports global keyboard shortcuts for quick access.",
+    options = @PluginDefinition.Option(shortOpt = "sign", longOpt = "signature",
+        description = "Weighted signature selector."),
+    shortcuts = {
+        @PluginDefinition.Shortcut(key = "CTRL + SHIFT + ALT + S", action = "getRandomSignature", repeat = "leading"),
+        @PluginDefinition.Shortcut(key = "META + SHIFT + ALT + S", action = "getRandomSignature", repeat = "leading")
+    },
+    dashboard = @PluginDefinition.Dashboard(position = 20, column = 1, row = 1))
 public class SignatureSelector extends PluginTemplate {
     private final static Logger logger = LoggerFactory.getLogger(SignatureSelector.class);
     private final Random random = new Random();
@@ -62,6 +75,7 @@ public class SignatureSelector extends PluginTemplate {
         }
     }
 
+    @PluginAction
     public String getRandomSignature() {
         if (weightedSignatures.isEmpty()) {
             logger.error("The Signature collection is empty");
@@ -72,19 +86,22 @@ public class SignatureSelector extends PluginTemplate {
         clipboard.setContents(new StringSelection(selectedSignature), clipboardOwner);
         lastSelectedSignature = selectedSignature;
         lastSelectionTime = System.currentTimeMillis();
+        dashboardChanged();
         logger.info("Random signature selected and copied into the clipboard: {}", selectedSignature);
         return selectedSignature;
     }
 
+    /**
+     * How long ago the last selection was made is shown in seconds for the first minute, then in minutes.
+     */
     @Override
-    public void executeAction(String actionName) {
-        if ("getRandomSignature".equals(actionName)) {
-            getRandomSignature();
-        } else {
-            logger.error("Unrecognized action: {}", actionName);
+    public long getDashboardRefreshMillis() {
+        if (lastSelectedSignature == null) {
+            return 0;
         }
+        return System.currentTimeMillis() - lastSelectionTime < 60_000 ? 1000 : 60_000;
     }
-    
+
     /**
      * Get dashboard data for display
      */
@@ -1,7 +1,10 @@
 package com.aldrineeinsteen.fun.options;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class UtilityTemplate implements Runnable, DashboardRenderer {
     
@@ -9,6 +12,8 @@ public abstract class UtilityTemplate implements Runnable, DashboardRenderer {
     private int dashboardPosition = 100;
     private int dashboardColumn = 1;
     private int dashboardRow = 1;
+    private volatile boolean stopRequested = false;
+    private final Set<PluginRuntime.Task> tasks = ConcurrentHashMap.newKeySet();
 
     @Override
     public void run() {
@@ -19,6 +24,68 @@ public abstract class UtilityTemplate implements Runnable, DashboardRenderer {
     protected abstract void logStart();
 
     protected abstract void runUtility();
+
+    /**
+     * Apply the params declared in the plugin descriptor that were given on the command line, by long option name.
+     * Called before the utility is started; the default ignores them.
+     */
+    public void configure(Map<String, String> params) {
+        // Default implementation - subclasses can override
+    }
+
+    /**
+     * Run the action once after the delay on the shared {@link PluginRuntime}, instead of sleeping in
+     * {@link #runUtility()}. Cancelled by {@link #stop()}.
+     */
+    protected final PluginRuntime.Task schedule(Duration delay, Runnable action) {
+        return track(PluginRuntime.schedule(getClass().getSimpleName(), action, delay));
+    }
+
+    /**
+     * Run the action after the initial delay and then each time the delay has passed since the previous run finished,
+     * until {@link #stop()}.
+     */
+    protected final PluginRuntime.Task scheduleWithFixedDelay(Duration initialDelay, Duration delay, Runnable action) {
+        return track(PluginRuntime.scheduleWithFixedDelay(getClass().getSimpleName(), action, initialDelay, delay));
+    }
+
+    private PluginRuntime.Task track(PluginRuntime.Task task) {
+        tasks.removeIf(PluginRuntime.Task::isDone);
+        tasks.add(task);
+        if (stopRequested) {
+            task.cancel();
+        }
+        return task;
+    }
+
+    /**
+     * @return true while work scheduled through this utility is waiting or running
+     */
+    public boolean hasScheduledWork() {
+        for (PluginRuntime.Task task : tasks) {
+            if (!task.isDone()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ask the utility to finish, e.g. before it is unloaded, and cancel its scheduled work. Utilities that still
+     * loop in {@link #runUtility()} should check {@link #isStopRequested()}; the thread running them is interrupted.
+     */
+    public void stop() {
+        stopRequested = true;
+        tasks.forEach(PluginRuntime.Task::cancel);
+        tasks.clear();
+    }
+
+    /**
+     * @return true once {@link #stop()} has been called
+     */
+    public boolean isStopRequested() {
+        return stopRequested;
+    }
     
     /**
      * Enable or disable dashboard rendering for this utility
@@ -16,6 +16,13 @@ set "jarfile=target\fun-project.jar"
 set "libFolder=target\lib\*"
 set "pluginFolder=target\plugins\*"
 
+REM Startup-optimised runtime and class-data-sharing archive, built with: mvnw.cmd install -Pstartup-image
+REM (build-image.sh needs a Unix shell such as Git Bash)
+set "javaCmd=java"
+if exist "target\runtime\bin\java.exe" set "javaCmd=target\runtime\bin\java.exe"
+set "javaOpts="
+if exist "target\fun-project.jsa" set "javaOpts=-XX:SharedArchiveFile=target\fun-project.jsa -Xshare:auto -Xlog:cds=off"
+
 REM Initialize optional parameters with defaults
 set "signature=--sign"
 set "keep_alive=-k"
@@ -77,7 +84,7 @@ goto check_jar_and_run
 
 :run_application
 echo Running fun-project.jar
-java -cp "%libFolder%;%pluginFolder%;%jarfile%" com.aldrineeinsteen.fun.Main %signature% %keep_alive% %dashboard% %end_time%
+"%javaCmd%" %javaOpts% -cp "%libFolder%;%pluginFolder%;%jarfile%" com.aldrineeinsteen.fun.Main %signature% %keep_alive% %dashboard% %end_time%
 goto :eof
 
 :build_locally
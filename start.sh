@@ -16,6 +16,16 @@ jarfile=target/fun-project.jar
 libFolder=target/lib/*
 pluginFolder=target/plugins/*
 
+# Startup-optimised runtime and class-data-sharing archive, built with: ./mvnw install -Pstartup-image
+javaCmd=java
+if [[ -x target/runtime/bin/java ]]; then
+  javaCmd=target/runtime/bin/java
+fi
+javaOpts=""
+if [[ -f target/fun-project.jsa ]]; then
+  javaOpts="-XX:SharedArchiveFile=target/fun-project.jsa -Xshare:auto -Xlog:cds=off"
+fi
+
 # Initialize optional parameters with defaults
 signature="--sign"
 keep_alive="-k"
@@ -51,7 +61,7 @@ done
 # Function to run the application
 run_application() {
     echo "Running fun-project.jar"
-    java -cp "$libFolder:$pluginFolder:$jarfile" com.aldrineeinsteen.fun.Main $signature $keep_alive $dashboard $end_time
+    $javaCmd $javaOpts -cp "$libFolder:$pluginFolder:$jarfile" com.aldrineeinsteen.fun.Main $signature $keep_alive $dashboard $end_time
 }
 
 # Function to build locally
@@ -0,0 +1,60 @@
+#!/bin/bash
+
+# Builds the startup-optimised artifacts used by start.sh / start.cmd:
+# - target/runtime          jlink image with only the JDK modules the core and bundled plugins use
+# - target/fun-project.jsa  AppCDS archive recorded from a training start of the application
+#
+# Usage: build-image.sh <project root> [jdk home]
+# Set EXTRA_MODULES (comma separated) to add modules that are only used reflectively.
+
+set -euo pipefail
+
+ROOT=$(cd "${1:-.}" && pwd)
+JDK_HOME=${2:-${JAVA_HOME:-}}
+if [[ -z "$JDK_HOME" || ! -x "$JDK_HOME/bin/jlink" ]]; then
+    echo "A full JDK with jdeps and jlink is required (pass it as the second argument or set JAVA_HOME)" >&2
+    exit 1
+fi
+
+cd "$ROOT"
+
+# Must match the class path used by the launch scripts, or the JVM will refuse the archive
+CLASS_PATH="target/lib/*:target/plugins/*:target/fun-project.jar"
+RUNTIME=target/runtime
+ARCHIVE=target/fun-project.jsa
+
+if [[ ! -f target/fun-project.jar ]]; then
+    echo "target/fun-project.jar not found; build the project first" >&2
+    exit 1
+fi
+
+echo "Resolving JDK modules with jdeps..."
+jars=(target/lib/*.jar target/plugins/*.jar target/fun-project.jar)
+modules=$("$JDK_HOME/bin/jdeps" --ignore-missing-deps --print-module-deps --multi-release 21 "${jars[@]}")
+if [[ -n "${EXTRA_MODULES:-}" ]]; then
+    modules="$modules,$EXTRA_MODULES"
+fi
+echo "Modules: $modules"
+
+echo "Linking runtime image into $RUNTIME..."
+rm -rf "$RUNTIME"
+# Modules are left uncompressed: decompression would cost time on every class load
+"$JDK_HOME/bin/jlink" \
+    --add-modules "$modules" \
+    --strip-debug \
+    --no-header-files \
+    --no-man-pages \
+    --generate-cds-archive \
+    --output "$RUNTIME"
+
+echo "Recording AppCDS archive from a training start..."
+rm -f "$ARCHIVE"
+"$RUNTIME/bin/java" -XX:ArchiveClassesAtExit="$ARCHIVE" -Xlog:cds=warning \
+    -cp "$CLASS_PATH" com.aldrineeinsteen.fun.Main -h > /dev/null
+
+if [[ ! -f "$ARCHIVE" ]]; then
+    echo "Training start did not produce $ARCHIVE" >&2
+    exit 1
+fi
+
+echo "Runtime image: $(du -sh "$RUNTIME" | cut -f1), CDS archive: $(du -sh "$ARCHIVE" | cut -f1)"
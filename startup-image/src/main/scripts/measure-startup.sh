@@ -0,0 +1,71 @@
+#!/bin/bash
+
+# Compares cold-start time and peak RSS of the plain launch against the jlink runtime + AppCDS archive.
+# The measured start is "Main -h": full plugin discovery, then exit.
+#
+# Usage: measure-startup.sh <project root> [jdk home]
+# Set ITERATIONS to change the number of runs per variant (default 5).
+
+set -euo pipefail
+
+ROOT=$(cd "${1:-.}" && pwd)
+JDK_HOME=${2:-${JAVA_HOME:-}}
+ITERATIONS=${ITERATIONS:-5}
+
+cd "$ROOT"
+
+CLASS_PATH="target/lib/*:target/plugins/*:target/fun-project.jar"
+MAIN=com.aldrineeinsteen.fun.Main
+RUNTIME=target/runtime
+ARCHIVE=target/fun-project.jsa
+
+if [[ ! -x "$RUNTIME/bin/java" || ! -f "$ARCHIVE" ]]; then
+    echo "$RUNTIME or $ARCHIVE missing; run build-image.sh first" >&2
+    exit 1
+fi
+
+# Prints "<wall ms> <peak rss KB>" for one run; RSS is "n/a" when it cannot be measured
+run_once() {
+    if command -v python3 > /dev/null; then
+        python3 - "$@" <<'PY'
+import resource, subprocess, sys, time
+start = time.perf_counter()
+subprocess.run(sys.argv[1:], stdout=subprocess.DEVNULL, stderr=subprocess.DEVNULL, check=True)
+elapsed = (time.perf_counter() - start) * 1000
+print(int(elapsed), resource.getrusage(resource.RUSAGE_CHILDREN).ru_maxrss)
+PY
+    elif [[ -x /usr/bin/time ]]; then
+        local start end rss
+        start=$(date +%s%N)
+        rss=$(/usr/bin/time -f %M "$@" 2>&1 > /dev/null | tail -1)
+        end=$(date +%s%N)
+        echo "$(( (end - start) / 1000000 )) $rss"
+    else
+        local start end
+        start=$(date +%s%N)
+        "$@" > /dev/null 2>&1
+        end=$(date +%s%N)
+        echo "$(( (end - start) / 1000000 )) n/a"
+    fi
+}
+
+measure() {
+    local label=$1
+    shift
+    local total=0 best="" rss_max=0 wall rss
+    run_once "$@" > /dev/null # warm the page cache
+    for ((i = 0; i < ITERATIONS; i++)); do
+        read -r wall rss < <(run_once "$@")
+        total=$((total + wall))
+        if [[ -z "$best" || $wall -lt $best ]]; then best=$wall; fi
+        if [[ "$rss" != "n/a" && $rss -gt $rss_max ]]; then rss_max=$rss; fi
+    done
+    printf "%-28s %10d %10d %14s\n" "$label" $((total / ITERATIONS)) "$best" \
+        "$([[ $rss_max -gt 0 ]] && echo "$rss_max" || echo n/a)"
+}
+
+printf "%-28s %10s %10s %14s\n" "Variant ($ITERATIONS runs)" "mean ms" "best ms" "peak RSS KB"
+measure "JDK, default CDS" "$JDK_HOME/bin/java" -cp "$CLASS_PATH" "$MAIN" -h
+measure "jlink runtime" "$RUNTIME/bin/java" -cp "$CLASS_PATH" "$MAIN" -h
+measure "jlink runtime + AppCDS" "$RUNTIME/bin/java" -XX:SharedArchiveFile="$ARCHIVE" -Xshare:auto -Xlog:cds=off \
+    -cp "$CLASS_PATH" "$MAIN" -h